@@ -0,0 +1,79 @@
+package org.greatgamesonly.shared.opensource.utils.reflectionutils.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+
+public class BenchmarkModel {
+    private String name;
+    private String description;
+    private int count;
+    private long total;
+    private double ratio;
+    private boolean active;
+    private BenchmarkSubModel sub;
+    private List<String> tags;
+    private Map<String, String> attributes;
+
+    public String getName() {
+        return name;
+    }
+    public void setName(String name) {
+        this.name = name;
+    }
+    public String getDescription() {
+        return description;
+    }
+    public void setDescription(String description) {
+        this.description = description;
+    }
+    public int getCount() {
+        return count;
+    }
+    public void setCount(int count) {
+        this.count = count;
+    }
+    public long getTotal() {
+        return total;
+    }
+    public void setTotal(long total) {
+        this.total = total;
+    }
+    public double getRatio() {
+        return ratio;
+    }
+    public void setRatio(double ratio) {
+        this.ratio = ratio;
+    }
+    public boolean isActive() {
+        return active;
+    }
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+    public BenchmarkSubModel getSub() {
+        return sub;
+    }
+    public void setSub(BenchmarkSubModel sub) {
+        this.sub = sub;
+    }
+    public List<String> getTags() {
+        return tags;
+    }
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+    public Map<String, String> getAttributes() {
+        return attributes;
+    }
+    public void setAttributes(Map<String, String> attributes) {
+        this.attributes = attributes;
+    }
+
+    public String describe(String prefix) {
+        return prefix + name;
+    }
+
+    public String describe(String prefix, Integer times) {
+        return prefix + name + times;
+    }
+}
@@ -0,0 +1,11 @@
+package org.greatgamesonly.shared.opensource.utils.reflectionutils.benchmarks;
+
+public class BenchmarkSubModel {
+    private String subName;
+    public String getSubName() {
+        return subName;
+    }
+    public void setSubName(String subName) {
+        this.subName = subName;
+    }
+}
@@ -0,0 +1,34 @@
+package org.greatgamesonly.shared.opensource.utils.reflectionutils.benchmarks;
+
+import org.greatgamesonly.opensource.utils.reflectionutils.ReflectionUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * getClassFields against Class.getDeclaredFields, which it filters.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClassFieldsBenchmark {
+
+    @Benchmark
+    public Field[] getClassFieldsBaseline() {
+        return BenchmarkModel.class.getDeclaredFields();
+    }
+
+    @Benchmark
+    public Field[] getClassFields() {
+        return ReflectionUtils.getClassFields(BenchmarkModel.class);
+    }
+}
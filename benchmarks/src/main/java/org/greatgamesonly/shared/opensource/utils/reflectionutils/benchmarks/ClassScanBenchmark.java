@@ -0,0 +1,51 @@
+package org.greatgamesonly.shared.opensource.utils.reflectionutils.benchmarks;
+
+import org.greatgamesonly.opensource.utils.reflectionutils.ReflectionUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * getClasses on the benchmark package against loading the same classes by name.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClassScanBenchmark {
+    private static final String PACKAGE_NAME = ClassScanBenchmark.class.getPackageName();
+    // taken from one scan up front so the baseline loads exactly the classes getClasses finds, new benchmarks included
+    private static final List<String> CLASS_NAMES = findClassNames();
+
+    private static List<String> findClassNames() {
+        try {
+            return ReflectionUtils.getClasses(PACKAGE_NAME).stream().map(Class::getName).collect(Collectors.toList());
+        } catch (Exception e) {
+            throw new IllegalStateException("could not list the classes of " + PACKAGE_NAME, e);
+        }
+    }
+
+    @Benchmark
+    public List<Class<?>> getClassesBaseline() throws Exception {
+        List<Class<?>> classes = new ArrayList<>();
+        for(String className : CLASS_NAMES) {
+            classes.add(Class.forName(className, false, Thread.currentThread().getContextClassLoader()));
+        }
+        return classes;
+    }
+
+    @Benchmark
+    public List<Class<?>> getClasses() throws Exception {
+        return ReflectionUtils.getClasses(PACKAGE_NAME);
+    }
+}
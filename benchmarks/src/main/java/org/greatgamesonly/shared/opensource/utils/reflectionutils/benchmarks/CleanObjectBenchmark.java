@@ -0,0 +1,80 @@
+package org.greatgamesonly.shared.opensource.utils.reflectionutils.benchmarks;
+
+import org.greatgamesonly.opensource.utils.reflectionutils.ReflectionUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * cleanObject against resetting every field through its setter, one object and a pool of objects at once.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CleanObjectBenchmark {
+    private static final int POOL_SIZE = 64;
+
+    private BenchmarkModel model;
+    private BenchmarkModel[] pool;
+
+    @Setup
+    public void setup() {
+        model = new BenchmarkModel();
+        pool = new BenchmarkModel[POOL_SIZE];
+        for(int i = 0; i < POOL_SIZE; i++) {
+            pool[i] = new BenchmarkModel();
+        }
+    }
+
+    @Benchmark
+    public BenchmarkModel cleanObjectBaseline() {
+        model.setName(null);
+        model.setDescription(null);
+        model.setCount(0);
+        model.setTotal(0L);
+        model.setRatio(0.0d);
+        model.setActive(false);
+        model.setSub(null);
+        model.setTags(null);
+        model.setAttributes(null);
+        return model;
+    }
+
+    @Benchmark
+    public BenchmarkModel cleanObject() throws Exception {
+        return ReflectionUtils.cleanObject(model);
+    }
+
+    @Benchmark
+    public BenchmarkModel[] cleanObjectsBaseline() {
+        for(BenchmarkModel pooledModel : pool) {
+            pooledModel.setName(null);
+            pooledModel.setDescription(null);
+            pooledModel.setCount(0);
+            pooledModel.setTotal(0L);
+            pooledModel.setRatio(0.0d);
+            pooledModel.setActive(false);
+            pooledModel.setSub(null);
+            pooledModel.setTags(null);
+            pooledModel.setAttributes(null);
+        }
+        return pool;
+    }
+
+    @Benchmark
+    public BenchmarkModel[] cleanObjects() throws Exception {
+        return ReflectionUtils.cleanObjects(pool);
+    }
+}
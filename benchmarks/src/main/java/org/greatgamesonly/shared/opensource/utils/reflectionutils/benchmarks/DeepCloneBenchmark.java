@@ -0,0 +1,77 @@
+package org.greatgamesonly.shared.opensource.utils.reflectionutils.benchmarks;
+
+import org.apache.commons.beanutils.BeanUtilsBean;
+import org.greatgamesonly.opensource.utils.reflectionutils.ReflectionUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * deepClone against a hand written deep copy and BeanUtilsBean.cloneBean, which only copies the top level (the
+ * nested object, list and map are shared) and is what nested clones in a merge used to go through.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DeepCloneBenchmark {
+    private BenchmarkModel model;
+
+    @Setup
+    public void setup() {
+        BenchmarkSubModel sub = new BenchmarkSubModel();
+        sub.setSubName("sub");
+        model = new BenchmarkModel();
+        model.setName("model");
+        model.setDescription("description");
+        model.setCount(3);
+        model.setTotal(42L);
+        model.setRatio(0.5d);
+        model.setActive(true);
+        model.setSub(sub);
+        model.setTags(new ArrayList<>(List.of("a", "b", "c")));
+        model.setAttributes(new HashMap<>(Map.of("a", "1", "b", "2")));
+    }
+
+    @Benchmark
+    public BenchmarkModel deepCloneBaseline() {
+        BenchmarkSubModel sub = new BenchmarkSubModel();
+        sub.setSubName(model.getSub().getSubName());
+        BenchmarkModel clone = new BenchmarkModel();
+        clone.setName(model.getName());
+        clone.setDescription(model.getDescription());
+        clone.setCount(model.getCount());
+        clone.setTotal(model.getTotal());
+        clone.setRatio(model.getRatio());
+        clone.setActive(model.isActive());
+        clone.setSub(sub);
+        clone.setTags(new ArrayList<>(model.getTags()));
+        clone.setAttributes(new HashMap<>(model.getAttributes()));
+        return clone;
+    }
+
+    @Benchmark
+    public BenchmarkModel deepClone() throws Exception {
+        return ReflectionUtils.deepClone(model);
+    }
+
+    @Benchmark
+    public Object beanUtilsCloneBean() throws Exception {
+        return BeanUtilsBean.getInstance().cloneBean(model);
+    }
+}
@@ -0,0 +1,64 @@
+package org.greatgamesonly.shared.opensource.utils.reflectionutils.benchmarks;
+
+import org.greatgamesonly.opensource.utils.reflectionutils.ReflectionUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * getFieldValue, setFieldValue and setFieldValueViaSetter against plain getter and setter calls.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FieldAccessBenchmark {
+    private BenchmarkModel model;
+    private String value;
+
+    @Setup
+    public void setup() {
+        model = new BenchmarkModel();
+        model.setName("benchmark");
+        value = "changed";
+    }
+
+    @Benchmark
+    public String getFieldValueBaseline() {
+        return model.getName();
+    }
+
+    @Benchmark
+    public String getFieldValue() throws Exception {
+        return ReflectionUtils.getFieldValue("name", model);
+    }
+
+    @Benchmark
+    public BenchmarkModel setFieldValueBaseline() {
+        model.setName(value);
+        return model;
+    }
+
+    @Benchmark
+    public BenchmarkModel setFieldValue() throws Exception {
+        ReflectionUtils.setFieldValue(model, "name", value);
+        return model;
+    }
+
+    @Benchmark
+    public BenchmarkModel setFieldValueViaSetter() throws Exception {
+        ReflectionUtils.setFieldValueViaSetter(model, "name", value);
+        return model;
+    }
+}
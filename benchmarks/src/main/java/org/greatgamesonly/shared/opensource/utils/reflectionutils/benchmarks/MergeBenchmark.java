@@ -0,0 +1,87 @@
+package org.greatgamesonly.shared.opensource.utils.reflectionutils.benchmarks;
+
+import org.greatgamesonly.opensource.utils.reflectionutils.ReflectionUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * mergeNonBaseObjectIntoNonBaseObject (and the similar object variant) against copying the properties by hand with
+ * the same rules, nulls skipped, maps merged and the nested object merged into.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MergeBenchmark {
+    private BenchmarkModel incoming;
+    private BenchmarkModel mergeInto;
+
+    @Setup
+    public void setup() {
+        BenchmarkSubModel incomingSub = new BenchmarkSubModel();
+        incomingSub.setSubName("incomingSub");
+        incoming = new BenchmarkModel();
+        incoming.setName("incoming");
+        incoming.setCount(3);
+        incoming.setTotal(42L);
+        incoming.setRatio(0.5d);
+        incoming.setActive(true);
+        incoming.setSub(incomingSub);
+        incoming.setTags(List.of("a", "b"));
+        incoming.setAttributes(Map.of("b", "2"));
+
+        mergeInto = new BenchmarkModel();
+        mergeInto.setDescription("keep");
+        mergeInto.setSub(new BenchmarkSubModel());
+        mergeInto.setAttributes(new HashMap<>(Map.of("a", "1")));
+    }
+
+    @Benchmark
+    public BenchmarkModel mergeBaseline() {
+        if(incoming.getName() != null) {
+            mergeInto.setName(incoming.getName());
+        }
+        if(incoming.getDescription() != null) {
+            mergeInto.setDescription(incoming.getDescription());
+        }
+        mergeInto.setCount(incoming.getCount());
+        mergeInto.setTotal(incoming.getTotal());
+        mergeInto.setRatio(incoming.getRatio());
+        mergeInto.setActive(incoming.isActive());
+        if(incoming.getSub() != null && incoming.getSub().getSubName() != null) {
+            mergeInto.getSub().setSubName(incoming.getSub().getSubName());
+        }
+        if(incoming.getTags() != null) {
+            mergeInto.setTags(incoming.getTags());
+        }
+        if(incoming.getAttributes() != null) {
+            mergeInto.getAttributes().putAll(incoming.getAttributes());
+        }
+        return mergeInto;
+    }
+
+    @Benchmark
+    public BenchmarkModel mergeNonBaseObjectIntoNonBaseObject() throws Exception {
+        return ReflectionUtils.mergeNonBaseObjectIntoNonBaseObject(incoming, mergeInto);
+    }
+
+    @Benchmark
+    public BenchmarkModel mergeNonBaseObjectIntoSimilarNonBaseObject() throws Exception {
+        return ReflectionUtils.mergeNonBaseObjectIntoSimilarNonBaseObject(incoming, mergeInto);
+    }
+}
@@ -0,0 +1,82 @@
+package org.greatgamesonly.shared.opensource.utils.reflectionutils.benchmarks;
+
+import org.greatgamesonly.opensource.utils.reflectionutils.ReflectionUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every callReflectionMethodQuick overload, and callReflectionMethod by name and parameter types, against calling the
+ * method directly.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MethodCallBenchmark {
+    private BenchmarkModel model;
+    private Method describeMethod;
+    private Object[] describeParams;
+    private Class<?>[] describeParamTypes;
+
+    @Setup
+    public void setup() throws Exception {
+        model = new BenchmarkModel();
+        model.setName("benchmark");
+        describeMethod = BenchmarkModel.class.getMethod("describe", String.class, Integer.class);
+        describeParams = new Object[]{"prefix", 3};
+        describeParamTypes = new Class<?>[]{String.class, Integer.class};
+    }
+
+    @Benchmark
+    public String noParamBaseline() {
+        return model.getName();
+    }
+
+    @Benchmark
+    public Object noParam() throws Exception {
+        return ReflectionUtils.callReflectionMethodQuick(model, "getName");
+    }
+
+    @Benchmark
+    public String singleParamBaseline() {
+        return model.describe("prefix");
+    }
+
+    @Benchmark
+    public Object singleParam() throws Exception {
+        return ReflectionUtils.callReflectionMethodQuick(model, "describe", "prefix", String.class);
+    }
+
+    @Benchmark
+    public String multiParamBaseline() {
+        return model.describe("prefix", 3);
+    }
+
+    @Benchmark
+    public Object multiParam() throws Exception {
+        return ReflectionUtils.callReflectionMethodQuick(model, "describe", describeParams, describeParamTypes);
+    }
+
+    @Benchmark
+    public Object multiParamByName() throws Exception {
+        return ReflectionUtils.callReflectionMethod(model, "describe", describeParams, describeParamTypes);
+    }
+
+    @Benchmark
+    public Object method() throws Exception {
+        return ReflectionUtils.callReflectionMethodQuick(model, describeMethod, describeParams);
+    }
+}
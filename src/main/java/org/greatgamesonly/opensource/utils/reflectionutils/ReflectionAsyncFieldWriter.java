@@ -0,0 +1,104 @@
+package org.greatgamesonly.opensource.utils.reflectionutils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs {@link ReflectionUtils#setFieldValue(Object, String, Object)} off the calling thread. Field writes are batched
+ * per submission: all writes for one object are one task, and a batch of objects is cut into contiguous chunks like
+ * {@link ReflectionBulkMerger} does, so a large hydration is a handful of tasks instead of one per field.
+ * <p>
+ * Without an executor the writes run on virtual threads when the runtime has them (Java 21 and up, looked up
+ * reflectively since this library is built for 17) and on the common ForkJoinPool otherwise.
+ */
+final class ReflectionAsyncFieldWriter {
+    private static final int MINIMUM_CHUNK_SIZE = 64;
+    private static final int CHUNKS_PER_PROCESSOR = 4;
+
+    static final Executor DEFAULT_EXECUTOR = createDefaultExecutor();
+    // what callers get to see of the default executor, it can only run tasks so nobody can shut down the shared one
+    static final Executor DEFAULT_EXECUTOR_VIEW = task -> DEFAULT_EXECUTOR.execute(task);
+
+    private ReflectionAsyncFieldWriter() {}
+
+    static CompletableFuture<Void> setFieldValues(Object object, Map<String, ?> fieldValues, Executor executor) {
+        if(object == null || fieldValues == null || executor == null) {
+            throw new IllegalArgumentException("object, fieldValues and executor cannot be null");
+        }
+        return CompletableFuture.runAsync(() -> {
+            try {
+                writeFieldValues(object, fieldValues);
+            } catch (ReflectiveOperationException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Every object of the batch is written even when an earlier one fails, the returned future then completes with
+     * the first failure of a chunk (later ones of that chunk are added to it as suppressed exceptions).
+     */
+    static CompletableFuture<Void> setFieldValues(List<? extends Map.Entry<?, ? extends Map<String, ?>>> objectFieldValues, Executor executor) {
+        if(objectFieldValues == null || executor == null) {
+            throw new IllegalArgumentException("objectFieldValues and executor cannot be null");
+        }
+        int itemCount = objectFieldValues.size();
+        int chunkCount = Math.max(1, Math.min(
+                Runtime.getRuntime().availableProcessors() * CHUNKS_PER_PROCESSOR,
+                itemCount / MINIMUM_CHUNK_SIZE
+        ));
+        int chunkSize = Math.max(1, (itemCount + chunkCount - 1) / chunkCount);
+        List<CompletableFuture<Void>> chunks = new ArrayList<>(chunkCount);
+        for(int start = 0; start < itemCount; start += chunkSize) {
+            int chunkStart = start;
+            int chunkEnd = Math.min(itemCount, start + chunkSize);
+            chunks.add(CompletableFuture.runAsync(() -> writeChunk(objectFieldValues, chunkStart, chunkEnd), executor));
+        }
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture<?>[0]));
+    }
+
+    private static void writeChunk(List<? extends Map.Entry<?, ? extends Map<String, ?>>> objectFieldValues, int start, int end) {
+        Exception firstFailure = null;
+        for(int i = start; i < end; i++) {
+            Map.Entry<?, ? extends Map<String, ?>> objectFieldValue = objectFieldValues.get(i);
+            try {
+                if(objectFieldValue == null || objectFieldValue.getKey() == null) {
+                    throw new IllegalArgumentException("object at index " + i + " cannot be null");
+                }
+                writeFieldValues(objectFieldValue.getKey(), objectFieldValue.getValue() != null ? objectFieldValue.getValue() : Collections.emptyMap());
+            } catch (Exception e) {
+                if(firstFailure == null) {
+                    firstFailure = e;
+                } else {
+                    firstFailure.addSuppressed(e);
+                }
+            }
+        }
+        if(firstFailure != null) {
+            throw new CompletionException(firstFailure);
+        }
+    }
+
+    private static void writeFieldValues(Object object, Map<String, ?> fieldValues) throws NoSuchFieldException, IllegalAccessException {
+        for(Map.Entry<String, ?> fieldValue : fieldValues.entrySet()) {
+            ReflectionUtils.setFieldValue(object, fieldValue.getKey(), fieldValue.getValue());
+        }
+    }
+
+    private static Executor createDefaultExecutor() {
+        try {
+            return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException | SecurityException e) {
+            // no virtual threads before 21 (or only as a preview feature that is switched off)
+            return ForkJoinPool.commonPool();
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package org.greatgamesonly.opensource.utils.reflectionutils;
+
+import java.beans.IntrospectionException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.greatgamesonly.opensource.utils.reflectionutils.ReflectionUtils.BASE_VALUE_TYPES;
+import static org.greatgamesonly.opensource.utils.reflectionutils.ReflectionUtils.checkIfClassIsFromMainJavaPackages;
+
+/**
+ * Property copier for one bean class, composed once from the getter/setter pairs of the class so a merge is a
+ * straight run over method handles instead of a PropertyDescriptor lookup, conversion and Method.invoke per property.
+ * Keeps the merge rules of {@link ReflectionUtils.RecursiveBeanUtils}: null values are never copied, empty
+ * collections and maps only when copyOverEmptyValues is set, maps are merged into the destination map, enums are set
+ * as is and nested beans are merged recursively (or shallow cloned when the destination has none yet).
+ */
+class ReflectionBeanCopier {
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+    private static final ClassValue<ValueKind> VALUE_KINDS = new ClassValue<>() {
+        @Override
+        protected ValueKind computeValue(Class<?> clazz) {
+            if(Map.class.isAssignableFrom(clazz)) {
+                return ValueKind.MAP;
+            } else if(Enum.class.isAssignableFrom(clazz)) {
+                return ValueKind.ENUM;
+            } else if(Collection.class.isAssignableFrom(clazz)) {
+                return ValueKind.COLLECTION;
+            } else if(!clazz.isPrimitive() && !clazz.isArray() && !clazz.isSynthetic() && !checkIfClassIsFromMainJavaPackages(clazz)) {
+                return ValueKind.BEAN;
+            }
+            return ValueKind.PLAIN;
+        }
+    };
+
+    private final Class<?> beanClass;
+    private final MethodHandle constructor;
+    private final ReflectionSimilarClassToClassMethod[] properties;
+    // per property, true when the declared type alone tells us the value can be set as is
+    private final boolean[] plainProperties;
+
+    private ReflectionBeanCopier(Class<?> beanClass, MethodHandle constructor, ReflectionSimilarClassToClassMethod[] properties) {
+        this.beanClass = beanClass;
+        this.constructor = constructor;
+        this.properties = properties;
+        this.plainProperties = new boolean[properties.length];
+        for(int i = 0; i < properties.length; i++) {
+            Class<?> propertyType = properties[i].getPropertyType();
+            plainProperties[i] = propertyType.isPrimitive() || propertyType.isArray() || BASE_VALUE_TYPES.contains(propertyType);
+        }
+    }
+
+    protected static ReflectionBeanCopier forClass(Class<?> beanClass) throws IntrospectionException, IllegalAccessException {
+        List<ReflectionSimilarClassToClassMethod> properties = ReflectionSimilarClassToClassMethod.matchClassToClassMethods(beanClass, beanClass);
+        return new ReflectionBeanCopier(beanClass, findConstructor(beanClass), properties.toArray(new ReflectionSimilarClassToClassMethod[0]));
+    }
+
+    protected Class<?> getBeanClass() {
+        return beanClass;
+    }
+
+    /**
+     * Merges the properties of objectFrom into objectTo, objectFrom must be an instance of the bean class of this copier.
+     * Nested beans are put on an explicit work stack rather than merged recursively, and every destination object is
+     * merged into at most once (tracked by identity), so the work is linear in the size of the object graph and deep
+     * graphs are bounded by heap instead of thread stack size.
+     */
+    protected void merge(Object objectFrom, Object objectTo, boolean copyOverEmptyValues) throws IllegalAccessException, InvocationTargetException {
+        Object mergeEvent = ReflectionFlightRecorder.beginMerge();
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<PendingMerge> pendingMerges = new ArrayDeque<>();
+        pendingMerges.push(new PendingMerge(this, objectFrom, objectTo));
+        while(!pendingMerges.isEmpty()) {
+            PendingMerge pendingMerge = pendingMerges.pop();
+            // a destination we already merged into means we hit some sort of recursion (or a shared object), skip it
+            if(visited.add(pendingMerge.objectTo)) {
+                pendingMerge.beanCopier.mergeProperties(pendingMerge.objectFrom, pendingMerge.objectTo, copyOverEmptyValues, pendingMerges);
+            }
+        }
+        ReflectionFlightRecorder.commitMerge(mergeEvent, objectFrom.getClass(), objectTo.getClass(), visited.size(), "bean copier");
+    }
+
+    private void mergeProperties(Object objectFrom, Object objectTo, boolean copyOverEmptyValues, Deque<PendingMerge> pendingMerges) throws IllegalAccessException, InvocationTargetException {
+        for(int i = 0; i < properties.length; i++) {
+            ReflectionSimilarClassToClassMethod property = properties[i];
+            Object value = invokeGetter(property.getFromGetterHandle(), objectFrom);
+            if(value == null) {
+                continue;
+            }
+            if(plainProperties[i]) {
+                invokeSetter(property.getToSetterHandle(), objectTo, value);
+                continue;
+            }
+            switch (VALUE_KINDS.get(value.getClass())) {
+                case MAP:
+                    if(copyOverEmptyValues || !((Map<?, ?>) value).isEmpty()) {
+                        mergeMap(property, objectTo, (Map<?, ?>) value);
+                    }
+                    break;
+                case COLLECTION:
+                    if(copyOverEmptyValues || !((Collection<?>) value).isEmpty()) {
+                        invokeSetter(property.getToSetterHandle(), objectTo, value);
+                    }
+                    break;
+                case BEAN:
+                    mergeBean(property, objectTo, value, copyOverEmptyValues, pendingMerges);
+                    break;
+                default:
+                    invokeSetter(property.getToSetterHandle(), objectTo, value);
+            }
+        }
+    }
+
+    private void mergeMap(ReflectionSimilarClassToClassMethod property, Object objectTo, Map<?, ?> value) throws IllegalAccessException, InvocationTargetException {
+        if(property.getToGetterHandle() == null) {
+            return;
+        }
+        Object destinationValue = invokeGetter(property.getToGetterHandle(), objectTo);
+        if(destinationValue == null) {
+            invokeSetter(property.getToSetterHandle(), objectTo, value);
+        } else {
+            // the destination map takes whatever the source map of the same property holds
+            @SuppressWarnings("unchecked")
+            Map<Object, Object> destinationMap = (Map<Object, Object>) destinationValue;
+            destinationMap.putAll(value);
+        }
+    }
+
+    private void mergeBean(ReflectionSimilarClassToClassMethod property, Object objectTo, Object value, boolean copyOverEmptyValues, Deque<PendingMerge> pendingMerges) throws IllegalAccessException, InvocationTargetException {
+        if(property.getToGetterHandle() == null) {
+            return;
+        }
+        Object destinationValue = invokeGetter(property.getToGetterHandle(), objectTo);
+        if(destinationValue == null) {
+            invokeSetter(property.getToSetterHandle(), objectTo, forValue(value).shallowClone(value));
+        } else if(destinationValue.getClass().isAssignableFrom(value.getClass())) {
+            pendingMerges.push(new PendingMerge(forValue(destinationValue), value, destinationValue));
+        } else {
+            // unrelated nested types have no compiled copier, let beanutils match their properties by name
+            ReflectionMetrics.recordFallback(ReflectionFallback.BEAN_UTILS_FOR_NESTED_MERGE, destinationValue.getClass());
+            ReflectionUtils.RecursiveBeanUtils recursiveBeanUtils = new ReflectionUtils.RecursiveBeanUtils();
+            recursiveBeanUtils.copyProperties(destinationValue, value, copyOverEmptyValues);
+        }
+    }
+
+    /**
+     * New instance of the bean class with every property copied over as is, like BeanUtilsBean.cloneBean does.
+     */
+    protected Object shallowClone(Object bean) throws IllegalAccessException, InvocationTargetException {
+        if(constructor == null) {
+            throw new RuntimeException("Nested property could not be cloned.", new InstantiationException(beanClass.getName() + " has no accessible no argument constructor"));
+        }
+        Object clone;
+        try {
+            clone = (Object) constructor.invokeExact();
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+        for(ReflectionSimilarClassToClassMethod property : properties) {
+            invokeSetter(property.getToSetterHandle(), clone, invokeGetter(property.getFromGetterHandle(), bean));
+        }
+        return clone;
+    }
+
+    private static ReflectionBeanCopier forValue(Object value) throws IllegalAccessException, InvocationTargetException {
+        try {
+            return ReflectionClassMetadata.forClass(value.getClass()).getBeanCopier();
+        } catch (IntrospectionException e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    private static MethodHandle findConstructor(Class<?> beanClass) {
+        try {
+            return MethodHandles.privateLookupIn(beanClass, MethodHandles.lookup())
+                    .findConstructor(beanClass, MethodType.methodType(void.class))
+                    .asType(CONSTRUCTOR_TYPE);
+        } catch (NoSuchMethodException | IllegalAccessException | SecurityException e) {
+            return null;
+        }
+    }
+
+    private static Object invokeGetter(MethodHandle getter, Object bean) throws InvocationTargetException {
+        try {
+            return (Object) getter.invokeExact(bean);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    private static void invokeSetter(MethodHandle setter, Object bean, Object value) throws InvocationTargetException {
+        try {
+            setter.invokeExact(bean, value);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    private static class PendingMerge {
+        private final ReflectionBeanCopier beanCopier;
+        private final Object objectFrom;
+        private final Object objectTo;
+
+        private PendingMerge(ReflectionBeanCopier beanCopier, Object objectFrom, Object objectTo) {
+            this.beanCopier = beanCopier;
+            this.objectFrom = objectFrom;
+            this.objectTo = objectTo;
+        }
+    }
+
+    private enum ValueKind {
+        PLAIN,
+        MAP,
+        COLLECTION,
+        ENUM,
+        BEAN
+    }
+}
@@ -0,0 +1,565 @@
+package org.greatgamesonly.opensource.utils.reflectionutils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+
+/**
+ * Flat binary form of one class, compiled once by {@link ReflectionUtils#compileBinaryCodec(Class)}, for keeping
+ * large amounts of small value beans in (direct or memory mapped) ByteBuffers and reading them back on demand.
+ * <p>
+ * A record is a fixed section followed by a variable tail. Every field has a fixed offset in the fixed section:
+ * primitives take their own width, boxed values, dates and timestamps take one more byte that marks null, enums take
+ * their ordinal as an int and strings, byte arrays, BigIntegers and BigDecimals take their byte length as an int (-1
+ * for null, BigDecimals also their scale) with the bytes themselves in the tail, in field order. Classes with only
+ * fixed width fields therefore have records of {@link #getFixedSize()} bytes, which can be addressed as slots.
+ * <p>
+ * Fields are laid out super class first and by name within a class, so the layout only changes when the fields do.
+ * Multi byte values use the byte order of the buffer. A codec holds no state besides its layout and can be shared
+ * between threads.
+ */
+public final class ReflectionBinaryCodec<T> {
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+    private final Class<T> codecClass;
+    private final MethodHandle constructor;
+    private final FieldCodec[] fieldCodecs;
+    private final String[] fieldNames;
+    private final int fixedSize;
+    private final boolean variableSize;
+
+    ReflectionBinaryCodec(Class<T> codecClass, ReflectionFieldAccessor[] fieldAccessors) {
+        this.codecClass = codecClass;
+        this.constructor = findConstructor(codecClass);
+        this.fieldCodecs = new FieldCodec[fieldAccessors.length];
+        this.fieldNames = new String[fieldAccessors.length];
+        int offset = 0;
+        boolean variableSize = false;
+        for(int i = 0; i < fieldAccessors.length; i++) {
+            fieldCodecs[i] = new FieldCodec(fieldAccessors[i], offset);
+            fieldNames[i] = fieldAccessors[i].getField().getName();
+            offset += fieldCodecs[i].kind.fixedSize;
+            variableSize |= fieldCodecs[i].kind.variableSize;
+        }
+        this.fixedSize = offset;
+        this.variableSize = variableSize;
+    }
+
+    /**
+     * @return whether fields of this type can be encoded, see the class documentation for the supported types
+     */
+    static boolean isSupportedType(Class<?> type) {
+        return Kind.of(type) != null;
+    }
+
+    public Class<T> getCodecClass() {
+        return codecClass;
+    }
+
+    /**
+     * @return the encoded fields in layout order
+     */
+    public String[] getFieldNames() {
+        return fieldNames.clone();
+    }
+
+    /**
+     * @return the size of the fixed section, the size of every record when {@link #isFixedSize()}
+     */
+    public int getFixedSize() {
+        return fixedSize;
+    }
+
+    public boolean isFixedSize() {
+        return !variableSize;
+    }
+
+    /**
+     * @return the number of bytes instance takes, fixed section and tail
+     */
+    public int sizeOf(T instance) throws IllegalAccessException {
+        checkInstance(instance);
+        int size = fixedSize;
+        if(variableSize) {
+            for(FieldCodec fieldCodec : fieldCodecs) {
+                size += fieldCodec.tailSize(instance);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Writes instance at the position of buffer and moves the position past it.
+     * @return the number of bytes written
+     */
+    public int write(T instance, ByteBuffer buffer) throws IllegalAccessException {
+        int size = write(instance, buffer, buffer.position());
+        buffer.position(buffer.position() + size);
+        return size;
+    }
+
+    /**
+     * Writes instance at offset, without changing the position of buffer.
+     * @return the number of bytes written
+     */
+    public int write(T instance, ByteBuffer buffer, int offset) throws IllegalAccessException {
+        int size = sizeOf(instance);
+        if(offset < 0 || buffer.limit() - offset < size) {
+            throw new BufferOverflowException();
+        }
+        int tailOffset = offset + fixedSize;
+        for(FieldCodec fieldCodec : fieldCodecs) {
+            tailOffset = fieldCodec.write(instance, buffer, offset, tailOffset);
+        }
+        return size;
+    }
+
+    /**
+     * Reads a new instance from the position of buffer and moves the position past it. Needs a no argument
+     * constructor, use {@link #read(ByteBuffer, Object)} otherwise.
+     */
+    public T read(ByteBuffer buffer) throws IllegalAccessException {
+        return read(buffer, newInstance());
+    }
+
+    /**
+     * Reads the record at the position of buffer into instance and moves the position past it.
+     * @return the given instance
+     */
+    public T read(ByteBuffer buffer, T instance) throws IllegalAccessException {
+        buffer.position(buffer.position() + read(buffer, buffer.position(), instance));
+        return instance;
+    }
+
+    /**
+     * Reads a new instance from the record at offset, without changing the position of buffer.
+     */
+    public T read(ByteBuffer buffer, int offset) throws IllegalAccessException {
+        T instance = newInstance();
+        read(buffer, offset, instance);
+        return instance;
+    }
+
+    /**
+     * Reads the record at offset into instance, without changing the position of buffer.
+     * @return the number of bytes read
+     */
+    public int read(ByteBuffer buffer, int offset, T instance) throws IllegalAccessException {
+        checkInstance(instance);
+        if(offset < 0 || buffer.limit() - offset < fixedSize) {
+            throw new BufferUnderflowException();
+        }
+        int tailOffset = offset + fixedSize;
+        for(FieldCodec fieldCodec : fieldCodecs) {
+            tailOffset = fieldCodec.read(instance, buffer, offset, tailOffset);
+        }
+        return tailOffset - offset;
+    }
+
+    private T newInstance() {
+        if(constructor == null) {
+            throw new RuntimeException("Record could not be read into a new instance.", new InstantiationException(codecClass.getName() + " has no accessible no argument constructor"));
+        }
+        try {
+            return codecClass.cast((Object) constructor.invokeExact());
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException("Record could not be read into a new instance.", e);
+        }
+    }
+
+    private void checkInstance(Object instance) {
+        if(!codecClass.isInstance(instance)) {
+            throw new IllegalArgumentException("instance must be a " + codecClass.getName());
+        }
+    }
+
+    private static MethodHandle findConstructor(Class<?> codecClass) {
+        try {
+            return MethodHandles.privateLookupIn(codecClass, MethodHandles.lookup())
+                    .findConstructor(codecClass, MethodType.methodType(void.class))
+                    .asType(CONSTRUCTOR_TYPE);
+        } catch (NoSuchMethodException | IllegalAccessException | SecurityException e) {
+            return null;
+        }
+    }
+
+    private enum Kind {
+        BOOLEAN(1, false),
+        BYTE(1, false),
+        CHAR(2, false),
+        SHORT(2, false),
+        INT(4, false),
+        LONG(8, false),
+        FLOAT(4, false),
+        DOUBLE(8, false),
+        // a null flag byte in front of the value
+        BOXED_BOOLEAN(2, false),
+        BOXED_BYTE(2, false),
+        BOXED_CHAR(3, false),
+        BOXED_SHORT(3, false),
+        BOXED_INT(5, false),
+        BOXED_LONG(9, false),
+        BOXED_FLOAT(5, false),
+        BOXED_DOUBLE(9, false),
+        DATE(9, false),
+        SQL_DATE(9, false),
+        TIMESTAMP(13, false),
+        // ordinal, -1 for null
+        ENUM(4, false),
+        // byte length in the fixed section (-1 for null), the bytes in the tail
+        STRING(4, true),
+        BYTES(4, true),
+        BIG_INTEGER(4, true),
+        BIG_DECIMAL(8, true);
+
+        private final int fixedSize;
+        private final boolean variableSize;
+
+        Kind(int fixedSize, boolean variableSize) {
+            this.fixedSize = fixedSize;
+            this.variableSize = variableSize;
+        }
+
+        private static Kind of(Class<?> type) {
+            if(type == boolean.class) return BOOLEAN;
+            if(type == byte.class) return BYTE;
+            if(type == char.class) return CHAR;
+            if(type == short.class) return SHORT;
+            if(type == int.class) return INT;
+            if(type == long.class) return LONG;
+            if(type == float.class) return FLOAT;
+            if(type == double.class) return DOUBLE;
+            if(type == Boolean.class) return BOXED_BOOLEAN;
+            if(type == Byte.class) return BOXED_BYTE;
+            if(type == Character.class) return BOXED_CHAR;
+            if(type == Short.class) return BOXED_SHORT;
+            if(type == Integer.class) return BOXED_INT;
+            if(type == Long.class) return BOXED_LONG;
+            if(type == Float.class) return BOXED_FLOAT;
+            if(type == Double.class) return BOXED_DOUBLE;
+            if(type == java.util.Date.class) return DATE;
+            if(type == java.sql.Date.class) return SQL_DATE;
+            if(type == Timestamp.class) return TIMESTAMP;
+            if(type.isEnum()) return ENUM;
+            if(type == String.class) return STRING;
+            if(type == byte[].class) return BYTES;
+            if(type == BigInteger.class) return BIG_INTEGER;
+            if(type == BigDecimal.class) return BIG_DECIMAL;
+            // Number and Calendar are abstract (or carry a time zone), collections and beans have no flat form
+            return null;
+        }
+    }
+
+    private static final class FieldCodec {
+        private final Kind kind;
+        private final ReflectionFieldAccessor fieldAccessor;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+        private final Object[] enumConstants;
+        private final int offset;
+
+        private FieldCodec(ReflectionFieldAccessor fieldAccessor, int offset) {
+            Field field = fieldAccessor.getField();
+            this.kind = Kind.of(field.getType());
+            this.fieldAccessor = fieldAccessor;
+            this.getter = fieldAccessor.getExactGetter();
+            this.setter = fieldAccessor.getExactSetter();
+            this.enumConstants = field.getType().isEnum() ? field.getType().getEnumConstants() : null;
+            this.offset = offset;
+        }
+
+        private int tailSize(Object instance) throws IllegalAccessException {
+            if(!kind.variableSize) {
+                return 0;
+            }
+            Object value = fieldAccessor.get(instance);
+            if(value == null) {
+                return 0;
+            }
+            switch (kind) {
+                case STRING:
+                    return utf8Length((String) value);
+                case BYTES:
+                    return ((byte[]) value).length;
+                case BIG_INTEGER:
+                    return ((BigInteger) value).bitLength() / 8 + 1;
+                default:
+                    return ((BigDecimal) value).unscaledValue().bitLength() / 8 + 1;
+            }
+        }
+
+        private int write(Object instance, ByteBuffer buffer, int recordOffset, int tailOffset) throws IllegalAccessException {
+            int index = recordOffset + offset;
+            try {
+                switch (kind) {
+                    case BOOLEAN:
+                        buffer.put(index, (boolean) getter.invokeExact(instance) ? (byte) 1 : (byte) 0);
+                        return tailOffset;
+                    case BYTE:
+                        buffer.put(index, (byte) getter.invokeExact(instance));
+                        return tailOffset;
+                    case CHAR:
+                        buffer.putChar(index, (char) getter.invokeExact(instance));
+                        return tailOffset;
+                    case SHORT:
+                        buffer.putShort(index, (short) getter.invokeExact(instance));
+                        return tailOffset;
+                    case INT:
+                        buffer.putInt(index, (int) getter.invokeExact(instance));
+                        return tailOffset;
+                    case LONG:
+                        buffer.putLong(index, (long) getter.invokeExact(instance));
+                        return tailOffset;
+                    case FLOAT:
+                        buffer.putFloat(index, (float) getter.invokeExact(instance));
+                        return tailOffset;
+                    case DOUBLE:
+                        buffer.putDouble(index, (double) getter.invokeExact(instance));
+                        return tailOffset;
+                    default:
+                        return writeObject(fieldAccessor.get(instance), buffer, index, tailOffset);
+                }
+            } catch (RuntimeException | Error | IllegalAccessException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalAccessException(e.getMessage());
+            }
+        }
+
+        private int writeObject(Object value, ByteBuffer buffer, int index, int tailOffset) {
+            if(value == null) {
+                if(kind == Kind.ENUM || kind.variableSize) {
+                    buffer.putInt(index, -1);
+                } else {
+                    buffer.put(index, (byte) 0);
+                }
+                return tailOffset;
+            }
+            switch (kind) {
+                case BOXED_BOOLEAN:
+                    buffer.put(index, (byte) 1).put(index + 1, (Boolean) value ? (byte) 1 : (byte) 0);
+                    return tailOffset;
+                case BOXED_BYTE:
+                    buffer.put(index, (byte) 1).put(index + 1, (Byte) value);
+                    return tailOffset;
+                case BOXED_CHAR:
+                    buffer.put(index, (byte) 1).putChar(index + 1, (Character) value);
+                    return tailOffset;
+                case BOXED_SHORT:
+                    buffer.put(index, (byte) 1).putShort(index + 1, (Short) value);
+                    return tailOffset;
+                case BOXED_INT:
+                    buffer.put(index, (byte) 1).putInt(index + 1, (Integer) value);
+                    return tailOffset;
+                case BOXED_LONG:
+                    buffer.put(index, (byte) 1).putLong(index + 1, (Long) value);
+                    return tailOffset;
+                case BOXED_FLOAT:
+                    buffer.put(index, (byte) 1).putFloat(index + 1, (Float) value);
+                    return tailOffset;
+                case BOXED_DOUBLE:
+                    buffer.put(index, (byte) 1).putDouble(index + 1, (Double) value);
+                    return tailOffset;
+                case DATE:
+                case SQL_DATE:
+                    buffer.put(index, (byte) 1).putLong(index + 1, ((java.util.Date) value).getTime());
+                    return tailOffset;
+                case TIMESTAMP:
+                    buffer.put(index, (byte) 1).putLong(index + 1, ((Timestamp) value).getTime()).putInt(index + 9, ((Timestamp) value).getNanos());
+                    return tailOffset;
+                case ENUM:
+                    buffer.putInt(index, ((Enum<?>) value).ordinal());
+                    return tailOffset;
+                case STRING:
+                    int length = encodeUtf8((String) value, buffer, tailOffset);
+                    buffer.putInt(index, length);
+                    return tailOffset + length;
+                case BYTES:
+                    return writeTail(buffer, index, tailOffset, (byte[]) value);
+                case BIG_INTEGER:
+                    return writeTail(buffer, index, tailOffset, ((BigInteger) value).toByteArray());
+                default:
+                    buffer.putInt(index + 4, ((BigDecimal) value).scale());
+                    return writeTail(buffer, index, tailOffset, ((BigDecimal) value).unscaledValue().toByteArray());
+            }
+        }
+
+        private int read(Object instance, ByteBuffer buffer, int recordOffset, int tailOffset) throws IllegalAccessException {
+            int index = recordOffset + offset;
+            try {
+                switch (kind) {
+                    case BOOLEAN:
+                        setter.invokeExact(instance, buffer.get(index) != 0);
+                        return tailOffset;
+                    case BYTE:
+                        setter.invokeExact(instance, buffer.get(index));
+                        return tailOffset;
+                    case CHAR:
+                        setter.invokeExact(instance, buffer.getChar(index));
+                        return tailOffset;
+                    case SHORT:
+                        setter.invokeExact(instance, buffer.getShort(index));
+                        return tailOffset;
+                    case INT:
+                        setter.invokeExact(instance, buffer.getInt(index));
+                        return tailOffset;
+                    case LONG:
+                        setter.invokeExact(instance, buffer.getLong(index));
+                        return tailOffset;
+                    case FLOAT:
+                        setter.invokeExact(instance, buffer.getFloat(index));
+                        return tailOffset;
+                    case DOUBLE:
+                        setter.invokeExact(instance, buffer.getDouble(index));
+                        return tailOffset;
+                    default:
+                        return readObject(instance, buffer, index, tailOffset);
+                }
+            } catch (RuntimeException | Error | IllegalAccessException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalAccessException(e.getMessage());
+            }
+        }
+
+        private int readObject(Object instance, ByteBuffer buffer, int index, int tailOffset) throws IllegalAccessException {
+            Object value = null;
+            boolean present = kind == Kind.ENUM || kind.variableSize ? buffer.getInt(index) >= 0 : buffer.get(index) != 0;
+            if(present) {
+                switch (kind) {
+                    case BOXED_BOOLEAN:
+                        value = buffer.get(index + 1) != 0;
+                        break;
+                    case BOXED_BYTE:
+                        value = buffer.get(index + 1);
+                        break;
+                    case BOXED_CHAR:
+                        value = buffer.getChar(index + 1);
+                        break;
+                    case BOXED_SHORT:
+                        value = buffer.getShort(index + 1);
+                        break;
+                    case BOXED_INT:
+                        value = buffer.getInt(index + 1);
+                        break;
+                    case BOXED_LONG:
+                        value = buffer.getLong(index + 1);
+                        break;
+                    case BOXED_FLOAT:
+                        value = buffer.getFloat(index + 1);
+                        break;
+                    case BOXED_DOUBLE:
+                        value = buffer.getDouble(index + 1);
+                        break;
+                    case DATE:
+                        value = new java.util.Date(buffer.getLong(index + 1));
+                        break;
+                    case SQL_DATE:
+                        value = new java.sql.Date(buffer.getLong(index + 1));
+                        break;
+                    case TIMESTAMP:
+                        Timestamp timestamp = new Timestamp(buffer.getLong(index + 1));
+                        timestamp.setNanos(buffer.getInt(index + 9));
+                        value = timestamp;
+                        break;
+                    case ENUM:
+                        value = enumConstants[buffer.getInt(index)];
+                        break;
+                    default:
+                        int length = buffer.getInt(index);
+                        if(buffer.limit() - tailOffset < length) {
+                            throw new BufferUnderflowException();
+                        }
+                        value = readTail(buffer, index, tailOffset, length);
+                        tailOffset += length;
+                }
+            }
+            fieldAccessor.set(instance, value);
+            return tailOffset;
+        }
+
+        private Object readTail(ByteBuffer buffer, int index, int tailOffset, int length) {
+            if(kind == Kind.STRING && buffer.hasArray()) {
+                // decode in place, heap buffers do not need the copy
+                return new String(buffer.array(), buffer.arrayOffset() + tailOffset, length, StandardCharsets.UTF_8);
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(tailOffset, bytes);
+            switch (kind) {
+                case STRING:
+                    return new String(bytes, StandardCharsets.UTF_8);
+                case BYTES:
+                    return bytes;
+                case BIG_INTEGER:
+                    return new BigInteger(bytes);
+                default:
+                    return new BigDecimal(new BigInteger(bytes), buffer.getInt(index + 4));
+            }
+        }
+
+        private static int writeTail(ByteBuffer buffer, int index, int tailOffset, byte[] bytes) {
+            buffer.putInt(index, bytes.length);
+            buffer.put(tailOffset, bytes);
+            return tailOffset + bytes.length;
+        }
+
+        // UTF-8 straight into the buffer so writing a string does not allocate, unpaired surrogates become '?' like
+        // String.getBytes does
+
+        private static int utf8Length(String value) {
+            int length = 0;
+            for(int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if(c < 0x80) {
+                    length++;
+                } else if(c < 0x800) {
+                    length += 2;
+                } else if(Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    length += 4;
+                    i++;
+                } else if(Character.isSurrogate(c)) {
+                    length++;
+                } else {
+                    length += 3;
+                }
+            }
+            return length;
+        }
+
+        private static int encodeUtf8(String value, ByteBuffer buffer, int index) {
+            int start = index;
+            for(int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if(c < 0x80) {
+                    buffer.put(index++, (byte) c);
+                } else if(c < 0x800) {
+                    buffer.put(index++, (byte) (0xC0 | (c >> 6)));
+                    buffer.put(index++, (byte) (0x80 | (c & 0x3F)));
+                } else if(Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    buffer.put(index++, (byte) (0xF0 | (codePoint >> 18)));
+                    buffer.put(index++, (byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                    buffer.put(index++, (byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                    buffer.put(index++, (byte) (0x80 | (codePoint & 0x3F)));
+                } else if(Character.isSurrogate(c)) {
+                    buffer.put(index++, (byte) '?');
+                } else {
+                    buffer.put(index++, (byte) (0xE0 | (c >> 12)));
+                    buffer.put(index++, (byte) (0x80 | ((c >> 6) & 0x3F)));
+                    buffer.put(index++, (byte) (0x80 | (c & 0x3F)));
+                }
+            }
+            return index - start;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.greatgamesonly.opensource.utils.reflectionutils;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk merge, see {@link ReflectionUtils#mergeNonBaseObjectsIntoNonBaseObjects(List, boolean)}.
+ * Pairs that failed can be left partially merged, the merge of a pair is not rolled back.
+ */
+public final class ReflectionBulkMergeResult {
+    private final int itemCount;
+    private final List<Failure> failures;
+
+    ReflectionBulkMergeResult(int itemCount, List<Failure> failures) {
+        this.itemCount = itemCount;
+        this.failures = List.copyOf(failures);
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    public int getMergedCount() {
+        return itemCount - failures.size();
+    }
+
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+
+    /**
+     * @return the failed pairs, in the order they had in the batch
+     */
+    public List<Failure> getFailures() {
+        return failures;
+    }
+
+    @Override
+    public String toString() {
+        return "ReflectionBulkMergeResult{" +
+                "itemCount=" + itemCount +
+                ", failureCount=" + failures.size() +
+                '}';
+    }
+
+    public static final class Failure {
+        private final int index;
+        private final Object objectFrom;
+        private final Object objectTo;
+        private final Exception cause;
+
+        Failure(int index, Object objectFrom, Object objectTo, Exception cause) {
+            this.index = index;
+            this.objectFrom = objectFrom;
+            this.objectTo = objectTo;
+            this.cause = cause;
+        }
+
+        /**
+         * @return the position of the failed pair in the batch
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        public Object getObjectFrom() {
+            return objectFrom;
+        }
+
+        public Object getObjectTo() {
+            return objectTo;
+        }
+
+        public Exception getCause() {
+            return cause;
+        }
+
+        @Override
+        public String toString() {
+            return "Failure{" +
+                    "index=" + index +
+                    ", cause=" + cause +
+                    '}';
+        }
+    }
+}
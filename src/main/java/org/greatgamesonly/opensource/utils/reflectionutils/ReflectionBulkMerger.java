@@ -0,0 +1,90 @@
+package org.greatgamesonly.opensource.utils.reflectionutils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs {@link ReflectionUtils#mergeNonBaseObjectIntoNonBaseObject(Object, Object, boolean)} over a batch of pairs.
+ * The batch is cut into contiguous chunks, each chunk runs as one task with its own merge state, only the property
+ * descriptor cache is shared and that is filled for every class in the batch before any task starts.
+ */
+final class ReflectionBulkMerger {
+    // below this many pairs per task the hand off costs more than the merging
+    private static final int MINIMUM_CHUNK_SIZE = 64;
+    private static final int CHUNKS_PER_PROCESSOR = 4;
+
+    private ReflectionBulkMerger() {}
+
+    static ReflectionBulkMergeResult merge(List<? extends Map.Entry<?, ?>> objectPairs, boolean copyOverEmptyValues, Executor executor) {
+        if(objectPairs == null || executor == null) {
+            throw new IllegalArgumentException("objectPairs and executor cannot be null");
+        }
+        int itemCount = objectPairs.size();
+        ReflectionUtils.CustomPropertyUtilsBean propertyUtilsBean = resolvePropertyDescriptors(objectPairs);
+
+        int chunkCount = Math.max(1, Math.min(
+                Runtime.getRuntime().availableProcessors() * CHUNKS_PER_PROCESSOR,
+                itemCount / MINIMUM_CHUNK_SIZE
+        ));
+        int chunkSize = (itemCount + chunkCount - 1) / chunkCount;
+        List<CompletableFuture<List<ReflectionBulkMergeResult.Failure>>> chunks = new ArrayList<>(chunkCount);
+        for(int start = 0; start < itemCount; start += chunkSize) {
+            int chunkStart = start;
+            int chunkEnd = Math.min(itemCount, start + chunkSize);
+            chunks.add(CompletableFuture.supplyAsync(
+                    () -> mergeChunk(objectPairs, chunkStart, chunkEnd, copyOverEmptyValues, propertyUtilsBean),
+                    executor
+            ));
+        }
+
+        // chunks are in batch order, so are the failures within a chunk
+        List<ReflectionBulkMergeResult.Failure> failures = new ArrayList<>();
+        for(CompletableFuture<List<ReflectionBulkMergeResult.Failure>> chunk : chunks) {
+            failures.addAll(chunk.join());
+        }
+        return new ReflectionBulkMergeResult(itemCount, failures);
+    }
+
+    private static ReflectionUtils.CustomPropertyUtilsBean resolvePropertyDescriptors(List<? extends Map.Entry<?, ?>> objectPairs) {
+        ReflectionUtils.CustomPropertyUtilsBean propertyUtilsBean = new ReflectionUtils.CustomPropertyUtilsBean();
+        Set<Class<?>> resolvedClasses = new HashSet<>();
+        for(Map.Entry<?, ?> objectPair : objectPairs) {
+            if(objectPair == null) {
+                continue;
+            }
+            resolvePropertyDescriptors(propertyUtilsBean, resolvedClasses, objectPair.getKey());
+            resolvePropertyDescriptors(propertyUtilsBean, resolvedClasses, objectPair.getValue());
+        }
+        return propertyUtilsBean;
+    }
+
+    private static void resolvePropertyDescriptors(ReflectionUtils.CustomPropertyUtilsBean propertyUtilsBean, Set<Class<?>> resolvedClasses, Object object) {
+        if(object != null && resolvedClasses.add(object.getClass())) {
+            propertyUtilsBean.getPropertyDescriptors(object.getClass());
+        }
+    }
+
+    private static List<ReflectionBulkMergeResult.Failure> mergeChunk(List<? extends Map.Entry<?, ?>> objectPairs, int start, int end, boolean copyOverEmptyValues, ReflectionUtils.CustomPropertyUtilsBean propertyUtilsBean) {
+        ReflectionUtils.RecursiveBeanUtils recursiveBeanUtils = new ReflectionUtils.RecursiveBeanUtils(propertyUtilsBean);
+        List<ReflectionBulkMergeResult.Failure> failures = new ArrayList<>();
+        for(int i = start; i < end; i++) {
+            Map.Entry<?, ?> objectPair = objectPairs.get(i);
+            Object objectFrom = objectPair != null ? objectPair.getKey() : null;
+            Object objectTo = objectPair != null ? objectPair.getValue() : null;
+            try {
+                if(objectFrom == null || objectTo == null) {
+                    throw new IllegalArgumentException("objectFrom and objectTo cannot be null");
+                }
+                recursiveBeanUtils.copyProperties(objectTo, objectFrom, copyOverEmptyValues);
+            } catch (Exception e) {
+                failures.add(new ReflectionBulkMergeResult.Failure(i, objectFrom, objectTo, e));
+            }
+        }
+        return failures;
+    }
+}
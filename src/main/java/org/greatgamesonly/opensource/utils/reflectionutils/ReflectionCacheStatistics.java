@@ -0,0 +1,63 @@
+package org.greatgamesonly.opensource.utils.reflectionutils;
+
+/**
+ * Point in time snapshot of the reflection metadata cache counters, see {@link ReflectionUtils#getCacheStatistics()}.
+ */
+public final class ReflectionCacheStatistics {
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long entryCount;
+    private final long maximumSize;
+
+    ReflectionCacheStatistics(long hitCount, long missCount, long evictionCount, long entryCount, long maximumSize) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.entryCount = entryCount;
+        this.maximumSize = maximumSize;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getRequestCount() {
+        return hitCount + missCount;
+    }
+
+    public double getHitRate() {
+        long requestCount = getRequestCount();
+        return requestCount == 0 ? 1.0d : (double) hitCount / requestCount;
+    }
+
+    /**
+     * @return the number of cached entries (resolved fields and methods) that were evicted to stay within the maximum size
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    @Override
+    public String toString() {
+        return "ReflectionCacheStatistics{" +
+                "hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                ", evictionCount=" + evictionCount +
+                ", entryCount=" + entryCount +
+                ", maximumSize=" + maximumSize +
+                '}';
+    }
+}
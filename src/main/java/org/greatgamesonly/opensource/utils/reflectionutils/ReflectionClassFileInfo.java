@@ -0,0 +1,215 @@
+package org.greatgamesonly.opensource.utils.reflectionutils;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The parts of a class file the classpath queries need (name, super class, interfaces and runtime visible class
+ * annotations), read straight from the class file bytes so the class itself never has to be loaded. Only the header,
+ * the constant pool and the class level attributes are decoded, fields and methods are skipped over.
+ */
+class ReflectionClassFileInfo {
+    private static final int CLASS_FILE_MAGIC = 0xCAFEBABE;
+    private static final int ACC_INTERFACE = 0x0200;
+    private static final int ACC_ANNOTATION = 0x2000;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_FLOAT = 4;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+    private static final int CONSTANT_METHOD_TYPE = 16;
+    private static final int CONSTANT_DYNAMIC = 17;
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    private static final int CONSTANT_MODULE = 19;
+    private static final int CONSTANT_PACKAGE = 20;
+
+    private final String className;
+    private final String superClassName;
+    private final List<String> interfaceNames;
+    private final List<String> annotationNames;
+    private final int accessFlags;
+
+    private ReflectionClassFileInfo(String className, String superClassName, List<String> interfaceNames, List<String> annotationNames, int accessFlags) {
+        this.className = className;
+        this.superClassName = superClassName;
+        this.interfaceNames = interfaceNames;
+        this.annotationNames = annotationNames;
+        this.accessFlags = accessFlags;
+    }
+
+    protected static ReflectionClassFileInfo read(InputStream classFile) throws IOException {
+        DataInputStream input = new DataInputStream(new BufferedInputStream(classFile));
+        if(input.readInt() != CLASS_FILE_MAGIC) {
+            throw new IOException("not a class file");
+        }
+        input.readUnsignedShort(); // minor version
+        input.readUnsignedShort(); // major version
+
+        int constantPoolCount = input.readUnsignedShort();
+        String[] utf8Constants = new String[constantPoolCount];
+        int[] classNameIndexes = new int[constantPoolCount];
+        for(int i = 1; i < constantPoolCount; i++) {
+            int tag = input.readUnsignedByte();
+            switch (tag) {
+                case CONSTANT_UTF8:
+                    utf8Constants[i] = input.readUTF();
+                    break;
+                case CONSTANT_CLASS:
+                    classNameIndexes[i] = input.readUnsignedShort();
+                    break;
+                case CONSTANT_LONG:
+                case CONSTANT_DOUBLE:
+                    skipFully(input, 8);
+                    i++; // takes up two constant pool slots
+                    break;
+                case CONSTANT_INTEGER:
+                case CONSTANT_FLOAT:
+                case CONSTANT_FIELDREF:
+                case CONSTANT_METHODREF:
+                case CONSTANT_INTERFACE_METHODREF:
+                case CONSTANT_NAME_AND_TYPE:
+                case CONSTANT_DYNAMIC:
+                case CONSTANT_INVOKE_DYNAMIC:
+                    skipFully(input, 4);
+                    break;
+                case CONSTANT_METHOD_HANDLE:
+                    skipFully(input, 3);
+                    break;
+                case CONSTANT_STRING:
+                case CONSTANT_METHOD_TYPE:
+                case CONSTANT_MODULE:
+                case CONSTANT_PACKAGE:
+                    skipFully(input, 2);
+                    break;
+                default:
+                    throw new IOException("unknown constant pool tag " + tag);
+            }
+        }
+
+        int accessFlags = input.readUnsignedShort();
+        String className = toClassName(utf8Constants[classNameIndexes[input.readUnsignedShort()]]);
+        int superClassIndex = input.readUnsignedShort();
+        String superClassName = superClassIndex != 0 ? toClassName(utf8Constants[classNameIndexes[superClassIndex]]) : null;
+        int interfaceCount = input.readUnsignedShort();
+        List<String> interfaceNames = new ArrayList<>(interfaceCount);
+        for(int i = 0; i < interfaceCount; i++) {
+            interfaceNames.add(toClassName(utf8Constants[classNameIndexes[input.readUnsignedShort()]]));
+        }
+
+        skipMembers(input); // fields
+        skipMembers(input); // methods
+
+        List<String> annotationNames = new ArrayList<>();
+        int attributeCount = input.readUnsignedShort();
+        for(int i = 0; i < attributeCount; i++) {
+            String attributeName = utf8Constants[input.readUnsignedShort()];
+            int attributeLength = input.readInt();
+            if("RuntimeVisibleAnnotations".equals(attributeName)) {
+                int annotationCount = input.readUnsignedShort();
+                for(int j = 0; j < annotationCount; j++) {
+                    annotationNames.add(readAnnotation(input, utf8Constants));
+                }
+            } else {
+                skipFully(input, attributeLength);
+            }
+        }
+        return new ReflectionClassFileInfo(className, superClassName, interfaceNames, annotationNames, accessFlags);
+    }
+
+    private static void skipFully(DataInputStream input, int length) throws IOException {
+        if(input.skipBytes(length) != length) {
+            throw new EOFException("truncated class file");
+        }
+    }
+
+    private static void skipMembers(DataInputStream input) throws IOException {
+        int memberCount = input.readUnsignedShort();
+        for(int i = 0; i < memberCount; i++) {
+            skipFully(input, 6); // access flags, name and descriptor
+            int attributeCount = input.readUnsignedShort();
+            for(int j = 0; j < attributeCount; j++) {
+                skipFully(input, 2);
+                skipFully(input, input.readInt());
+            }
+        }
+    }
+
+    /**
+     * Reads one annotation and skips its element values.
+     * @return the class name of the annotation type
+     */
+    private static String readAnnotation(DataInputStream input, String[] utf8Constants) throws IOException {
+        String typeDescriptor = utf8Constants[input.readUnsignedShort()];
+        int elementValuePairCount = input.readUnsignedShort();
+        for(int i = 0; i < elementValuePairCount; i++) {
+            skipFully(input, 2); // element name
+            skipElementValue(input, utf8Constants);
+        }
+        // descriptor looks like Lcom/example/SomeAnnotation;
+        return toClassName(typeDescriptor.substring(1, typeDescriptor.length() - 1));
+    }
+
+    private static void skipElementValue(DataInputStream input, String[] utf8Constants) throws IOException {
+        int tag = input.readUnsignedByte();
+        switch (tag) {
+            case 'e':
+                skipFully(input, 4); // enum type and constant name
+                break;
+            case '@':
+                readAnnotation(input, utf8Constants);
+                break;
+            case '[':
+                int valueCount = input.readUnsignedShort();
+                for(int i = 0; i < valueCount; i++) {
+                    skipElementValue(input, utf8Constants);
+                }
+                break;
+            default:
+                skipFully(input, 2); // constant or class index
+        }
+    }
+
+    private static String toClassName(String internalName) {
+        return internalName.replace('/', '.');
+    }
+
+    protected String getClassName() {
+        return className;
+    }
+
+    /**
+     * @return null for java.lang.Object (and module-info)
+     */
+    protected String getSuperClassName() {
+        return superClassName;
+    }
+
+    protected List<String> getInterfaceNames() {
+        return interfaceNames;
+    }
+
+    protected List<String> getAnnotationNames() {
+        return annotationNames;
+    }
+
+    protected boolean isInterface() {
+        return (accessFlags & ACC_INTERFACE) != 0;
+    }
+
+    protected boolean isAnnotation() {
+        return (accessFlags & ACC_ANNOTATION) != 0;
+    }
+}
@@ -0,0 +1,246 @@
+package org.greatgamesonly.opensource.utils.reflectionutils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Class name index used by the class scanning methods so a classpath root does not have to be enumerated again and
+ * again. There are two kinds of index:
+ * <ul>
+ *     <li>a build time index, written with {@link ReflectionUtils#writeClassIndex(Path, Path)} into
+ *     {@value #INDEX_RESOURCE} of the artifact it describes, it is trusted as is for that artifact since it ships with
+ *     the classes, other classpath roots holding part of the same package are still scanned</li>
+ *     <li>a local disk index per jar, only written when {@value #ENABLED_PROPERTY} is true, stored under
+ *     {@value #DIRECTORY_PROPERTY} (the temp directory by default) and thrown away once the size or last modified
+ *     time of the jar no longer matches</li>
+ * </ul>
+ * Jar indexes are also kept in memory for as long as the jar stays unchanged.
+ */
+final class ReflectionClassIndex {
+    static final String INDEX_RESOURCE = "META-INF/reflectionutils/class-index";
+    static final String ENABLED_PROPERTY = "reflectionutils.classIndex.enabled";
+    static final String DIRECTORY_PROPERTY = "reflectionutils.classIndex.directory";
+    private static final String INDEX_HEADER = "# reflectionutils class index v1";
+    private static final String SOURCE_PREFIX = "# source ";
+
+    private static final ConcurrentHashMap<String, JarIndex> jarIndexes = new ConcurrentHashMap<>();
+
+    private ReflectionClassIndex() {}
+
+    /**
+     * @return per classpath root that carries a build time index (the root as a URL string, ending in /), the class
+     * names in packageName (and its sub packages) that index lists. Roots without an index are not in the map, their
+     * part of a package still has to be scanned.
+     */
+    static Map<String, List<String>> findIndexedClassNames(ClassLoader classLoader, String packageName) throws IOException {
+        String packagePrefix = packageName + ".";
+        Map<String, List<String>> classNamesByRoot = new LinkedHashMap<>();
+        Enumeration<URL> indexResources = classLoader.getResources(INDEX_RESOURCE);
+        while(indexResources.hasMoreElements()) {
+            URL indexResource = indexResources.nextElement();
+            String root = getRoot(indexResource, INDEX_RESOURCE);
+            if(root == null || classNamesByRoot.containsKey(root)) {
+                continue;
+            }
+            List<String> classNames = new ArrayList<>();
+            try(InputStream inputStream = indexResource.openStream()) {
+                for(String className : readClassNames(inputStream)) {
+                    if(className.startsWith(packagePrefix)) {
+                        classNames.add(className);
+                    }
+                }
+            }
+            classNamesByRoot.put(root, classNames);
+        }
+        return classNamesByRoot;
+    }
+
+    /**
+     * @return the classpath root resource was found in, resource minus resourcePath, or null when it does not end in it
+     */
+    static String getRoot(URL resource, String resourcePath) {
+        String url = resource.toString();
+        if(url.endsWith("/")) {
+            url = url.substring(0, url.length() - 1);
+        }
+        return url.endsWith("/" + resourcePath) ? url.substring(0, url.length() - resourcePath.length()) : null;
+    }
+
+    /**
+     * @return every class name in jarFile, from memory or the local disk index when they still match the jar
+     */
+    static List<String> getJarClassNames(File jarFile) throws IOException {
+        String jarPath = jarFile.getAbsolutePath();
+        long size = jarFile.length();
+        long lastModified = jarFile.lastModified();
+        JarIndex jarIndex = jarIndexes.get(jarPath);
+        if(jarIndex != null && jarIndex.matches(size, lastModified)) {
+            return jarIndex.classNames;
+        }
+
+        String source = jarPath + " " + size + " " + lastModified;
+        List<String> classNames = null;
+        Path indexFile = Boolean.getBoolean(ENABLED_PROPERTY) ? getLocalIndexFile(jarPath) : null;
+        if(indexFile != null && Files.isRegularFile(indexFile)) {
+            classNames = readLocalIndex(indexFile, source);
+        }
+        if(classNames == null) {
+            classNames = scanJar(jarFile);
+            if(indexFile != null) {
+                try {
+                    writeIndex(indexFile, source, classNames);
+                } catch (IOException | SecurityException ignored) {
+                    // the disk index is only a shortcut for the next start, scanning worked so carry on without it
+                }
+            }
+        }
+        jarIndexes.put(jarPath, new JarIndex(size, lastModified, classNames));
+        return classNames;
+    }
+
+    /**
+     * Indexes every class in classpathRoot, a directory of class files or a jar.
+     */
+    static void write(Path classpathRoot, Path indexFile) throws IOException {
+        List<String> classNames;
+        if(Files.isDirectory(classpathRoot)) {
+            try(Stream<Path> files = Files.walk(classpathRoot)) {
+                classNames = files
+                        .filter(Files::isRegularFile)
+                        .map(file -> classpathRoot.relativize(file).toString().replace(File.separatorChar, '/'))
+                        .filter(ReflectionClassIndex::isClassFile)
+                        .map(ReflectionClassIndex::toClassName)
+                        .sorted()
+                        .collect(Collectors.toList());
+            }
+        } else {
+            classNames = scanJar(classpathRoot.toFile());
+        }
+        writeIndex(indexFile, null, classNames);
+    }
+
+    private static List<String> scanJar(File file) throws IOException {
+        List<String> classNames = new ArrayList<>();
+        try(JarFile jarFile = new JarFile(file)) {
+            Enumeration<JarEntry> entries = jarFile.entries();
+            while(entries.hasMoreElements()) {
+                JarEntry jarEntry = entries.nextElement();
+                if(!jarEntry.isDirectory() && isClassFile(jarEntry.getName())) {
+                    classNames.add(toClassName(jarEntry.getName()));
+                }
+            }
+        }
+        Collections.sort(classNames);
+        return Collections.unmodifiableList(classNames);
+    }
+
+    static boolean isClassFile(String path) {
+        // module-info, package-info and multi release copies under META-INF are no classes one can load by that name
+        return path.endsWith(".class") && !path.endsWith("-info.class") && !path.startsWith("META-INF/");
+    }
+
+    private static String toClassName(String classFilePath) {
+        return classFilePath.substring(0, classFilePath.length() - ".class".length()).replace('/', '.');
+    }
+
+    private static Path getLocalIndexFile(String jarPath) {
+        String directory = System.getProperty(DIRECTORY_PROPERTY);
+        Path indexDirectory = directory != null ? Paths.get(directory) : Paths.get(System.getProperty("java.io.tmpdir"), "reflectionutils-class-index");
+        // the name only has to tell jars apart, the source line inside the file is what validates it
+        String fileName = new File(jarPath).getName() + "-" + Integer.toHexString(jarPath.hashCode()) + ".idx";
+        return indexDirectory.resolve(fileName);
+    }
+
+    private static List<String> readLocalIndex(Path indexFile, String expectedSource) {
+        try(BufferedReader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+            if(!INDEX_HEADER.equals(reader.readLine()) || !(SOURCE_PREFIX + expectedSource).equals(reader.readLine())) {
+                return null;
+            }
+            return Collections.unmodifiableList(readClassNames(reader));
+        } catch (IOException e) {
+            // unreadable index, rescan and write it again
+            return null;
+        }
+    }
+
+    private static List<String> readClassNames(InputStream inputStream) throws IOException {
+        return readClassNames(new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)));
+    }
+
+    private static List<String> readClassNames(BufferedReader reader) throws IOException {
+        List<String> classNames = new ArrayList<>();
+        String line;
+        while((line = reader.readLine()) != null) {
+            if(!line.isEmpty() && !line.startsWith("#")) {
+                classNames.add(line);
+            }
+        }
+        return classNames;
+    }
+
+    private static void writeIndex(Path indexFile, String source, List<String> classNames) throws IOException {
+        Path parent = indexFile.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        // write next to the target and move it in place, so a concurrent reader never sees half an index
+        Path temporaryFile = Files.createTempFile(parent, indexFile.getFileName().toString(), ".tmp");
+        try {
+            try(BufferedWriter writer = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8)) {
+                writer.write(INDEX_HEADER);
+                writer.newLine();
+                if(source != null) {
+                    writer.write(SOURCE_PREFIX + source);
+                    writer.newLine();
+                }
+                for(String className : classNames) {
+                    writer.write(className);
+                    writer.newLine();
+                }
+            }
+            try {
+                Files.move(temporaryFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, indexFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    private static class JarIndex {
+        private final long size;
+        private final long lastModified;
+        private final List<String> classNames;
+
+        private JarIndex(long size, long lastModified, List<String> classNames) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.classNames = classNames;
+        }
+
+        private boolean matches(long size, long lastModified) {
+            return this.size == size && this.lastModified == lastModified;
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package org.greatgamesonly.opensource.utils.reflectionutils;
+
+import java.beans.IntrospectionException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToIntFunction;
+
+/**
+ * Per class table of resolved fields and methods, looked up by member name so that a cache hit never has to build
+ * (or hash) a composite String key. Tables are handed out and bounded by {@link ReflectionMetadataCache}.
+ */
+class ReflectionClassMetadata {
+    private static final int MAXIMUM_ACCESS_FREQUENCY = 15;
+    private static final Class<?>[] NO_PARAMETER_TYPES = new Class<?>[0];
+
+    private final Class<?> clazz;
+    private final ConcurrentHashMap<String, ReflectionFieldAccessor> fieldAccessors = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Method> setterMethods = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, MethodSlot> methodSlots = new ConcurrentHashMap<>();
+    // per destination class, held by the destination class itself (a ClassValue keeps its values in the class it is
+    // asked for) so this table never keeps a destination class or its loader alive. the destinations are tracked
+    // weakly as well, ReflectionMetadataCache drops the entries of a class loader that gets invalidated through them
+    private final ClassValue<AtomicReference<List<ReflectionSimilarClassToClassMethod>>> classToClassMethods = new ClassValue<>() {
+        @Override
+        protected AtomicReference<List<ReflectionSimilarClassToClassMethod>> computeValue(Class<?> toClass) {
+            synchronized (classToClassDestinations) {
+                classToClassDestinations.put(toClass, Boolean.TRUE);
+            }
+            return new AtomicReference<>();
+        }
+    };
+    private final WeakHashMap<Class<?>, Boolean> classToClassDestinations = new WeakHashMap<>();
+    // names that were looked up before and do not exist, so callers can go straight to their fallback instead of
+    // paying for a NoSuchFieldException/NoSuchMethodException again. kept apart so a positive hit stays one map read
+    private final Set<String> missingFields = ConcurrentHashMap.newKeySet();
+    private final Set<String> missingSetters = ConcurrentHashMap.newKeySet();
+    private final Set<String> missingMethods = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger entryCount = new AtomicInteger();
+    // whole class plans, each built once on first use, see lazyPlan
+    private final AtomicReference<ReflectionBeanCopier> beanCopier = new AtomicReference<>();
+    private final AtomicReference<ReflectionPropertyTable> propertyTable = new AtomicReference<>();
+    private final AtomicReference<ReflectionResetPlan> resetPlan = new AtomicReference<>();
+    private final AtomicReference<ReflectionClonePlan> clonePlan = new AtomicReference<>();
+    private final AtomicReference<ReflectionDiffPlan> diffPlan = new AtomicReference<>();
+    private final AtomicReference<ReflectionObjectMethods> objectMethods = new AtomicReference<>();
+    private final AtomicBoolean registered = new AtomicBoolean();
+    private volatile boolean evicted;
+    // plain fields on purpose, they only steer eviction so a lost update is harmless
+    private int lastAccessEpoch = -1;
+    private int accessFrequency;
+
+    ReflectionClassMetadata(Class<?> clazz) {
+        this.clazz = clazz;
+    }
+
+    protected static ReflectionClassMetadata forClass(Class<?> clazz) {
+        return ReflectionMetadataCache.getClassMetadata(clazz);
+    }
+
+    protected Class<?> getMetadataClass() {
+        return clazz;
+    }
+
+    protected ReflectionFieldAccessor getFieldAccessor(String fieldName) {
+        return recordLookup(fieldAccessors.get(fieldName), missingFields, fieldName);
+    }
+
+    protected void putFieldAccessor(String fieldName, ReflectionFieldAccessor fieldAccessor) {
+        recordInsert(fieldAccessors.put(fieldName, fieldAccessor));
+    }
+
+    protected Method getSetterMethod(String fieldName) {
+        return recordLookup(setterMethods.get(fieldName), missingSetters, fieldName);
+    }
+
+    protected void putSetterMethod(String fieldName, Method method) {
+        recordInsert(setterMethods.put(fieldName, method));
+    }
+
+    protected Method getMethod(String methodName) {
+        MethodSlot methodSlot = methodSlots.get(methodName);
+        return recordLookup(methodSlot != null ? methodSlot.noParamMethod : null, missingMethods, methodName);
+    }
+
+    protected Method getMethod(String methodName, Class<?> methodParamType) {
+        MethodSlot methodSlot = methodSlots.get(methodName);
+        return recordLookup(methodSlot != null ? methodSlot.singleParamMethods.get(methodParamType) : null);
+    }
+
+    protected Method getMethod(String methodName, Class<?>[] methodParamTypes) {
+        MethodSlot methodSlot = methodSlots.get(methodName);
+        return recordLookup(methodSlot != null ? methodSlot.getMultiParamMethod(methodParamTypes != null ? methodParamTypes : NO_PARAMETER_TYPES) : null);
+    }
+
+    protected void putMethod(String methodName, Method method) {
+        MethodSlot methodSlot = getMethodSlot(methodName);
+        Method previous = methodSlot.noParamMethod;
+        methodSlot.noParamMethod = method;
+        recordInsert(previous);
+    }
+
+    protected void putMethod(String methodName, Class<?> methodParamType, Method method) {
+        recordInsert(getMethodSlot(methodName).singleParamMethods.put(methodParamType, method));
+    }
+
+    protected void putMethod(String methodName, Class<?>[] methodParamTypes, Method method) {
+        // racing misses all put the method they looked up, only the first one is an entry
+        if(getMethodSlot(methodName).addMultiParamMethod(methodParamTypes != null ? methodParamTypes.clone() : NO_PARAMETER_TYPES, method)) {
+            recordInsert(null);
+        }
+    }
+
+    protected boolean isMissingField(String fieldName) {
+        return isMissing(missingFields, fieldName);
+    }
+
+    protected void putMissingField(String fieldName) {
+        putMissing(missingFields, fieldName);
+    }
+
+    protected boolean isMissingSetter(String fieldName) {
+        return isMissing(missingSetters, fieldName);
+    }
+
+    protected void putMissingSetter(String fieldName) {
+        putMissing(missingSetters, fieldName);
+    }
+
+    /**
+     * Only for methods without parameters, see {@link #getMethod(String)}.
+     */
+    protected boolean isMissingMethod(String methodName) {
+        return isMissing(missingMethods, methodName);
+    }
+
+    protected void putMissingMethod(String methodName) {
+        putMissing(missingMethods, methodName);
+    }
+
+    protected ReflectionBeanCopier getBeanCopier() throws IntrospectionException, IllegalAccessException {
+        return this.<ReflectionBeanCopier, IntrospectionException, IllegalAccessException>lazyPlan(beanCopier, ReflectionBeanCopier::forClass, "bean copier", plan -> 1);
+    }
+
+    protected ReflectionPropertyTable getPropertyTable() throws IntrospectionException {
+        return lazyPlan(propertyTable, ReflectionPropertyTable::forClass, "property table", plan -> 1);
+    }
+
+    protected ReflectionResetPlan getResetPlan() throws IllegalAccessException {
+        return lazyPlan(resetPlan, ReflectionResetPlan::forClass, "reset plan", ReflectionResetPlan::size);
+    }
+
+    protected ReflectionClonePlan getClonePlan() throws IllegalAccessException {
+        return lazyPlan(clonePlan, ReflectionClonePlan::forClass, "clone plan", ReflectionClonePlan::size);
+    }
+
+    protected ReflectionDiffPlan getDiffPlan() throws IllegalAccessException {
+        return lazyPlan(diffPlan, ReflectionDiffPlan::forClass, "diff plan", ReflectionDiffPlan::size);
+    }
+
+    protected ReflectionObjectMethods getObjectMethods() throws IllegalAccessException {
+        return lazyPlan(objectMethods, ReflectionObjectMethods::forClass, "object methods", ReflectionObjectMethods::size);
+    }
+
+    protected List<ReflectionSimilarClassToClassMethod> getClassToClassMethods(Class<?> toClass) throws IntrospectionException, IllegalAccessException {
+        AtomicReference<List<ReflectionSimilarClassToClassMethod>> cachedClassToClassMethods = classToClassMethods.get(toClass);
+        List<ReflectionSimilarClassToClassMethod> matchedClassToClassMethods = cachedClassToClassMethods.get();
+        if(matchedClassToClassMethods != null) {
+            // hits skip lazyPlan, its builder would capture toClass and allocate on every merge
+            return recordLookup(matchedClassToClassMethods);
+        }
+        return this.<List<ReflectionSimilarClassToClassMethod>, IntrospectionException, IllegalAccessException>lazyPlan(cachedClassToClassMethods,
+                fromClass -> List.copyOf(ReflectionSimilarClassToClassMethod.matchClassToClassMethods(fromClass, toClass)), "class to class methods", plan -> 1);
+    }
+
+    int removeClassToClassMethods(ClassLoader toClassLoader) {
+        List<Class<?>> removedToClasses = new ArrayList<>();
+        synchronized (classToClassDestinations) {
+            for(Iterator<Class<?>> toClasses = classToClassDestinations.keySet().iterator(); toClasses.hasNext(); ) {
+                Class<?> toClass = toClasses.next();
+                if(toClass.getClassLoader() == toClassLoader) {
+                    toClasses.remove();
+                    removedToClasses.add(toClass);
+                }
+            }
+        }
+        int removedEntries = 0;
+        for(Class<?> toClass : removedToClasses) {
+            if(classToClassMethods.get(toClass).getAndSet(null) != null) {
+                removedEntries++;
+            }
+            classToClassMethods.remove(toClass);
+        }
+        entryCount.addAndGet(-removedEntries);
+        return evicted ? 0 : removedEntries;
+    }
+
+    AtomicInteger getEntryCounter() {
+        return entryCount;
+    }
+
+    void recordAccess(int epoch) {
+        if(lastAccessEpoch != epoch) {
+            lastAccessEpoch = epoch;
+            if(accessFrequency < MAXIMUM_ACCESS_FREQUENCY) {
+                accessFrequency++;
+            }
+        }
+    }
+
+    void ageAccessFrequency() {
+        accessFrequency >>= 1;
+    }
+
+    boolean isProtected() {
+        return accessFrequency > 1;
+    }
+
+    int getLastAccessEpoch() {
+        return lastAccessEpoch;
+    }
+
+    boolean isRegistered() {
+        return registered.get();
+    }
+
+    boolean markRegistered() {
+        return registered.compareAndSet(false, true);
+    }
+
+    boolean isEvicted() {
+        return evicted;
+    }
+
+    void markEvicted() {
+        evicted = true;
+    }
+
+    private <V> V recordLookup(V cachedValue) {
+        if(cachedValue != null) {
+            ReflectionMetadataCache.recordHit();
+        } else {
+            ReflectionMetadataCache.recordMiss();
+        }
+        ReflectionMetrics.recordCacheLookup(clazz, cachedValue != null);
+        return cachedValue;
+    }
+
+    private <V> V recordLookup(V cachedValue, Set<String> missingNames, String name) {
+        // a remembered miss is not a cache miss, it gets recorded as a hit when the caller asks isMissing next
+        if(cachedValue == null && missingNames.contains(name)) {
+            return null;
+        }
+        return recordLookup(cachedValue);
+    }
+
+    /**
+     * The plan held by plan, built by planBuilder under the lock of this table on the first call so concurrent first
+     * callers build it only once, reported to the flight recorder as tableName with planSize entries.
+     */
+    private <V, E1 extends Exception, E2 extends Exception> V lazyPlan(AtomicReference<V> plan, PlanBuilder<V, E1, E2> planBuilder,
+            String tableName, ToIntFunction<V> planSize) throws E1, E2 {
+        V cachedPlan = recordLookup(plan.get());
+        if(cachedPlan == null) {
+            synchronized (this) {
+                cachedPlan = plan.get();
+                if(cachedPlan == null) {
+                    Object cacheRebuildEvent = ReflectionFlightRecorder.beginCacheRebuild();
+                    cachedPlan = planBuilder.build(clazz);
+                    plan.set(cachedPlan);
+                    recordInsert(null);
+                    ReflectionFlightRecorder.commitCacheRebuild(cacheRebuildEvent, clazz, tableName, planSize.applyAsInt(cachedPlan));
+                }
+            }
+        }
+        return cachedPlan;
+    }
+
+    private boolean isMissing(Set<String> missingNames, String name) {
+        if(missingNames.contains(name)) {
+            recordLookup(Boolean.TRUE);
+            return true;
+        }
+        return false;
+    }
+
+    private void putMissing(Set<String> missingNames, String name) {
+        if(missingNames.add(name)) {
+            recordInsert(null);
+        }
+    }
+
+    private void recordInsert(Object previousValue) {
+        if(previousValue == null) {
+            entryCount.incrementAndGet();
+            ReflectionMetadataCache.recordInsert(this);
+        }
+    }
+
+    private MethodSlot getMethodSlot(String methodName) {
+        return methodSlots.computeIfAbsent(methodName, name -> new MethodSlot());
+    }
+
+    /**
+     * All cached overloads of one method name, split by parameter count so the common zero and single parameter
+     * lookups stay a plain field read or identity keyed map lookup.
+     */
+    private static class MethodSlot {
+        private volatile Method noParamMethod;
+        private final ConcurrentHashMap<Class<?>, Method> singleParamMethods = new ConcurrentHashMap<>();
+        private volatile MultiParamMethod[] multiParamMethods = new MultiParamMethod[0];
+
+        private Method getMultiParamMethod(Class<?>[] parameterTypes) {
+            for(MultiParamMethod multiParamMethod : multiParamMethods) {
+                if(Arrays.equals(multiParamMethod.parameterTypes, parameterTypes)) {
+                    return multiParamMethod.method;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @return false when a method with these parameter types is cached already, it is kept then
+         */
+        private synchronized boolean addMultiParamMethod(Class<?>[] parameterTypes, Method method) {
+            if(getMultiParamMethod(parameterTypes) != null) {
+                return false;
+            }
+            MultiParamMethod[] methods = Arrays.copyOf(multiParamMethods, multiParamMethods.length + 1);
+            methods[methods.length - 1] = new MultiParamMethod(parameterTypes, method);
+            multiParamMethods = methods;
+            return true;
+        }
+    }
+
+    @FunctionalInterface
+    private interface PlanBuilder<V, E1 extends Exception, E2 extends Exception> {
+        V build(Class<?> clazz) throws E1, E2;
+    }
+
+    private static class MultiParamMethod {
+        private final Class<?>[] parameterTypes;
+        private final Method method;
+
+        private MultiParamMethod(Class<?>[] parameterTypes, Method method) {
+            this.parameterTypes = parameterTypes;
+            this.method = method;
+        }
+    }
+}
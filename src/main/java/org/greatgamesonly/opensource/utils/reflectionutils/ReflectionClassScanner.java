@@ -0,0 +1,305 @@
+package org.greatgamesonly.opensource.utils.reflectionutils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Inherited;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Lazy class scanning over the classpath roots (directories and jars) that contain a package. Entry names are
+ * filtered on the package prefix before anything gets loaded, jars are read through {@link ReflectionClassIndex} so a
+ * jar is only enumerated once while it stays unchanged, and classes are loaded without running their static
+ * initializers, one at a time as the stream gets consumed.
+ * <p>
+ * Annotation and sub type queries decide on the parsed class files ({@link ReflectionClassFileInfo}) and only load
+ * the classes that match.
+ */
+final class ReflectionClassScanner {
+
+    private ReflectionClassScanner() {}
+
+    /**
+     * @param packageName package to scan including its sub packages, null or empty for every class
+     * @param runningJar  the jar the application runs from, scanned as well, can be null
+     * @param parallel    scan the roots in parallel
+     */
+    static Stream<String> streamClassNames(ClassLoader classLoader, String packageName, File runningJar, boolean parallel) throws IOException {
+        String classNamePrefix = packageName == null || packageName.isEmpty() ? "" : packageName + ".";
+        Stream<ClassRoot> rootStream = streamRoots(classLoader, packageName, runningJar, parallel);
+        return rootStream
+                .flatMap(root -> root.isJar ? jarClassNames(root.file, classNamePrefix) : directoryClassNames(root.file, packageName))
+                .distinct();
+    }
+
+    static Stream<Class<?>> streamClasses(ClassLoader classLoader, String packageName, File runningJar, boolean parallel) throws IOException {
+        return streamClassNames(classLoader, packageName, runningJar, parallel)
+                .<Class<?>>map(className -> loadClass(classLoader, className))
+                .filter(Objects::nonNull);
+    }
+
+    /**
+     * Lazily parses the class files in packageName (and its sub packages), nothing is loaded. Class files that cannot
+     * be parsed are left out.
+     */
+    static Stream<ReflectionClassFileInfo> streamClassFileInfos(ClassLoader classLoader, String packageName, File runningJar, boolean parallel) throws IOException {
+        String packagePathPrefix = packageName == null || packageName.isEmpty() ? "" : packageName.replace('.', '/') + "/";
+        Set<String> seenClassNames = ConcurrentHashMap.newKeySet();
+        return streamRoots(classLoader, packageName, runningJar, parallel)
+                .flatMap(root -> root.isJar ? jarClassFileInfos(root.file, packagePathPrefix) : directoryClassFileInfos(root.file))
+                .filter(classFileInfo -> seenClassNames.add(classFileInfo.getClassName()));
+    }
+
+    /**
+     * Classes in packageName that are annotated with annotationType, following super classes when the annotation is
+     * {@link Inherited}, just like {@link Class#isAnnotationPresent(Class)}. Only the matches get loaded.
+     */
+    static List<Class<?>> findClassesAnnotatedWith(ClassLoader classLoader, String packageName, File runningJar, Class<? extends Annotation> annotationType) throws IOException {
+        ClassHierarchy classHierarchy = new ClassHierarchy(classLoader);
+        boolean isInherited = annotationType.isAnnotationPresent(Inherited.class);
+        try(Stream<ReflectionClassFileInfo> classFileInfos = streamClassFileInfos(classLoader, packageName, runningJar, true)) {
+            return classFileInfos
+                    .peek(classHierarchy::add)
+                    .filter(classFileInfo -> classHierarchy.hasAnnotation(classFileInfo, annotationType.getName(), isInherited))
+                    .<Class<?>>map(classFileInfo -> loadClass(classLoader, classFileInfo.getClassName()))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Classes in packageName that extend or implement type, directly or through their super types. Only the matches
+     * get loaded.
+     */
+    static List<Class<?>> findSubTypesOf(ClassLoader classLoader, String packageName, File runningJar, Class<?> type) throws IOException {
+        ClassHierarchy classHierarchy = new ClassHierarchy(classLoader);
+        try(Stream<ReflectionClassFileInfo> classFileInfos = streamClassFileInfos(classLoader, packageName, runningJar, true)) {
+            return classFileInfos
+                    .peek(classHierarchy::add)
+                    .filter(classFileInfo -> classHierarchy.isSubTypeOf(classFileInfo, type.getName()))
+                    .<Class<?>>map(classFileInfo -> loadClass(classLoader, classFileInfo.getClassName()))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static Stream<ClassRoot> streamRoots(ClassLoader classLoader, String packageName, File runningJar, boolean parallel) throws IOException {
+        String packagePath = packageName != null ? packageName.replace('.', '/') : "";
+        Set<File> directoryRoots = new LinkedHashSet<>();
+        Set<File> jarRoots = new LinkedHashSet<>();
+        Enumeration<URL> resources = classLoader.getResources(packagePath);
+        while(resources.hasMoreElements()) {
+            URL resource = resources.nextElement();
+            if("file".equals(resource.getProtocol())) {
+                File directory = toFile(resource.toString());
+                if(directory != null && directory.isDirectory()) {
+                    directoryRoots.add(directory);
+                }
+            } else if("jar".equals(resource.getProtocol())) {
+                // jar:file:/some/app.jar!/the/package, jars nested in other jars cannot be opened as a file and are skipped
+                String jarUrl = resource.getPath();
+                int separatorIndex = jarUrl.indexOf("!/");
+                File jarFile = separatorIndex > 0 ? toFile(jarUrl.substring(0, separatorIndex)) : null;
+                if(jarFile != null && jarFile.isFile()) {
+                    jarRoots.add(jarFile);
+                }
+            }
+        }
+        if(runningJar != null && runningJar.isFile()) {
+            jarRoots.add(runningJar);
+        }
+
+        List<ClassRoot> roots = new ArrayList<>();
+        for(File directory : directoryRoots) {
+            roots.add(new ClassRoot(directory, false));
+        }
+        for(File jarFile : jarRoots) {
+            roots.add(new ClassRoot(jarFile, true));
+        }
+        return parallel ? roots.parallelStream() : roots.stream();
+    }
+
+    /**
+     * Loads the class without initializing it, null when it cannot be loaded (missing optional dependencies and such).
+     */
+    static Class<?> loadClass(ClassLoader classLoader, String className) {
+        try {
+            return Class.forName(className, false, classLoader);
+        } catch (Exception | LinkageError e) {
+            return null;
+        }
+    }
+
+    private static Stream<String> jarClassNames(File jarFile, String classNamePrefix) {
+        try {
+            return ReflectionClassIndex.getJarClassNames(jarFile).stream()
+                    .filter(className -> className.startsWith(classNamePrefix));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Stream<String> directoryClassNames(File directory, String packageName) {
+        Path root = directory.toPath();
+        String classNamePrefix = packageName == null || packageName.isEmpty() ? "" : packageName + ".";
+        try {
+            // walked lazily, flatMap closes the walk once the caller is done with it
+            return Files.walk(root)
+                    .map(file -> root.relativize(file).toString().replace(File.separatorChar, '/'))
+                    .filter(ReflectionClassIndex::isClassFile)
+                    .map(path -> classNamePrefix + path.substring(0, path.length() - ".class".length()).replace('/', '.'));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Stream<ReflectionClassFileInfo> jarClassFileInfos(File file, String packagePathPrefix) {
+        JarFile jarFile;
+        try {
+            jarFile = new JarFile(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return jarFile.stream()
+                .filter(jarEntry -> !jarEntry.isDirectory() && jarEntry.getName().startsWith(packagePathPrefix) && ReflectionClassIndex.isClassFile(jarEntry.getName()))
+                .map(jarEntry -> {
+                    try(InputStream classFile = jarFile.getInputStream(jarEntry)) {
+                        return ReflectionClassFileInfo.read(classFile);
+                    } catch (IOException e) {
+                        return null;
+                    }
+                })
+                .filter(Objects::nonNull)
+                .onClose(() -> {
+                    try {
+                        jarFile.close();
+                    } catch (IOException ignored) {}
+                });
+    }
+
+    private static Stream<ReflectionClassFileInfo> directoryClassFileInfos(File directory) {
+        Path root = directory.toPath();
+        try {
+            return Files.walk(root)
+                    .filter(file -> ReflectionClassIndex.isClassFile(root.relativize(file).toString().replace(File.separatorChar, '/')))
+                    .map(file -> {
+                        try(InputStream classFile = Files.newInputStream(file)) {
+                            return ReflectionClassFileInfo.read(classFile);
+                        } catch (IOException e) {
+                            return null;
+                        }
+                    })
+                    .filter(Objects::nonNull);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static File toFile(String url) {
+        try {
+            return Paths.get(new URI(url)).toFile();
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Super types looked up by name while answering one query, read from the class files through the class loader
+     * (and remembered) the first time they are needed, without loading them.
+     */
+    private static class ClassHierarchy {
+        private static final Optional<ReflectionClassFileInfo> MISSING = Optional.empty();
+
+        private final ClassLoader classLoader;
+        private final ConcurrentHashMap<String, Optional<ReflectionClassFileInfo>> classFileInfos = new ConcurrentHashMap<>();
+
+        private ClassHierarchy(ClassLoader classLoader) {
+            this.classLoader = classLoader;
+        }
+
+        private void add(ReflectionClassFileInfo classFileInfo) {
+            classFileInfos.putIfAbsent(classFileInfo.getClassName(), Optional.of(classFileInfo));
+        }
+
+        private boolean isSubTypeOf(ReflectionClassFileInfo classFileInfo, String typeName) {
+            Deque<String> superTypeNames = new ArrayDeque<>();
+            Set<String> visited = new HashSet<>();
+            addSuperTypeNames(classFileInfo, superTypeNames);
+            while(!superTypeNames.isEmpty()) {
+                String superTypeName = superTypeNames.pop();
+                if(superTypeName.equals(typeName)) {
+                    return true;
+                }
+                if(visited.add(superTypeName)) {
+                    get(superTypeName).ifPresent(superTypeInfo -> addSuperTypeNames(superTypeInfo, superTypeNames));
+                }
+            }
+            return false;
+        }
+
+        private boolean hasAnnotation(ReflectionClassFileInfo classFileInfo, String annotationName, boolean followSuperClasses) {
+            ReflectionClassFileInfo current = classFileInfo;
+            while(current != null) {
+                if(current.getAnnotationNames().contains(annotationName)) {
+                    return true;
+                }
+                // inherited annotations only come from super classes, never from interfaces
+                if(!followSuperClasses || current.isInterface() || current.getSuperClassName() == null) {
+                    return false;
+                }
+                current = get(current.getSuperClassName()).orElse(null);
+            }
+            return false;
+        }
+
+        private void addSuperTypeNames(ReflectionClassFileInfo classFileInfo, Deque<String> superTypeNames) {
+            if(classFileInfo.getSuperClassName() != null) {
+                superTypeNames.push(classFileInfo.getSuperClassName());
+            }
+            for(String interfaceName : classFileInfo.getInterfaceNames()) {
+                superTypeNames.push(interfaceName);
+            }
+        }
+
+        private Optional<ReflectionClassFileInfo> get(String className) {
+            return classFileInfos.computeIfAbsent(className, name -> {
+                try(InputStream classFile = classLoader.getResourceAsStream(name.replace('.', '/') + ".class")) {
+                    return classFile != null ? Optional.of(ReflectionClassFileInfo.read(classFile)) : MISSING;
+                } catch (IOException e) {
+                    return MISSING;
+                }
+            });
+        }
+    }
+
+    private static class ClassRoot {
+        private final File file;
+        private final boolean isJar;
+
+        private ClassRoot(File file, boolean isJar) {
+            this.file = file;
+            this.isJar = isJar;
+        }
+    }
+}
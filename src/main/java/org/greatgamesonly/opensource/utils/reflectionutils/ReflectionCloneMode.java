@@ -0,0 +1,14 @@
+package org.greatgamesonly.opensource.utils.reflectionutils;
+
+/**
+ * How {@link ReflectionUtils#deepClone(Object, ReflectionCloneMode, ReflectionCloneMode)} treats collections, maps and
+ * arrays it finds in the object graph.
+ */
+public enum ReflectionCloneMode {
+    /** a new container holding clones of the elements */
+    DEEP,
+    /** a new container holding the same elements */
+    SHALLOW,
+    /** the container itself is shared between the original and the clone */
+    SHARE
+}
@@ -0,0 +1,103 @@
+package org.greatgamesonly.opensource.utils.reflectionutils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.greatgamesonly.opensource.utils.reflectionutils.ReflectionUtils.checkIfClassIsFromMainJavaPackages;
+
+/**
+ * How to deep clone one class, compiled once: the no argument constructor and the instance fields of the class and its
+ * super classes (up to the first JDK class). Fields whose declared type is immutable (primitives, strings, boxed
+ * values, big numbers, enums) are copied by a single handle that reads the source and writes the clone, without boxing
+ * primitives. All other fields go through {@link ReflectionDeepCloner#cloneValue(Object)}.
+ */
+final class ReflectionClonePlan {
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+    private static final MethodType COPIER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final Set<Class<?>> IMMUTABLE_FIELD_TYPES = Set.of(
+            String.class, Character.class, Byte.class, Short.class, Integer.class, Long.class, Float.class,
+            Double.class, Boolean.class, BigInteger.class, BigDecimal.class, Class.class
+    );
+
+    private final Class<?> planClass;
+    private final MethodHandle constructor;
+    // (Object clone, Object source)void
+    private final MethodHandle[] fieldCopiers;
+    private final ReflectionFieldAccessor[] referenceFields;
+
+    private ReflectionClonePlan(Class<?> planClass, MethodHandle constructor, MethodHandle[] fieldCopiers, ReflectionFieldAccessor[] referenceFields) {
+        this.planClass = planClass;
+        this.constructor = constructor;
+        this.fieldCopiers = fieldCopiers;
+        this.referenceFields = referenceFields;
+    }
+
+    static ReflectionClonePlan forClass(Class<?> clazz) throws IllegalAccessException {
+        List<MethodHandle> fieldCopiers = new ArrayList<>();
+        List<ReflectionFieldAccessor> referenceFields = new ArrayList<>();
+        for(Class<?> declaringClass = clazz; declaringClass != null && !checkIfClassIsFromMainJavaPackages(declaringClass); declaringClass = declaringClass.getSuperclass()) {
+            for(Field field : declaringClass.getDeclaredFields()) {
+                if(Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                ReflectionFieldAccessor fieldAccessor = ReflectionUtils.getFieldAccessor(field);
+                if(field.getType().isPrimitive() || field.getType().isEnum() || IMMUTABLE_FIELD_TYPES.contains(field.getType())) {
+                    fieldCopiers.add(MethodHandles.collectArguments(fieldAccessor.getExactSetter(), 1, fieldAccessor.getExactGetter()).asType(COPIER_TYPE));
+                } else {
+                    referenceFields.add(fieldAccessor);
+                }
+            }
+        }
+        return new ReflectionClonePlan(clazz, findConstructor(clazz), fieldCopiers.toArray(new MethodHandle[0]), referenceFields.toArray(new ReflectionFieldAccessor[0]));
+    }
+
+    int size() {
+        return fieldCopiers.length + referenceFields.length;
+    }
+
+    Object newInstance() {
+        if(constructor == null) {
+            throw new RuntimeException("Object could not be cloned.", new InstantiationException(planClass.getName() + " has no accessible no argument constructor"));
+        }
+        try {
+            return (Object) constructor.invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException("Object could not be cloned.", e);
+        }
+    }
+
+    void copyFields(Object source, Object clone, ReflectionDeepCloner deepCloner) throws IllegalAccessException {
+        try {
+            for(MethodHandle fieldCopier : fieldCopiers) {
+                fieldCopier.invokeExact(clone, source);
+            }
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalAccessException(e.getMessage());
+        }
+        for(ReflectionFieldAccessor referenceField : referenceFields) {
+            referenceField.set(clone, deepCloner.cloneValue(referenceField.get(source)));
+        }
+    }
+
+    private static MethodHandle findConstructor(Class<?> clazz) {
+        try {
+            return MethodHandles.privateLookupIn(clazz, MethodHandles.lookup())
+                    .findConstructor(clazz, MethodType.methodType(void.class))
+                    .asType(CONSTRUCTOR_TYPE);
+        } catch (NoSuchMethodException | IllegalAccessException | SecurityException e) {
+            return null;
+        }
+    }
+}
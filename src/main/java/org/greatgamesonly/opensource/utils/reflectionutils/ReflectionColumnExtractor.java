@@ -0,0 +1,153 @@
+package org.greatgamesonly.opensource.utils.reflectionutils;
+
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Reads one field of every element of a collection into an array, position i of the array belongs to element i in
+ * iteration order. The accessor is resolved once from the first element, every element is only checked to be an
+ * instance of the class declaring the field before it is read.
+ */
+final class ReflectionColumnExtractor {
+    // below this many elements per task the hand off costs more than reading the fields
+    private static final int MINIMUM_CHUNK_SIZE = 16384;
+    private static final int CHUNKS_PER_PROCESSOR = 4;
+
+    private ReflectionColumnExtractor() {}
+
+    static int[] extractInts(Collection<?> objects, String fieldName, boolean parallel) throws NoSuchFieldException, IllegalAccessException {
+        List<?> elements = asRandomAccessList(objects);
+        int[] column = new int[elements.size()];
+        if(!elements.isEmpty()) {
+            ReflectionFieldAccessor fieldAccessor = resolveFieldAccessor(elements, fieldName);
+            Class<?> declaringClass = fieldAccessor.getField().getDeclaringClass();
+            extract(elements.size(), parallel, (start, end) -> {
+                for(int i = start; i < end; i++) {
+                    column[i] = fieldAccessor.getInt(checkElement(elements, i, declaringClass));
+                }
+            });
+        }
+        return column;
+    }
+
+    static long[] extractLongs(Collection<?> objects, String fieldName, boolean parallel) throws NoSuchFieldException, IllegalAccessException {
+        List<?> elements = asRandomAccessList(objects);
+        long[] column = new long[elements.size()];
+        if(!elements.isEmpty()) {
+            ReflectionFieldAccessor fieldAccessor = resolveFieldAccessor(elements, fieldName);
+            Class<?> declaringClass = fieldAccessor.getField().getDeclaringClass();
+            extract(elements.size(), parallel, (start, end) -> {
+                for(int i = start; i < end; i++) {
+                    column[i] = fieldAccessor.getLong(checkElement(elements, i, declaringClass));
+                }
+            });
+        }
+        return column;
+    }
+
+    static double[] extractDoubles(Collection<?> objects, String fieldName, boolean parallel) throws NoSuchFieldException, IllegalAccessException {
+        List<?> elements = asRandomAccessList(objects);
+        double[] column = new double[elements.size()];
+        if(!elements.isEmpty()) {
+            ReflectionFieldAccessor fieldAccessor = resolveFieldAccessor(elements, fieldName);
+            Class<?> declaringClass = fieldAccessor.getField().getDeclaringClass();
+            extract(elements.size(), parallel, (start, end) -> {
+                for(int i = start; i < end; i++) {
+                    column[i] = fieldAccessor.getDouble(checkElement(elements, i, declaringClass));
+                }
+            });
+        }
+        return column;
+    }
+
+    static <T> T[] extractObjects(Collection<?> objects, String fieldName, Class<T> columnType, boolean parallel) throws NoSuchFieldException, IllegalAccessException {
+        if(columnType == null || columnType.isPrimitive()) {
+            throw new IllegalArgumentException("columnType must be a reference type, use the primitive column methods for primitive fields");
+        }
+        List<?> elements = asRandomAccessList(objects);
+        @SuppressWarnings("unchecked")
+        T[] column = (T[]) Array.newInstance(columnType, elements.size());
+        if(!elements.isEmpty()) {
+            ReflectionFieldAccessor fieldAccessor = resolveFieldAccessor(elements, fieldName);
+            Class<?> declaringClass = fieldAccessor.getField().getDeclaringClass();
+            Class<?> fieldType = MethodType.methodType(fieldAccessor.getField().getType()).wrap().returnType();
+            // a field declared as a super type of columnType may still only hold columnType values, check those per value
+            if(!columnType.isAssignableFrom(fieldType) && !fieldType.isAssignableFrom(columnType)) {
+                throw new IllegalArgumentException("field " + fieldName + " of type " + fieldType.getName() + " cannot be read into a " + columnType.getName() + " column");
+            }
+            extract(elements.size(), parallel, (start, end) -> {
+                for(int i = start; i < end; i++) {
+                    column[i] = columnType.cast(fieldAccessor.get(checkElement(elements, i, declaringClass)));
+                }
+            });
+        }
+        return column;
+    }
+
+    private static List<?> asRandomAccessList(Collection<?> objects) {
+        if(objects == null) {
+            throw new IllegalArgumentException("objects cannot be null");
+        }
+        return objects instanceof List && objects instanceof RandomAccess ? (List<?>) objects : new ArrayList<>(objects);
+    }
+
+    private static ReflectionFieldAccessor resolveFieldAccessor(List<?> elements, String fieldName) throws NoSuchFieldException, IllegalAccessException {
+        return ReflectionUtils.getFieldAccessorInHierarchy(checkElement(elements, 0, Object.class).getClass(), fieldName);
+    }
+
+    private static Object checkElement(List<?> elements, int index, Class<?> declaringClass) {
+        Object element = elements.get(index);
+        if(!declaringClass.isInstance(element)) {
+            throw new IllegalArgumentException(element == null
+                    ? "element at index " + index + " is null"
+                    : "element at index " + index + " is a " + element.getClass().getName() + ", not a " + declaringClass.getName());
+        }
+        return element;
+    }
+
+    private static void extract(int size, boolean parallel, ChunkExtractor chunkExtractor) throws IllegalAccessException {
+        int chunkCount = parallel ? Math.min(ForkJoinPool.getCommonPoolParallelism() * CHUNKS_PER_PROCESSOR, size / MINIMUM_CHUNK_SIZE) : 1;
+        if(chunkCount <= 1) {
+            chunkExtractor.extract(0, size);
+            return;
+        }
+        int chunkSize = (size + chunkCount - 1) / chunkCount;
+        List<CompletableFuture<Void>> chunks = new ArrayList<>(chunkCount);
+        for(int start = 0; start < size; start += chunkSize) {
+            int chunkStart = start;
+            int chunkEnd = Math.min(size, start + chunkSize);
+            chunks.add(CompletableFuture.runAsync(() -> {
+                try {
+                    chunkExtractor.extract(chunkStart, chunkEnd);
+                } catch (IllegalAccessException e) {
+                    throw new CompletionException(e);
+                }
+            }, ForkJoinPool.commonPool()));
+        }
+        try {
+            CompletableFuture.allOf(chunks.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            // hand the failure of a chunk to the caller as if it was read on the calling thread
+            if(e.getCause() instanceof IllegalAccessException) {
+                throw (IllegalAccessException) e.getCause();
+            } else if(e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if(e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkExtractor {
+        void extract(int start, int end) throws IllegalAccessException;
+    }
+}
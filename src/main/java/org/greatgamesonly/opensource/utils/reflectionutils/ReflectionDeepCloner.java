@@ -0,0 +1,337 @@
+package org.greatgamesonly.opensource.utils.reflectionutils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import static org.greatgamesonly.opensource.utils.reflectionutils.ReflectionUtils.checkIfClassIsFromMainJavaPackages;
+
+/**
+ * One deep clone of an object graph. Objects are cloned through the {@link ReflectionClonePlan} of their class, every
+ * original is cloned once (tracked by identity) so shared references and cycles come out the same in the clone, and
+ * objects whose fields still have to be copied wait on an explicit stack so deep graphs cannot overflow the thread stack.
+ * <p>
+ * Collections and maps are only filled once every object of the graph has its fields: lists and other containers that
+ * never look at their elements first, then sets, maps and priority queues in reverse order of discovery, so hash and
+ * order based containers see their elements in their final state. They are recreated as their own class when it has
+ * a public no argument constructor (sorted ones and priority queues with their comparator) and as the closest general
+ * purpose class (ArrayList, LinkedHashSet, TreeSet, LinkedList, LinkedHashMap, TreeMap) otherwise, which is what
+ * unmodifiable and immutable collections become. Immutable values, enums, records and other JDK classes are shared,
+ * dates and calendars are copied.
+ */
+final class ReflectionDeepCloner {
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+    private static final ClassValue<ValueKind> VALUE_KINDS = new ClassValue<>() {
+        @Override
+        protected ValueKind computeValue(Class<?> clazz) {
+            if(clazz.isArray()) {
+                return clazz.getComponentType().isPrimitive() ? ValueKind.PRIMITIVE_ARRAY : ValueKind.OBJECT_ARRAY;
+            } else if(Map.class.isAssignableFrom(clazz)) {
+                return ValueKind.MAP;
+            } else if(Collection.class.isAssignableFrom(clazz)) {
+                return ValueKind.COLLECTION;
+            } else if(java.util.Date.class.isAssignableFrom(clazz)) {
+                return ValueKind.DATE;
+            } else if(Calendar.class.isAssignableFrom(clazz)) {
+                return ValueKind.CALENDAR;
+            } else if(Enum.class.isAssignableFrom(clazz) || clazz.isRecord() || clazz.isSynthetic() || clazz.isHidden() || checkIfClassIsFromMainJavaPackages(clazz)) {
+                return ValueKind.SHARED;
+            }
+            return ValueKind.OBJECT;
+        }
+    };
+
+    private static final ClassValue<Optional<MethodHandle>> CONTAINER_CONSTRUCTORS = new ClassValue<>() {
+        @Override
+        protected Optional<MethodHandle> computeValue(Class<?> clazz) {
+            try {
+                return Optional.of(MethodHandles.publicLookup().findConstructor(clazz, MethodType.methodType(void.class)).asType(CONSTRUCTOR_TYPE));
+            } catch (NoSuchMethodException | IllegalAccessException | SecurityException e) {
+                return Optional.empty();
+            }
+        }
+    };
+
+    private final ReflectionCloneMode collectionMode;
+    private final ReflectionCloneMode arrayMode;
+    private final Map<Object, Object> clones = new IdentityHashMap<>();
+    private final Deque<PendingCopy> pendingCopies = new ArrayDeque<>();
+    private final List<PendingFill> pendingFills = new ArrayList<>();
+
+    private ReflectionDeepCloner(ReflectionCloneMode collectionMode, ReflectionCloneMode arrayMode) {
+        this.collectionMode = collectionMode;
+        this.arrayMode = arrayMode;
+    }
+
+    static <T> T deepClone(T object, ReflectionCloneMode collectionMode, ReflectionCloneMode arrayMode) throws IllegalAccessException {
+        if(collectionMode == null || arrayMode == null) {
+            throw new IllegalArgumentException("collectionMode and arrayMode cannot be null");
+        }
+        ReflectionDeepCloner deepCloner = new ReflectionDeepCloner(collectionMode, arrayMode);
+        // a clone is always of the class of its source
+        @SuppressWarnings("unchecked")
+        T clone = (T) deepCloner.cloneValue(object);
+        deepCloner.copyPending();
+        return clone;
+    }
+
+    /**
+     * The clone of value, created (but not necessarily filled in yet) on first sight.
+     */
+    Object cloneValue(Object value) throws IllegalAccessException {
+        if(value == null) {
+            return null;
+        }
+        Object clone = clones.get(value);
+        if(clone != null) {
+            return clone;
+        }
+        switch (VALUE_KINDS.get(value.getClass())) {
+            case SHARED:
+                return value;
+            case DATE:
+                clone = ((java.util.Date) value).clone();
+                break;
+            case CALENDAR:
+                clone = ((Calendar) value).clone();
+                break;
+            case PRIMITIVE_ARRAY:
+                if(arrayMode == ReflectionCloneMode.SHARE) {
+                    return value;
+                }
+                int length = Array.getLength(value);
+                clone = Array.newInstance(value.getClass().getComponentType(), length);
+                System.arraycopy(value, 0, clone, 0, length);
+                break;
+            case OBJECT_ARRAY:
+                if(arrayMode == ReflectionCloneMode.SHARE) {
+                    return value;
+                } else if(arrayMode == ReflectionCloneMode.SHALLOW) {
+                    clone = ((Object[]) value).clone();
+                } else {
+                    clone = Array.newInstance(value.getClass().getComponentType(), ((Object[]) value).length);
+                    pendingCopies.push(new PendingCopy(value, clone, null));
+                }
+                break;
+            case COLLECTION:
+                if(collectionMode == ReflectionCloneMode.SHARE) {
+                    return value;
+                }
+                Collection<Object> collectionClone = newCollection((Collection<?>) value);
+                clone = collectionClone;
+                if(collectionMode == ReflectionCloneMode.SHALLOW) {
+                    collectionClone.addAll((Collection<?>) value);
+                } else {
+                    pendingCopies.push(new PendingCopy(value, clone, null));
+                }
+                break;
+            case MAP:
+                if(collectionMode == ReflectionCloneMode.SHARE) {
+                    return value;
+                }
+                Map<Object, Object> mapClone = newMap((Map<?, ?>) value);
+                clone = mapClone;
+                if(collectionMode == ReflectionCloneMode.SHALLOW) {
+                    mapClone.putAll((Map<?, ?>) value);
+                } else {
+                    pendingCopies.push(new PendingCopy(value, clone, null));
+                }
+                break;
+            default:
+                ReflectionClonePlan clonePlan = ReflectionClassMetadata.forClass(value.getClass()).getClonePlan();
+                clone = clonePlan.newInstance();
+                pendingCopies.push(new PendingCopy(value, clone, clonePlan));
+        }
+        clones.put(value, clone);
+        return clone;
+    }
+
+    private void copyPending() throws IllegalAccessException {
+        while(!pendingCopies.isEmpty()) {
+            PendingCopy pendingCopy = pendingCopies.pop();
+            if(pendingCopy.clonePlan != null) {
+                pendingCopy.clonePlan.copyFields(pendingCopy.source, pendingCopy.clone, this);
+            } else if(pendingCopy.source instanceof Object[]) {
+                Object[] source = (Object[]) pendingCopy.source;
+                Object[] clone = (Object[]) pendingCopy.clone;
+                for(int i = 0; i < source.length; i++) {
+                    clone[i] = cloneValue(source[i]);
+                }
+            } else if(pendingCopy.source instanceof Collection) {
+                Object[] elements = ((Collection<?>) pendingCopy.source).toArray();
+                for(int i = 0; i < elements.length; i++) {
+                    elements[i] = cloneValue(elements[i]);
+                }
+                pendingFills.add(new PendingFill(pendingCopy.clone, elements));
+            } else {
+                Map<?, ?> source = (Map<?, ?>) pendingCopy.source;
+                List<Object> entries = new ArrayList<>(source.size() * 2);
+                for(Map.Entry<?, ?> entry : source.entrySet()) {
+                    entries.add(cloneValue(entry.getKey()));
+                    entries.add(cloneValue(entry.getValue()));
+                }
+                pendingFills.add(new PendingFill(pendingCopy.clone, entries.toArray()));
+            }
+        }
+        // containers that never look at their elements go first, so no hash or order based container sees a list or
+        // queue it reaches through its elements while that one is still empty
+        for(PendingFill pendingFill : pendingFills) {
+            if(!pendingFill.looksAtElements()) {
+                pendingFill.fill();
+            }
+        }
+        // containers found later are nested deeper, fill those first so outer hash based containers see them complete
+        for(int i = pendingFills.size() - 1; i >= 0; i--) {
+            PendingFill pendingFill = pendingFills.get(i);
+            if(pendingFill.looksAtElements()) {
+                pendingFill.fill();
+            }
+        }
+    }
+
+    private static Collection<Object> newCollection(Collection<?> collection) {
+        if(collection instanceof EnumSet) {
+            // keeps the element type, the elements are enums and never need cloning
+            @SuppressWarnings("unchecked")
+            Collection<Object> enumSet = (Collection<Object>) ((EnumSet<?>) collection).clone();
+            enumSet.clear();
+            return enumSet;
+        } else if(collection instanceof SortedSet) {
+            Comparator<Object> comparator = getComparator(((SortedSet<?>) collection).comparator());
+            return collection instanceof ConcurrentSkipListSet ? new ConcurrentSkipListSet<>(comparator) : new TreeSet<>(comparator);
+        } else if(collection instanceof PriorityQueue) {
+            return new PriorityQueue<>(Math.max(1, collection.size()), getComparator(((PriorityQueue<?>) collection).comparator()));
+        }
+        Optional<MethodHandle> constructor = CONTAINER_CONSTRUCTORS.get(collection.getClass());
+        if(constructor.isPresent()) {
+            @SuppressWarnings("unchecked")
+            Collection<Object> container = (Collection<Object>) newContainer(constructor.get());
+            return container;
+        } else if(collection instanceof List) {
+            return new ArrayList<>(collection.size());
+        } else if(collection instanceof Set) {
+            return new LinkedHashSet<>();
+        } else if(collection instanceof Queue) {
+            return new LinkedList<>();
+        }
+        return new ArrayList<>(collection.size());
+    }
+
+    private static Map<Object, Object> newMap(Map<?, ?> map) {
+        if(map instanceof EnumMap) {
+            @SuppressWarnings("unchecked")
+            Map<Object, Object> enumMap = (Map<Object, Object>) new EnumMap<>((EnumMap<?, ?>) map);
+            enumMap.clear();
+            return enumMap;
+        } else if(map instanceof SortedMap) {
+            Comparator<Object> comparator = getComparator(((SortedMap<?, ?>) map).comparator());
+            return map instanceof ConcurrentSkipListMap ? new ConcurrentSkipListMap<>(comparator) : new TreeMap<>(comparator);
+        }
+        Optional<MethodHandle> constructor = CONTAINER_CONSTRUCTORS.get(map.getClass());
+        if(constructor.isPresent()) {
+            @SuppressWarnings("unchecked")
+            Map<Object, Object> container = (Map<Object, Object>) newContainer(constructor.get());
+            return container;
+        }
+        return new LinkedHashMap<>();
+    }
+
+    // the clone only ever holds clones of the elements the comparator already ordered in the source
+    @SuppressWarnings("unchecked")
+    private static Comparator<Object> getComparator(Comparator<?> comparator) {
+        return (Comparator<Object>) comparator;
+    }
+
+    private static Object newContainer(MethodHandle constructor) {
+        try {
+            return (Object) constructor.invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException("Container could not be cloned.", e);
+        }
+    }
+
+    private enum ValueKind {
+        SHARED,
+        DATE,
+        CALENDAR,
+        PRIMITIVE_ARRAY,
+        OBJECT_ARRAY,
+        COLLECTION,
+        MAP,
+        OBJECT
+    }
+
+    private static class PendingCopy {
+        private final Object source;
+        private final Object clone;
+        // null for arrays, collections and maps
+        private final ReflectionClonePlan clonePlan;
+
+        private PendingCopy(Object source, Object clone, ReflectionClonePlan clonePlan) {
+            this.source = source;
+            this.clone = clone;
+            this.clonePlan = clonePlan;
+        }
+    }
+
+    private static class PendingFill {
+        private final Object container;
+        // the cloned elements, keys and values alternating for maps
+        private final Object[] elements;
+
+        private PendingFill(Object container, Object[] elements) {
+            this.container = container;
+            this.elements = elements;
+        }
+
+        // sets, maps and priority queues hash or order their elements as they are added
+        private boolean looksAtElements() {
+            return container instanceof Set || container instanceof Map || container instanceof PriorityQueue;
+        }
+
+        private void fill() {
+            // the containers were made by newCollection and newMap, which take any element
+            if(container instanceof Collection) {
+                @SuppressWarnings("unchecked")
+                Collection<Object> collection = (Collection<Object>) container;
+                for(Object element : elements) {
+                    collection.add(element);
+                }
+            } else {
+                @SuppressWarnings("unchecked")
+                Map<Object, Object> map = (Map<Object, Object>) container;
+                for(int j = 0; j < elements.length; j += 2) {
+                    map.put(elements[j], elements[j + 1]);
+                }
+            }
+        }
+    }
+}
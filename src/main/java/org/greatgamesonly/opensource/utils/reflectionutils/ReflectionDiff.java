@@ -0,0 +1,66 @@
+package org.greatgamesonly.opensource.utils.reflectionutils;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The fields in which two instances of one class differ, as found by
+ * {@link ReflectionUtils#diffObjects(Object, Object, boolean)}. Bit i of {@link #getChangedFields()} belongs to field
+ * name i of {@link #getFieldNames()}, a field counts as changed when its value differs or when anything below it in a
+ * nested object differs. {@link #getChangedPaths()} names the changed values themselves, nested ones as dotted paths
+ * (sub.subName).
+ */
+public final class ReflectionDiff {
+    private final Class<?> diffClass;
+    private final String[] fieldNames;
+    private final BitSet changedFields;
+    private final List<String> changedPaths;
+
+    ReflectionDiff(Class<?> diffClass, String[] fieldNames, BitSet changedFields, List<String> changedPaths) {
+        this.diffClass = diffClass;
+        this.fieldNames = fieldNames;
+        this.changedFields = changedFields;
+        this.changedPaths = Collections.unmodifiableList(changedPaths);
+    }
+
+    public Class<?> getDiffClass() {
+        return diffClass;
+    }
+
+    /**
+     * @return the compared fields of the class, super class fields last
+     */
+    public String[] getFieldNames() {
+        return fieldNames.clone();
+    }
+
+    public BitSet getChangedFields() {
+        return (BitSet) changedFields.clone();
+    }
+
+    /**
+     * @return the changed values, in the order they were found
+     */
+    public List<String> getChangedPaths() {
+        return changedPaths;
+    }
+
+    public boolean hasChanges() {
+        return !changedFields.isEmpty();
+    }
+
+    public boolean isChanged(String fieldName) {
+        for(int i = changedFields.nextSetBit(0); i >= 0; i = changedFields.nextSetBit(i + 1)) {
+            if(fieldNames[i].equals(fieldName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "ReflectionDiff{" + diffClass.getName() + " " + changedPaths + "}";
+    }
+}
@@ -0,0 +1,248 @@
+package org.greatgamesonly.opensource.utils.reflectionutils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import static org.greatgamesonly.opensource.utils.reflectionutils.ReflectionUtils.checkIfClassIsFromMainJavaPackages;
+
+/**
+ * How to compare two instances of one class, compiled once: the instance fields of the class and its super classes (up
+ * to the first JDK class), primitives read through handles of their own type so comparing them never boxes, and per
+ * field a handle that copies the value of one instance into the other for applying a diff.
+ * <p>
+ * Reference values that are the same instance are equal without further checks, nested objects of the same class are
+ * compared field by field (each pair of source and destination object once, so cycles end, its changes listed under the
+ * path it was first met on but marking every top level field it is reachable from), everything else with Objects.deepEquals.
+ */
+final class ReflectionDiffPlan {
+    private static final MethodType COPIER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final ClassValue<Boolean> NESTED_CLASSES = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> clazz) {
+            return !clazz.isArray() && !Enum.class.isAssignableFrom(clazz) && !clazz.isRecord() && !clazz.isSynthetic() &&
+                    !clazz.isHidden() && !checkIfClassIsFromMainJavaPackages(clazz);
+        }
+    };
+
+    private final Class<?> planClass;
+    private final String[] fieldNames;
+    private final Class<?>[] fieldTypes;
+    private final ReflectionFieldAccessor[] fieldAccessors;
+    // (Object objectTo, Object objectFrom)void
+    private final MethodHandle[] fieldCopiers;
+
+    private ReflectionDiffPlan(Class<?> planClass, List<ReflectionFieldAccessor> fieldAccessors) {
+        this.planClass = planClass;
+        this.fieldNames = new String[fieldAccessors.size()];
+        this.fieldTypes = new Class<?>[fieldAccessors.size()];
+        this.fieldAccessors = fieldAccessors.toArray(new ReflectionFieldAccessor[0]);
+        this.fieldCopiers = new MethodHandle[fieldAccessors.size()];
+        for(int i = 0; i < fieldNames.length; i++) {
+            ReflectionFieldAccessor fieldAccessor = this.fieldAccessors[i];
+            fieldNames[i] = fieldAccessor.getField().getName();
+            fieldTypes[i] = fieldAccessor.getField().getType();
+            fieldCopiers[i] = MethodHandles.collectArguments(fieldAccessor.getExactSetter(), 1, fieldAccessor.getExactGetter()).asType(COPIER_TYPE);
+        }
+    }
+
+    static ReflectionDiffPlan forClass(Class<?> clazz) throws IllegalAccessException {
+        List<ReflectionFieldAccessor> fieldAccessors = new ArrayList<>();
+        for(Class<?> declaringClass = clazz; declaringClass != null && !checkIfClassIsFromMainJavaPackages(declaringClass); declaringClass = declaringClass.getSuperclass()) {
+            for(Field field : declaringClass.getDeclaredFields()) {
+                if(!Modifier.isStatic(field.getModifiers())) {
+                    fieldAccessors.add(ReflectionUtils.getFieldAccessor(field));
+                }
+            }
+        }
+        return new ReflectionDiffPlan(clazz, fieldAccessors);
+    }
+
+    int size() {
+        return fieldNames.length;
+    }
+
+    static ReflectionDiff diff(Object objectFrom, Object objectTo, boolean applyChanges) throws IllegalAccessException {
+        if(objectFrom == null || objectTo == null) {
+            throw new IllegalArgumentException("objectFrom and objectTo cannot be null");
+        }
+        if(objectFrom.getClass() != objectTo.getClass()) {
+            throw new IllegalArgumentException("objectFrom is a " + objectFrom.getClass().getName() + " and objectTo a " + objectTo.getClass().getName() + ", only instances of the same class can be compared");
+        }
+        if(!NESTED_CLASSES.get(objectFrom.getClass())) {
+            throw new IllegalArgumentException(objectFrom.getClass().getName() + " is compared as a value, not field by field, use Objects.deepEquals for it");
+        }
+        ReflectionDiffPlan diffPlan = ReflectionClassMetadata.forClass(objectFrom.getClass()).getDiffPlan();
+        if(diffPlan.size() <= 0) {
+            throw new IllegalArgumentException(objectFrom.getClass().getName() + " has no instance fields to compare");
+        }
+        BitSet changedFields = new BitSet(diffPlan.size());
+        List<String> changedPaths = new ArrayList<>();
+        if(objectFrom != objectTo) {
+            diffPlan.diff(objectFrom, objectTo, applyChanges, changedFields, changedPaths);
+        }
+        return new ReflectionDiff(diffPlan.planClass, diffPlan.fieldNames, changedFields, changedPaths);
+    }
+
+    private void diff(Object objectFrom, Object objectTo, boolean applyChanges, BitSet changedFields, List<String> changedPaths) throws IllegalAccessException {
+        // only allocated once a nested object turns up, flat classes are compared without any bookkeeping
+        Deque<PendingDiff> pendingDiffs = null;
+        // per source object the destination objects it was compared with, a source shared by two fields can meet a
+        // different destination each time and every such pair has to be compared
+        Map<Object, Map<Object, PendingDiff>> visited = null;
+        // the pairs with changes and whether any pair was met a second time, kept once a nested object turns up
+        List<PendingDiff> changedDiffs = null;
+        boolean shared = false;
+        PendingDiff rootDiff = new PendingDiff(this, objectFrom, objectTo, null, null, -1);
+        PendingDiff pendingDiff = rootDiff;
+        while(pendingDiff != null) {
+            ReflectionDiffPlan diffPlan = pendingDiff.diffPlan;
+            for(int i = 0; i < diffPlan.fieldNames.length; i++) {
+                if(diffPlan.fieldTypes[i].isPrimitive()) {
+                    if(ReflectionObjectMethods.isPrimitiveEqual(diffPlan.fieldAccessors[i].getExactGetter(), diffPlan.fieldTypes[i], pendingDiff.objectFrom, pendingDiff.objectTo)) {
+                        continue;
+                    }
+                } else {
+                    Object valueFrom = diffPlan.fieldAccessors[i].get(pendingDiff.objectFrom);
+                    Object valueTo = diffPlan.fieldAccessors[i].get(pendingDiff.objectTo);
+                    if(valueFrom == valueTo) {
+                        continue;
+                    }
+                    if(valueFrom != null && valueTo != null && valueFrom.getClass() == valueTo.getClass() && NESTED_CLASSES.get(valueFrom.getClass())) {
+                        if(visited == null) {
+                            pendingDiffs = new ArrayDeque<>();
+                            visited = new IdentityHashMap<>();
+                            getVisited(visited, objectFrom).put(objectTo, rootDiff);
+                            changedDiffs = new ArrayList<>();
+                            if(rootDiff.changed) {
+                                changedDiffs.add(rootDiff);
+                            }
+                        }
+                        Map<Object, PendingDiff> visitedTo = getVisited(visited, valueFrom);
+                        PendingDiff visitedDiff = visitedTo.get(valueTo);
+                        if(visitedDiff == null) {
+                            ReflectionDiffPlan nestedDiffPlan = ReflectionClassMetadata.forClass(valueFrom.getClass()).getDiffPlan();
+                            PendingDiff nestedDiff = new PendingDiff(nestedDiffPlan, valueFrom, valueTo, pendingDiff, pendingDiff.path(diffPlan.fieldNames[i]), pendingDiff.topLevelIndex(i));
+                            visitedTo.put(valueTo, nestedDiff);
+                            pendingDiffs.push(nestedDiff);
+                        } else {
+                            // compared once, under the first path it was met on, the field met it on now is still
+                            // changed by whatever differs in it
+                            visitedDiff.addReferrer(pendingDiff, i);
+                            shared = true;
+                        }
+                        continue;
+                    }
+                    if(Objects.deepEquals(valueFrom, valueTo)) {
+                        continue;
+                    }
+                }
+                changedFields.set(pendingDiff.topLevelIndex(i));
+                changedPaths.add(pendingDiff.path(diffPlan.fieldNames[i]));
+                if(!pendingDiff.changed) {
+                    pendingDiff.changed = true;
+                    if(changedDiffs != null) {
+                        changedDiffs.add(pendingDiff);
+                    }
+                }
+                if(applyChanges) {
+                    diffPlan.copyField(i, pendingDiff.objectFrom, pendingDiff.objectTo);
+                }
+            }
+            pendingDiff = pendingDiffs != null ? pendingDiffs.poll() : null;
+        }
+        if(shared) {
+            markSharedChanges(changedDiffs, changedFields);
+        }
+    }
+
+    private static Map<Object, PendingDiff> getVisited(Map<Object, Map<Object, PendingDiff>> visited, Object objectFrom) {
+        return visited.computeIfAbsent(objectFrom, key -> new IdentityHashMap<>());
+    }
+
+    // a changed pair changes every top level field it is reachable from, through the first path it was met on (already
+    // marked) and through every later reference to it or to one of the pairs above it
+    private static void markSharedChanges(List<PendingDiff> changedDiffs, BitSet changedFields) {
+        Set<PendingDiff> reached = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<PendingDiff> toVisit = new ArrayDeque<>(changedDiffs);
+        while(!toVisit.isEmpty()) {
+            PendingDiff pendingDiff = toVisit.pop();
+            if(!reached.add(pendingDiff)) {
+                continue;
+            }
+            if(pendingDiff.parent != null) {
+                toVisit.push(pendingDiff.parent);
+            }
+            if(pendingDiff.referrers != null) {
+                for(int i = 0; i < pendingDiff.referrers.size(); i++) {
+                    PendingDiff referrer = pendingDiff.referrers.get(i);
+                    changedFields.set(referrer.topLevelIndex(pendingDiff.referrerFieldIndexes.get(i)));
+                    toVisit.push(referrer);
+                }
+            }
+        }
+    }
+
+    private void copyField(int fieldIndex, Object objectFrom, Object objectTo) throws IllegalAccessException {
+        try {
+            fieldCopiers[fieldIndex].invokeExact(objectTo, objectFrom);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalAccessException(e.getMessage());
+        }
+    }
+
+    private static class PendingDiff {
+        private final ReflectionDiffPlan diffPlan;
+        private final Object objectFrom;
+        private final Object objectTo;
+        // null, null and -1 for the root object
+        private final PendingDiff parent;
+        private final String path;
+        private final int topLevelIndex;
+        // the pairs and their fields that met this pair again after it was first met through parent
+        private List<PendingDiff> referrers;
+        private List<Integer> referrerFieldIndexes;
+        private boolean changed;
+
+        private PendingDiff(ReflectionDiffPlan diffPlan, Object objectFrom, Object objectTo, PendingDiff parent, String path, int topLevelIndex) {
+            this.diffPlan = diffPlan;
+            this.objectFrom = objectFrom;
+            this.objectTo = objectTo;
+            this.parent = parent;
+            this.path = path;
+            this.topLevelIndex = topLevelIndex;
+        }
+
+        private void addReferrer(PendingDiff referrer, int fieldIndex) {
+            if(referrers == null) {
+                referrers = new ArrayList<>(2);
+                referrerFieldIndexes = new ArrayList<>(2);
+            }
+            referrers.add(referrer);
+            referrerFieldIndexes.add(fieldIndex);
+        }
+
+        private String path(String fieldName) {
+            return path != null ? path + "." + fieldName : fieldName;
+        }
+
+        private int topLevelIndex(int fieldIndex) {
+            return topLevelIndex >= 0 ? topLevelIndex : fieldIndex;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package org.greatgamesonly.opensource.utils.reflectionutils;
+
+/**
+ * Slower paths ReflectionUtils falls back to when the fast one does not apply, reported to a
+ * {@link ReflectionMetricsListener}.
+ */
+public enum ReflectionFallback {
+    /** getFieldValue found no such field and called the getter method instead */
+    GETTER_FOR_FIELD_READ,
+    /** setFieldValue found no such field and called the setter method instead */
+    SETTER_FOR_FIELD_WRITE,
+    /** setFieldValueAsynchronously gave up on the setter method and wrote the field directly */
+    FIELD_FOR_ASYNCHRONOUS_WRITE,
+    /** a merge hit a nested object of an unrelated type and handed it to beanutils */
+    BEAN_UTILS_FOR_NESTED_MERGE,
+    /** getClasses found no class index for the package and scanned the classpath */
+    CLASSPATH_SCAN
+}
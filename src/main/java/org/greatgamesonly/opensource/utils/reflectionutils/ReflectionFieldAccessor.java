@@ -0,0 +1,268 @@
+package org.greatgamesonly.opensource.utils.reflectionutils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * Resolves a field once into method handles with access already granted, so reading or writing the field
+ * afterwards never has to touch the accessible flag of the shared {@link Field} again.
+ * <p>
+ * Primitive fields also get handles typed to int, long, double or boolean (where the field type widens to it), so
+ * those can be read and written without boxing the value.
+ */
+class ReflectionFieldAccessor {
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Field field;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+    // typed to the field type, (Object)fieldType and (Object,fieldType)void, for callers that switch on the field type
+    private final MethodHandle exactGetter;
+    private final MethodHandle exactSetter;
+    // null when the field type cannot be read as (or written from) that primitive type without boxing or narrowing
+    private final MethodHandle intGetter;
+    private final MethodHandle longGetter;
+    private final MethodHandle doubleGetter;
+    private final MethodHandle booleanGetter;
+    private final MethodHandle intSetter;
+    private final MethodHandle longSetter;
+    private final MethodHandle doubleSetter;
+    private final MethodHandle booleanSetter;
+    // the boxed zero value of primitive fields, boxed once here so resetting a field never allocates
+    private final Object defaultValue;
+
+    private ReflectionFieldAccessor(Field field, MethodHandle getter, MethodHandle setter) {
+        this.field = field;
+        this.getter = getter.asType(GETTER_TYPE);
+        this.setter = setter != null ? setter.asType(SETTER_TYPE) : null;
+        this.exactGetter = getter.asType(MethodType.methodType(field.getType(), Object.class));
+        this.exactSetter = setter != null ? setter.asType(MethodType.methodType(void.class, Object.class, field.getType())) : null;
+        boolean isPrimitiveField = field.getType().isPrimitive();
+        this.intGetter = isPrimitiveField ? primitiveGetter(getter, int.class) : null;
+        this.longGetter = isPrimitiveField ? primitiveGetter(getter, long.class) : null;
+        this.doubleGetter = isPrimitiveField ? primitiveGetter(getter, double.class) : null;
+        this.booleanGetter = isPrimitiveField ? primitiveGetter(getter, boolean.class) : null;
+        this.intSetter = isPrimitiveField ? primitiveSetter(setter, int.class) : null;
+        this.longSetter = isPrimitiveField ? primitiveSetter(setter, long.class) : null;
+        this.doubleSetter = isPrimitiveField ? primitiveSetter(setter, double.class) : null;
+        this.booleanSetter = isPrimitiveField ? primitiveSetter(setter, boolean.class) : null;
+        this.defaultValue = isPrimitiveField ? Array.get(Array.newInstance(field.getType(), 1), 0) : null;
+    }
+
+    protected static ReflectionFieldAccessor of(Field field) throws IllegalAccessException {
+        boolean isStaticField = Modifier.isStatic(field.getModifiers());
+        boolean isFinalField = Modifier.isFinal(field.getModifiers());
+        MethodHandles.Lookup lookup = null;
+        if(!isFinalField) {
+            try {
+                lookup = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup());
+            } catch (IllegalAccessException | SecurityException ignored) {}
+        }
+        if(lookup == null) {
+            // final fields (and classes in modules not opened to us) can only be written through the accessible flag,
+            // this field instance is our own copy so flipping it here does not race with anyone else
+            try {
+                field.setAccessible(true);
+            } catch (RuntimeException e) {
+                throw new IllegalAccessException(e.getMessage());
+            }
+            lookup = MethodHandles.lookup();
+        }
+
+        MethodHandle getter = lookup.unreflectGetter(field);
+        MethodHandle setter = null;
+        if(!(isStaticField && isFinalField)) {
+            setter = lookup.unreflectSetter(field);
+        }
+        if(isStaticField) {
+            getter = MethodHandles.dropArguments(getter, 0, Object.class);
+            setter = setter != null ? MethodHandles.dropArguments(setter, 0, Object.class) : null;
+        }
+        return new ReflectionFieldAccessor(field, getter, setter);
+    }
+
+    private static MethodHandle primitiveGetter(MethodHandle getter, Class<?> primitiveType) {
+        // widening only, the same conversions Field.getInt and friends allow
+        if(!canWiden(getter.type().returnType(), primitiveType)) {
+            return null;
+        }
+        return getter.asType(MethodType.methodType(primitiveType, Object.class));
+    }
+
+    private static MethodHandle primitiveSetter(MethodHandle setter, Class<?> primitiveType) {
+        if(setter == null || !canWiden(primitiveType, setter.type().parameterType(1))) {
+            return null;
+        }
+        return setter.asType(MethodType.methodType(void.class, Object.class, primitiveType));
+    }
+
+    private static boolean canWiden(Class<?> fromType, Class<?> toType) {
+        if(fromType == toType) {
+            return true;
+        }
+        if(fromType == boolean.class || toType == boolean.class) {
+            return false;
+        }
+        return primitiveRank(fromType) < primitiveRank(toType) && !(toType == char.class || (fromType == char.class && toType == short.class));
+    }
+
+    private static int primitiveRank(Class<?> primitiveType) {
+        if(primitiveType == byte.class) {
+            return 0;
+        } else if(primitiveType == short.class || primitiveType == char.class) {
+            return 1;
+        } else if(primitiveType == int.class) {
+            return 2;
+        } else if(primitiveType == long.class) {
+            return 3;
+        } else if(primitiveType == float.class) {
+            return 4;
+        }
+        return 5;
+    }
+
+    protected Object get(Object instance) throws IllegalAccessException {
+        try {
+            return (Object) getter.invokeExact(instance);
+        } catch (RuntimeException | Error | IllegalAccessException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalAccessException(e.getMessage());
+        }
+    }
+
+    protected void set(Object instance, Object value) throws IllegalAccessException {
+        if(setter == null) {
+            throw new IllegalAccessException("Can not set static final field " + field.getDeclaringClass().getName() + "." + field.getName());
+        }
+        if(value == null && field.getType().isPrimitive()) {
+            throw new IllegalArgumentException("Can not set primitive field " + field.getDeclaringClass().getName() + "." + field.getName() + " to null value");
+        }
+        try {
+            setter.invokeExact(instance, value);
+        } catch (ClassCastException e) {
+            throw new IllegalArgumentException("Can not set field " + field.getDeclaringClass().getName() + "." + field.getName() + " of type " + field.getType().getName() + " to " + value.getClass().getName(), e);
+        } catch (RuntimeException | Error | IllegalAccessException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalAccessException(e.getMessage());
+        }
+    }
+
+    protected int getInt(Object instance) throws IllegalAccessException {
+        try {
+            return (int) checkPrimitiveHandle(intGetter, "get", "int").invokeExact(instance);
+        } catch (RuntimeException | Error | IllegalAccessException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalAccessException(e.getMessage());
+        }
+    }
+
+    protected long getLong(Object instance) throws IllegalAccessException {
+        try {
+            return (long) checkPrimitiveHandle(longGetter, "get", "long").invokeExact(instance);
+        } catch (RuntimeException | Error | IllegalAccessException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalAccessException(e.getMessage());
+        }
+    }
+
+    protected double getDouble(Object instance) throws IllegalAccessException {
+        try {
+            return (double) checkPrimitiveHandle(doubleGetter, "get", "double").invokeExact(instance);
+        } catch (RuntimeException | Error | IllegalAccessException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalAccessException(e.getMessage());
+        }
+    }
+
+    protected boolean getBoolean(Object instance) throws IllegalAccessException {
+        try {
+            return (boolean) checkPrimitiveHandle(booleanGetter, "get", "boolean").invokeExact(instance);
+        } catch (RuntimeException | Error | IllegalAccessException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalAccessException(e.getMessage());
+        }
+    }
+
+    protected void setInt(Object instance, int value) throws IllegalAccessException {
+        try {
+            checkPrimitiveHandle(intSetter, "set", "int").invokeExact(instance, value);
+        } catch (RuntimeException | Error | IllegalAccessException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalAccessException(e.getMessage());
+        }
+    }
+
+    protected void setLong(Object instance, long value) throws IllegalAccessException {
+        try {
+            checkPrimitiveHandle(longSetter, "set", "long").invokeExact(instance, value);
+        } catch (RuntimeException | Error | IllegalAccessException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalAccessException(e.getMessage());
+        }
+    }
+
+    protected void setDouble(Object instance, double value) throws IllegalAccessException {
+        try {
+            checkPrimitiveHandle(doubleSetter, "set", "double").invokeExact(instance, value);
+        } catch (RuntimeException | Error | IllegalAccessException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalAccessException(e.getMessage());
+        }
+    }
+
+    protected void setBoolean(Object instance, boolean value) throws IllegalAccessException {
+        try {
+            checkPrimitiveHandle(booleanSetter, "set", "boolean").invokeExact(instance, value);
+        } catch (RuntimeException | Error | IllegalAccessException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalAccessException(e.getMessage());
+        }
+    }
+
+    /**
+     * @return the default value of the field type, 0 (of the right primitive type), false or null
+     */
+    protected Object getDefaultValue() {
+        return defaultValue;
+    }
+
+    private MethodHandle checkPrimitiveHandle(MethodHandle primitiveHandle, String operation, String primitiveTypeName) throws IllegalAccessException {
+        if(primitiveHandle == null) {
+            if(operation.equals("set") && setter == null) {
+                throw new IllegalAccessException("Can not set static final field " + field.getDeclaringClass().getName() + "." + field.getName());
+            }
+            throw new IllegalArgumentException("Can not " + operation + " field " + field.getDeclaringClass().getName() + "." + field.getName() + " of type " + field.getType().getName() + " as " + primitiveTypeName);
+        }
+        return primitiveHandle;
+    }
+
+    protected MethodHandle getExactGetter() {
+        return exactGetter;
+    }
+
+    /**
+     * @return null for static final fields
+     */
+    protected MethodHandle getExactSetter() {
+        return exactSetter;
+    }
+
+    protected Field getField() {
+        return field;
+    }
+}
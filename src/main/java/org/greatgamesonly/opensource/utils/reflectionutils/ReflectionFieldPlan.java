@@ -0,0 +1,72 @@
+package org.greatgamesonly.opensource.utils.reflectionutils;
+
+/**
+ * Fixed list of fields of one class, resolved once by {@link ReflectionUtils#compileFieldPlan(Class, String...)}.
+ * Applying or reading the plan runs straight over the resolved accessors, position i of the value array belongs to
+ * field name i, so there is no lookup by name and no accessible flag toggling per field.
+ * <p>
+ * A plan holds no state besides the resolved fields and can be shared between threads.
+ */
+public final class ReflectionFieldPlan {
+    private final Class<?> planClass;
+    private final String[] fieldNames;
+    private final ReflectionFieldAccessor[] fieldAccessors;
+
+    ReflectionFieldPlan(Class<?> planClass, String[] fieldNames, ReflectionFieldAccessor[] fieldAccessors) {
+        this.planClass = planClass;
+        this.fieldNames = fieldNames;
+        this.fieldAccessors = fieldAccessors;
+    }
+
+    public Class<?> getPlanClass() {
+        return planClass;
+    }
+
+    public String[] getFieldNames() {
+        return fieldNames.clone();
+    }
+
+    public int size() {
+        return fieldAccessors.length;
+    }
+
+    /**
+     * Sets values[i] on the field at position i of the plan.
+     */
+    public void apply(Object instance, Object... values) throws IllegalAccessException {
+        checkInstance(instance);
+        checkValues(values);
+        for(int i = 0; i < fieldAccessors.length; i++) {
+            fieldAccessors[i].set(instance, values[i]);
+        }
+    }
+
+    /**
+     * Reads the field values of instance into values, in plan order.
+     * @return the given values array
+     */
+    public Object[] read(Object instance, Object[] values) throws IllegalAccessException {
+        checkInstance(instance);
+        checkValues(values);
+        for(int i = 0; i < fieldAccessors.length; i++) {
+            values[i] = fieldAccessors[i].get(instance);
+        }
+        return values;
+    }
+
+    public Object[] read(Object instance) throws IllegalAccessException {
+        return read(instance, new Object[fieldAccessors.length]);
+    }
+
+    private void checkInstance(Object instance) {
+        if(!planClass.isInstance(instance)) {
+            throw new IllegalArgumentException("instance is not a " + planClass.getName());
+        }
+    }
+
+    private void checkValues(Object[] values) {
+        if(values == null || values.length < fieldAccessors.length) {
+            throw new IllegalArgumentException("field plan needs an array of at least " + fieldAccessors.length + " values");
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.greatgamesonly.opensource.utils.reflectionutils;
+
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+
+/**
+ * Emits the JDK Flight Recorder events of {@link ReflectionFlightRecorderEvents} for the expensive reflection work:
+ * classpath scans, deep merges, cache rebuilds and bean introspection. Events are handed around as plain Objects so
+ * nothing outside this class links against jdk.jfr, which keeps the library working on runtimes built without that
+ * module. When the runtime has no jdk.jfr, or the events are not enabled in a recording, begin returns null and
+ * commit does nothing.
+ */
+final class ReflectionFlightRecorder {
+    static final String ENABLED_PROPERTY = "reflectionutils.jfr.enabled";
+
+    private static final boolean AVAILABLE = isFlightRecorderAvailable();
+
+    private ReflectionFlightRecorder() {}
+
+    static Object beginClassScan() {
+        return AVAILABLE ? ReflectionFlightRecorderEvents.beginClassScan() : null;
+    }
+
+    static void commitClassScan(Object event, String packageName, int classCount, boolean indexed) {
+        if(event != null) {
+            ReflectionFlightRecorderEvents.commitClassScan(event, packageName, classCount, indexed);
+        }
+    }
+
+    static Object beginMerge() {
+        return AVAILABLE ? ReflectionFlightRecorderEvents.beginMerge() : null;
+    }
+
+    static void commitMerge(Object event, Class<?> sourceClass, Class<?> targetClass, int objectCount, String strategy) {
+        if(event != null) {
+            ReflectionFlightRecorderEvents.commitMerge(event, sourceClass, targetClass, objectCount, strategy);
+        }
+    }
+
+    static Object beginCacheRebuild() {
+        return AVAILABLE ? ReflectionFlightRecorderEvents.beginCacheRebuild() : null;
+    }
+
+    static void commitCacheRebuild(Object event, Class<?> cachedClass, String cacheTable, int entryCount) {
+        if(event != null) {
+            ReflectionFlightRecorderEvents.commitCacheRebuild(event, cachedClass, cacheTable, entryCount);
+        }
+    }
+
+    /**
+     * Introspector.getBeanInfo, recorded as a bean introspection event.
+     */
+    static BeanInfo getBeanInfo(Class<?> beanClass) throws IntrospectionException {
+        Object event = AVAILABLE ? ReflectionFlightRecorderEvents.beginBeanIntrospection() : null;
+        BeanInfo beanInfo = Introspector.getBeanInfo(beanClass);
+        if(event != null) {
+            ReflectionFlightRecorderEvents.commitBeanIntrospection(event, beanClass, beanInfo.getPropertyDescriptors().length);
+        }
+        return beanInfo;
+    }
+
+    private static boolean isFlightRecorderAvailable() {
+        if(!Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true"))) {
+            return false;
+        }
+        try {
+            Class.forName("jdk.jfr.Event", false, ReflectionFlightRecorder.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
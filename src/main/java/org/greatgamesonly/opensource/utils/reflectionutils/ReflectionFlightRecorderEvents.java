@@ -0,0 +1,148 @@
+package org.greatgamesonly.opensource.utils.reflectionutils;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The Flight Recorder event types, only ever loaded through {@link ReflectionFlightRecorder} once it found jdk.jfr.
+ * An event that is not enabled in any running recording is dropped right after construction, before begin, so the
+ * cost with JFR off is the allocation (usually scalar replaced) and one enabled check.
+ */
+final class ReflectionFlightRecorderEvents {
+    static final String CATEGORY = "Reflection Utils";
+
+    private ReflectionFlightRecorderEvents() {}
+
+    static Object beginClassScan() {
+        return begin(new ClassScanEvent());
+    }
+
+    static void commitClassScan(Object event, String packageName, int classCount, boolean indexed) {
+        ClassScanEvent classScanEvent = (ClassScanEvent) event;
+        classScanEvent.end();
+        if(classScanEvent.shouldCommit()) {
+            classScanEvent.packageName = packageName;
+            classScanEvent.classCount = classCount;
+            classScanEvent.indexed = indexed;
+            classScanEvent.commit();
+        }
+    }
+
+    static Object beginMerge() {
+        return begin(new MergeEvent());
+    }
+
+    static void commitMerge(Object event, Class<?> sourceClass, Class<?> targetClass, int objectCount, String strategy) {
+        MergeEvent mergeEvent = (MergeEvent) event;
+        mergeEvent.end();
+        if(mergeEvent.shouldCommit()) {
+            mergeEvent.sourceClass = sourceClass;
+            mergeEvent.targetClass = targetClass;
+            mergeEvent.objectCount = objectCount;
+            mergeEvent.strategy = strategy;
+            mergeEvent.commit();
+        }
+    }
+
+    static Object beginCacheRebuild() {
+        return begin(new CacheRebuildEvent());
+    }
+
+    static void commitCacheRebuild(Object event, Class<?> cachedClass, String cacheTable, int entryCount) {
+        CacheRebuildEvent cacheRebuildEvent = (CacheRebuildEvent) event;
+        cacheRebuildEvent.end();
+        if(cacheRebuildEvent.shouldCommit()) {
+            cacheRebuildEvent.cachedClass = cachedClass;
+            cacheRebuildEvent.cacheTable = cacheTable;
+            cacheRebuildEvent.entryCount = entryCount;
+            cacheRebuildEvent.commit();
+        }
+    }
+
+    static Object beginBeanIntrospection() {
+        return begin(new BeanIntrospectionEvent());
+    }
+
+    static void commitBeanIntrospection(Object event, Class<?> beanClass, int propertyCount) {
+        BeanIntrospectionEvent beanIntrospectionEvent = (BeanIntrospectionEvent) event;
+        beanIntrospectionEvent.end();
+        if(beanIntrospectionEvent.shouldCommit()) {
+            beanIntrospectionEvent.beanClass = beanClass;
+            beanIntrospectionEvent.propertyCount = propertyCount;
+            beanIntrospectionEvent.commit();
+        }
+    }
+
+    private static Event begin(Event event) {
+        if(!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    @Name("org.greatgamesonly.reflectionutils.ClassScan")
+    @Label("Class Scan")
+    @Category(CATEGORY)
+    @Description("Classes of a package looked up by getClasses, from the build time index or by scanning the classpath")
+    static class ClassScanEvent extends Event {
+        @Label("Package Name")
+        String packageName;
+
+        @Label("Class Count")
+        int classCount;
+
+        @Label("Indexed")
+        @Description("True when the class names came from a class index instead of a classpath scan")
+        boolean indexed;
+    }
+
+    @Name("org.greatgamesonly.reflectionutils.Merge")
+    @Label("Merge")
+    @Category(CATEGORY)
+    @Description("One merge of an object graph into another")
+    static class MergeEvent extends Event {
+        @Label("Source Class")
+        Class<?> sourceClass;
+
+        @Label("Target Class")
+        Class<?> targetClass;
+
+        @Label("Object Count")
+        @Description("Number of destination objects merged into, the root object included")
+        int objectCount;
+
+        @Label("Strategy")
+        String strategy;
+    }
+
+    @Name("org.greatgamesonly.reflectionutils.CacheRebuild")
+    @Label("Cache Rebuild")
+    @Category(CATEGORY)
+    @Description("A metadata cache table built for a class, or entries dropped from the metadata cache")
+    static class CacheRebuildEvent extends Event {
+        @Label("Cached Class")
+        Class<?> cachedClass;
+
+        @Label("Cache Table")
+        String cacheTable;
+
+        @Label("Entry Count")
+        int entryCount;
+    }
+
+    @Name("org.greatgamesonly.reflectionutils.BeanIntrospection")
+    @Label("Bean Introspection")
+    @Category(CATEGORY)
+    @Description("Introspector.getBeanInfo call")
+    static class BeanIntrospectionEvent extends Event {
+        @Label("Bean Class")
+        Class<?> beanClass;
+
+        @Label("Property Count")
+        int propertyCount;
+    }
+}
@@ -0,0 +1,278 @@
+package org.greatgamesonly.opensource.utils.reflectionutils;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounds the per class metadata tables to an entry budget. Eviction works on whole class tables using a segmented
+ * LRU: tables that were only used during a single access epoch (probation) go before tables that were used again
+ * later (protected), and within a segment the least recently used table goes first. An epoch only advances on a
+ * cache miss, so on a hit the access bookkeeping is one int compare (and a write to the table only the first time it
+ * is used in an epoch), next to the striped increment of the hit counter.
+ * <p>
+ * The tables themselves hang off their class through a {@link ClassValue}, the bookkeeping here is segmented by
+ * class loader and only holds weak references to them, so nothing in this cache keeps a class (or its loader) from
+ * being unloaded after a redeploy.
+ */
+final class ReflectionMetadataCache {
+    static final String MAXIMUM_SIZE_PROPERTY = "reflectionutils.cache.maximumSize";
+    static final long DEFAULT_MAXIMUM_SIZE = 10000L;
+    // evict a bit below the budget so that a full cache does not have to run an eviction pass on every miss
+    private static final double EVICT_TO_FRACTION_OF_MAXIMUM = 0.9d;
+
+    private static final ClassValue<ReflectionClassMetadata> CLASS_METADATA = new ClassValue<>() {
+        @Override
+        protected ReflectionClassMetadata computeValue(Class<?> clazz) {
+            return new ReflectionClassMetadata(clazz);
+        }
+    };
+
+    private static final WeakHashMap<ClassLoader, ClassLoaderSegment> classLoaderSegments = new WeakHashMap<>();
+    private static final ClassLoaderSegment bootstrapClassLoaderSegment = new ClassLoaderSegment();
+    private static final ReferenceQueue<ReflectionClassMetadata> collectedClassMetadata = new ReferenceQueue<>();
+    private static final AtomicLong totalEntries = new AtomicLong();
+    private static final LongAdder hitCount = new LongAdder();
+    private static final LongAdder missCount = new LongAdder();
+    private static final LongAdder evictionCount = new LongAdder();
+    private static final ReentrantLock evictionLock = new ReentrantLock();
+    private static volatile int currentEpoch;
+    private static volatile long maximumSize = Long.getLong(MAXIMUM_SIZE_PROPERTY, DEFAULT_MAXIMUM_SIZE);
+
+    private ReflectionMetadataCache() {}
+
+    static ReflectionClassMetadata getClassMetadata(Class<?> clazz) {
+        ReflectionClassMetadata classMetadata = CLASS_METADATA.get(clazz);
+        if(!classMetadata.isRegistered() && classMetadata.markRegistered()) {
+            // registered here rather than in computeValue, which may run more than once for the same class when racing
+            register(classMetadata);
+        }
+        classMetadata.recordAccess(currentEpoch);
+        return classMetadata;
+    }
+
+    static void recordHit() {
+        hitCount.increment();
+    }
+
+    static void recordMiss() {
+        missCount.increment();
+        // not atomic on purpose, two misses racing may advance the epoch once instead of twice. the epoch only orders
+        // tables for eviction, a lost step makes their last access look a little closer together and nothing more
+        currentEpoch++;
+    }
+
+    static void recordInsert(ReflectionClassMetadata classMetadata) {
+        if(!classMetadata.isEvicted() && totalEntries.incrementAndGet() > maximumSize) {
+            evictIfNeeded();
+        }
+    }
+
+    static void setMaximumSize(long newMaximumSize) {
+        if(newMaximumSize < 0) {
+            throw new IllegalArgumentException("maximum cache size cannot be negative");
+        }
+        maximumSize = newMaximumSize;
+        evictIfNeeded();
+    }
+
+    static void invalidate(Class<?> clazz) {
+        ClassLoaderSegment segment = getSegment(clazz.getClassLoader(), false);
+        ClassMetadataReference reference = segment != null ? segment.references.get(clazz.getName()) : null;
+        ReflectionClassMetadata classMetadata = reference != null ? reference.get() : null;
+        if(classMetadata != null && classMetadata.getMetadataClass() == clazz) {
+            remove(reference, false, true);
+        }
+        CLASS_METADATA.remove(clazz);
+    }
+
+    static void invalidate(ClassLoader classLoader) {
+        Object cacheRebuildEvent = ReflectionFlightRecorder.beginCacheRebuild();
+        long entriesBefore = totalEntries.get();
+        ClassLoaderSegment segment;
+        if(classLoader == null) {
+            segment = bootstrapClassLoaderSegment;
+        } else {
+            synchronized (classLoaderSegments) {
+                segment = classLoaderSegments.remove(classLoader);
+            }
+        }
+        if(segment != null) {
+            for(ClassMetadataReference reference : segment.references.values()) {
+                remove(reference, false, true);
+            }
+        }
+        // tables of surviving classes can still hold class to class mappings into the invalidated class loader
+        for(ClassLoaderSegment survivingSegment : getAllSegments()) {
+            for(ClassMetadataReference reference : survivingSegment.references.values()) {
+                ReflectionClassMetadata classMetadata = reference.get();
+                if(classMetadata != null) {
+                    totalEntries.addAndGet(-classMetadata.removeClassToClassMethods(classLoader));
+                }
+            }
+        }
+        expungeCollectedClassMetadata();
+        ReflectionFlightRecorder.commitCacheRebuild(cacheRebuildEvent, null, "class loader invalidation", (int) Math.max(0L, entriesBefore - totalEntries.get()));
+    }
+
+    static ReflectionCacheStatistics getStatistics() {
+        expungeCollectedClassMetadata();
+        return new ReflectionCacheStatistics(
+                hitCount.sum(),
+                missCount.sum(),
+                evictionCount.sum(),
+                Math.max(0L, totalEntries.get()),
+                maximumSize
+        );
+    }
+
+    private static void register(ReflectionClassMetadata classMetadata) {
+        Class<?> clazz = classMetadata.getMetadataClass();
+        ClassLoaderSegment segment = getSegment(clazz.getClassLoader(), true);
+        // class names are unique within a class loader, so the segment can key on the name and keep no class reference
+        ClassMetadataReference previous = segment.references.put(
+                clazz.getName(),
+                new ClassMetadataReference(classMetadata, segment, clazz.getName(), classMetadata.getEntryCounter())
+        );
+        if(previous != null && previous.get() != classMetadata) {
+            // an earlier table of this class was dropped from the ClassValue already, only its bookkeeping is left
+            remove(previous, false, false);
+        }
+        expungeCollectedClassMetadata();
+    }
+
+    private static ClassLoaderSegment getSegment(ClassLoader classLoader, boolean createIfAbsent) {
+        if(classLoader == null) {
+            return bootstrapClassLoaderSegment;
+        }
+        synchronized (classLoaderSegments) {
+            ClassLoaderSegment segment = classLoaderSegments.get(classLoader);
+            if(segment == null && createIfAbsent) {
+                segment = new ClassLoaderSegment();
+                classLoaderSegments.put(classLoader, segment);
+            }
+            return segment;
+        }
+    }
+
+    private static List<ClassLoaderSegment> getAllSegments() {
+        List<ClassLoaderSegment> segments = new ArrayList<>();
+        segments.add(bootstrapClassLoaderSegment);
+        synchronized (classLoaderSegments) {
+            segments.addAll(classLoaderSegments.values());
+        }
+        return segments;
+    }
+
+    private static void expungeCollectedClassMetadata() {
+        ClassMetadataReference reference;
+        while((reference = (ClassMetadataReference) collectedClassMetadata.poll()) != null) {
+            remove(reference, false, true);
+        }
+    }
+
+    private static void evictIfNeeded() {
+        // only one thread needs to do the work, everyone else carries on and finds a smaller cache next time
+        if(!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            expungeCollectedClassMetadata();
+            if(totalEntries.get() <= maximumSize) {
+                return;
+            }
+            Object cacheRebuildEvent = ReflectionFlightRecorder.beginCacheRebuild();
+            long entriesBefore = totalEntries.get();
+            long evictTo = (long) (maximumSize * EVICT_TO_FRACTION_OF_MAXIMUM);
+            // snapshot the access state first, it keeps changing underneath us while sorting
+            List<EvictionCandidate> candidates = new ArrayList<>();
+            for(ClassLoaderSegment segment : getAllSegments()) {
+                for(ClassMetadataReference reference : segment.references.values()) {
+                    ReflectionClassMetadata classMetadata = reference.get();
+                    if(classMetadata != null) {
+                        candidates.add(new EvictionCandidate(reference, classMetadata));
+                    } else {
+                        remove(reference, false, true);
+                    }
+                }
+            }
+            candidates.sort(Comparator
+                    .comparing((EvictionCandidate candidate) -> candidate.isProtected)
+                    .thenComparingInt(candidate -> candidate.lastAccessEpoch));
+            for(EvictionCandidate candidate : candidates) {
+                if(totalEntries.get() <= evictTo) {
+                    break;
+                }
+                remove(candidate.reference, true, true);
+            }
+            // age the survivors so tables that were hot a long time ago eventually fall back into probation
+            for(EvictionCandidate candidate : candidates) {
+                candidate.classMetadata.ageAccessFrequency();
+            }
+            ReflectionFlightRecorder.commitCacheRebuild(cacheRebuildEvent, null, "eviction", (int) Math.max(0L, entriesBefore - totalEntries.get()));
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static void remove(ClassMetadataReference reference, boolean countAsEviction, boolean removeFromClass) {
+        if(reference.removed.compareAndSet(false, true)) {
+            reference.segment.references.remove(reference.className, reference);
+            ReflectionClassMetadata classMetadata = reference.get();
+            if(classMetadata != null) {
+                classMetadata.markEvicted();
+                if(removeFromClass) {
+                    CLASS_METADATA.remove(classMetadata.getMetadataClass());
+                }
+            }
+            int removedEntries = reference.entryCount.get();
+            totalEntries.addAndGet(-removedEntries);
+            if(countAsEviction) {
+                evictionCount.add(removedEntries);
+                ReflectionMetrics.recordCacheEviction(classMetadata != null ? classMetadata.getMetadataClass() : null, removedEntries);
+            }
+        }
+    }
+
+    private static class ClassLoaderSegment {
+        private final ConcurrentHashMap<String, ClassMetadataReference> references = new ConcurrentHashMap<>();
+    }
+
+    private static class ClassMetadataReference extends WeakReference<ReflectionClassMetadata> {
+        private final ClassLoaderSegment segment;
+        private final String className;
+        // shared with the metadata table so the entries can still be subtracted after it was collected
+        private final AtomicInteger entryCount;
+        private final AtomicBoolean removed = new AtomicBoolean();
+
+        private ClassMetadataReference(ReflectionClassMetadata classMetadata, ClassLoaderSegment segment, String className, AtomicInteger entryCount) {
+            super(classMetadata, collectedClassMetadata);
+            this.segment = segment;
+            this.className = className;
+            this.entryCount = entryCount;
+        }
+    }
+
+    private static class EvictionCandidate {
+        private final ClassMetadataReference reference;
+        private final ReflectionClassMetadata classMetadata;
+        private final boolean isProtected;
+        private final int lastAccessEpoch;
+
+        private EvictionCandidate(ClassMetadataReference reference, ReflectionClassMetadata classMetadata) {
+            this.reference = reference;
+            this.classMetadata = classMetadata;
+            this.isProtected = classMetadata.isProtected();
+            this.lastAccessEpoch = classMetadata.getLastAccessEpoch();
+        }
+    }
+}
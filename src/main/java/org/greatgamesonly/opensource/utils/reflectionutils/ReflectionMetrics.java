@@ -0,0 +1,83 @@
+package org.greatgamesonly.opensource.utils.reflectionutils;
+
+/**
+ * Hands events to the registered {@link ReflectionMetricsListener}. With no listener registered every call is one
+ * volatile read and a branch, operations are not even timed.
+ */
+final class ReflectionMetrics {
+    private static final ReflectionMetricsListener NO_OP_LISTENER = new ReflectionMetricsListener() {};
+
+    private static volatile ReflectionMetricsListener listener = NO_OP_LISTENER;
+
+    private ReflectionMetrics() {}
+
+    static void setListener(ReflectionMetricsListener newListener) {
+        listener = newListener != null ? newListener : NO_OP_LISTENER;
+    }
+
+    static ReflectionMetricsListener getListener() {
+        ReflectionMetricsListener currentListener = listener;
+        return currentListener != NO_OP_LISTENER ? currentListener : null;
+    }
+
+    /**
+     * @return the start time to hand to {@link #recordOperation}, 0 when nothing listens
+     */
+    static long startOperation() {
+        return listener != NO_OP_LISTENER ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Runs measuredOperation and reports it as operation on target, failed when it throws. The exceptions it throws
+     * pass through unchanged, name them as type arguments when there are several, inference would widen them to
+     * their common super type. The lambda handed in is allocated on every call that captures anything, so this is for
+     * operations that cost far more than that (class scans, clones, diffs, merges), per field and per method calls
+     * time themselves with {@link #startOperation()} and {@link #recordOperation} inline.
+     */
+    static <T, E1 extends Exception, E2 extends Exception, E3 extends Exception> T measure(ReflectionOperation operation, Object target,
+            MeasuredOperation<T, E1, E2, E3> measuredOperation) throws E1, E2, E3 {
+        long startTime = startOperation();
+        boolean failed = true;
+        try {
+            T result = measuredOperation.run();
+            failed = false;
+            return result;
+        } finally {
+            recordOperation(operation, target, startTime, failed);
+        }
+    }
+
+    static void recordOperation(ReflectionOperation operation, Object target, long startTime, boolean failed) {
+        ReflectionMetricsListener currentListener = listener;
+        // a start time of 0 means the listener got registered while the operation ran, there is no duration then
+        if(currentListener != NO_OP_LISTENER && startTime != 0L) {
+            currentListener.onOperation(operation, target != null ? target.getClass() : null, System.nanoTime() - startTime, failed);
+        }
+    }
+
+    static void recordFallback(ReflectionFallback fallback, Class<?> targetClass) {
+        ReflectionMetricsListener currentListener = listener;
+        if(currentListener != NO_OP_LISTENER) {
+            currentListener.onFallback(fallback, targetClass);
+        }
+    }
+
+    static void recordCacheLookup(Class<?> targetClass, boolean hit) {
+        ReflectionMetricsListener currentListener = listener;
+        if(currentListener != NO_OP_LISTENER) {
+            currentListener.onCacheLookup(targetClass, hit);
+        }
+    }
+
+    static void recordCacheEviction(Class<?> targetClass, int entryCount) {
+        ReflectionMetricsListener currentListener = listener;
+        if(currentListener != NO_OP_LISTENER) {
+            currentListener.onCacheEviction(targetClass, entryCount);
+        }
+    }
+
+    @FunctionalInterface
+    interface MeasuredOperation<T, E1 extends Exception, E2 extends Exception, E3 extends Exception> {
+        T run() throws E1, E2, E3;
+    }
+}
@@ -0,0 +1,30 @@
+package org.greatgamesonly.opensource.utils.reflectionutils;
+
+/**
+ * Receives what ReflectionUtils does, register one with {@link ReflectionUtils#setMetricsListener(ReflectionMetricsListener)}
+ * to export it to a metrics system, {@link ReflectionMetricsRecorder} is a ready made one that keeps counters and
+ * latency histograms in memory. Every method defaults to doing nothing.
+ * <p>
+ * Callbacks run on the calling thread in the middle of the reflective call, so they have to be cheap and thread safe.
+ */
+public interface ReflectionMetricsListener {
+
+    /**
+     * @param targetClass    class of the object the operation worked on, null if there was none (or it was null)
+     * @param durationNanos  wall clock time the operation took
+     * @param failed         true when the operation threw
+     */
+    default void onOperation(ReflectionOperation operation, Class<?> targetClass, long durationNanos, boolean failed) {}
+
+    default void onFallback(ReflectionFallback fallback, Class<?> targetClass) {}
+
+    /**
+     * A lookup in the cache of resolved fields and methods.
+     */
+    default void onCacheLookup(Class<?> targetClass, boolean hit) {}
+
+    /**
+     * @param entryCount the number of resolved fields and methods that were dropped to stay within the maximum size
+     */
+    default void onCacheEviction(Class<?> targetClass, int entryCount) {}
+}
@@ -0,0 +1,181 @@
+package org.greatgamesonly.opensource.utils.reflectionutils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In memory {@link ReflectionMetricsListener}: counts per operation, fallback and class, cache hits and misses, and a
+ * latency histogram per operation with power of two buckets, meant to be read out periodically and exported.
+ * Recording only increments striped counters, it never locks or allocates (bar the first operation on a class).
+ */
+public class ReflectionMetricsRecorder implements ReflectionMetricsListener {
+    // bucket i holds durations of less than 2^i nanoseconds (and at least 2^(i-1)), so 64 buckets cover any long
+    private static final int LATENCY_BUCKET_COUNT = 64;
+
+    private final LongAdder[] operationCounts = newCounters(ReflectionOperation.values().length);
+    private final LongAdder[] failureCounts = newCounters(ReflectionOperation.values().length);
+    private final LongAdder[] totalDurations = newCounters(ReflectionOperation.values().length);
+    private final AtomicLongArray[] latencyHistograms = new AtomicLongArray[ReflectionOperation.values().length];
+    private final LongAdder[] fallbackCounts = newCounters(ReflectionFallback.values().length);
+    private final LongAdder cacheHitCount = new LongAdder();
+    private final LongAdder cacheMissCount = new LongAdder();
+    private final LongAdder cacheEvictedEntryCount = new LongAdder();
+    // keyed by name, a recorder should not keep classes from being unloaded
+    private final ConcurrentHashMap<String, LongAdder> classOperationCounts = new ConcurrentHashMap<>();
+
+    public ReflectionMetricsRecorder() {
+        for(int i = 0; i < latencyHistograms.length; i++) {
+            latencyHistograms[i] = new AtomicLongArray(LATENCY_BUCKET_COUNT);
+        }
+    }
+
+    @Override
+    public void onOperation(ReflectionOperation operation, Class<?> targetClass, long durationNanos, boolean failed) {
+        int index = operation.ordinal();
+        operationCounts[index].increment();
+        if(failed) {
+            failureCounts[index].increment();
+        }
+        long duration = Math.max(0L, durationNanos);
+        totalDurations[index].add(duration);
+        latencyHistograms[index].incrementAndGet(Math.min(LATENCY_BUCKET_COUNT - 1, 64 - Long.numberOfLeadingZeros(duration)));
+        if(targetClass != null) {
+            LongAdder classOperationCount = classOperationCounts.get(targetClass.getName());
+            if(classOperationCount == null) {
+                classOperationCount = classOperationCounts.computeIfAbsent(targetClass.getName(), className -> new LongAdder());
+            }
+            classOperationCount.increment();
+        }
+    }
+
+    @Override
+    public void onFallback(ReflectionFallback fallback, Class<?> targetClass) {
+        fallbackCounts[fallback.ordinal()].increment();
+    }
+
+    @Override
+    public void onCacheLookup(Class<?> targetClass, boolean hit) {
+        if(hit) {
+            cacheHitCount.increment();
+        } else {
+            cacheMissCount.increment();
+        }
+    }
+
+    @Override
+    public void onCacheEviction(Class<?> targetClass, int entryCount) {
+        cacheEvictedEntryCount.add(entryCount);
+    }
+
+    public long getOperationCount(ReflectionOperation operation) {
+        return operationCounts[operation.ordinal()].sum();
+    }
+
+    public long getFailureCount(ReflectionOperation operation) {
+        return failureCounts[operation.ordinal()].sum();
+    }
+
+    public long getTotalDurationNanos(ReflectionOperation operation) {
+        return totalDurations[operation.ordinal()].sum();
+    }
+
+    /**
+     * @return a copy of the latency histogram of operation, index i counts the calls that took less than 2^i
+     * nanoseconds (and at least 2^(i-1))
+     */
+    public long[] getLatencyHistogram(ReflectionOperation operation) {
+        AtomicLongArray latencyHistogram = latencyHistograms[operation.ordinal()];
+        long[] result = new long[LATENCY_BUCKET_COUNT];
+        for(int i = 0; i < LATENCY_BUCKET_COUNT; i++) {
+            result[i] = latencyHistogram.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return the upper bound in nanoseconds of the histogram bucket the percentile falls in, 0 when nothing was recorded
+     */
+    public long getLatencyPercentileNanos(ReflectionOperation operation, double percentile) {
+        if(percentile < 0.0d || percentile > 100.0d) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100");
+        }
+        long[] latencyHistogram = getLatencyHistogram(operation);
+        long total = 0L;
+        for(long bucketCount : latencyHistogram) {
+            total += bucketCount;
+        }
+        if(total == 0L) {
+            return 0L;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(total * percentile / 100.0d));
+        long seen = 0L;
+        for(int i = 0; i < LATENCY_BUCKET_COUNT; i++) {
+            seen += latencyHistogram[i];
+            if(seen >= rank) {
+                return i == LATENCY_BUCKET_COUNT - 1 ? Long.MAX_VALUE : 1L << i;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    public long getFallbackCount(ReflectionFallback fallback) {
+        return fallbackCounts[fallback.ordinal()].sum();
+    }
+
+    public long getCacheHitCount() {
+        return cacheHitCount.sum();
+    }
+
+    public long getCacheMissCount() {
+        return cacheMissCount.sum();
+    }
+
+    public double getCacheHitRate() {
+        long hits = getCacheHitCount();
+        long requests = hits + getCacheMissCount();
+        return requests == 0L ? 1.0d : (double) hits / requests;
+    }
+
+    public long getCacheEvictedEntryCount() {
+        return cacheEvictedEntryCount.sum();
+    }
+
+    /**
+     * @return the number of operations per class name of the object they worked on
+     */
+    public Map<String, Long> getOperationCountsByClassName() {
+        Map<String, Long> result = new HashMap<>();
+        classOperationCounts.forEach((className, count) -> result.put(className, count.sum()));
+        return result;
+    }
+
+    public void reset() {
+        for(int i = 0; i < operationCounts.length; i++) {
+            operationCounts[i].reset();
+            failureCounts[i].reset();
+            totalDurations[i].reset();
+            for(int j = 0; j < LATENCY_BUCKET_COUNT; j++) {
+                latencyHistograms[i].set(j, 0L);
+            }
+        }
+        for(LongAdder fallbackCount : fallbackCounts) {
+            fallbackCount.reset();
+        }
+        cacheHitCount.reset();
+        cacheMissCount.reset();
+        cacheEvictedEntryCount.reset();
+        classOperationCounts.clear();
+    }
+
+    private static LongAdder[] newCounters(int count) {
+        LongAdder[] counters = new LongAdder[count];
+        for(int i = 0; i < count; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+}
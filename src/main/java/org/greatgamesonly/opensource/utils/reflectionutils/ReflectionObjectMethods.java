@@ -0,0 +1,210 @@
+package org.greatgamesonly.opensource.utils.reflectionutils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import static org.greatgamesonly.opensource.utils.reflectionutils.ReflectionUtils.checkIfClassIsFromMainJavaPackages;
+
+/**
+ * equals, hashCode and toString of one class from its fields, compiled once: the instance fields of the class and its
+ * super classes (up to the first JDK class), static and transient ones left out, super class fields first. Primitive
+ * fields are read through handles of their own type and compared, hashed and appended without boxing, other values
+ * go through their own equals/hashCode/toString (arrays through the deep variants of Arrays).
+ * <p>
+ * JDK classes, enums, arrays and classes without such fields have no field state to compare, their instances are
+ * compared, hashed and printed as values through the same equals/hashCode/toString (or Arrays) calls instead.
+ */
+final class ReflectionObjectMethods {
+    private final Class<?> objectClass;
+    private final String[] fieldNames;
+    private final Class<?>[] fieldTypes;
+    private final ReflectionFieldAccessor[] fieldAccessors;
+    // the exact getters, only used for primitive fields
+    private final MethodHandle[] getters;
+    private final boolean valueBased;
+
+    private ReflectionObjectMethods(Class<?> objectClass, List<ReflectionFieldAccessor> fieldAccessors) {
+        this.objectClass = objectClass;
+        this.valueBased = fieldAccessors.isEmpty() || objectClass.isArray() || Enum.class.isAssignableFrom(objectClass) ||
+                checkIfClassIsFromMainJavaPackages(objectClass);
+        this.fieldAccessors = fieldAccessors.toArray(new ReflectionFieldAccessor[0]);
+        this.fieldNames = new String[this.fieldAccessors.length];
+        this.fieldTypes = new Class<?>[this.fieldAccessors.length];
+        this.getters = new MethodHandle[this.fieldAccessors.length];
+        for(int i = 0; i < this.fieldAccessors.length; i++) {
+            fieldNames[i] = this.fieldAccessors[i].getField().getName();
+            fieldTypes[i] = this.fieldAccessors[i].getField().getType();
+            getters[i] = this.fieldAccessors[i].getExactGetter();
+        }
+    }
+
+    static ReflectionObjectMethods forClass(Class<?> clazz) throws IllegalAccessException {
+        List<Class<?>> hierarchy = new ArrayList<>();
+        for(Class<?> declaringClass = clazz; declaringClass != null && !checkIfClassIsFromMainJavaPackages(declaringClass); declaringClass = declaringClass.getSuperclass()) {
+            hierarchy.add(0, declaringClass);
+        }
+        List<ReflectionFieldAccessor> fieldAccessors = new ArrayList<>();
+        for(Class<?> declaringClass : hierarchy) {
+            for(Field field : declaringClass.getDeclaredFields()) {
+                if(!Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers())) {
+                    fieldAccessors.add(ReflectionUtils.getFieldAccessor(field));
+                }
+            }
+        }
+        return new ReflectionObjectMethods(clazz, fieldAccessors);
+    }
+
+    int size() {
+        return fieldAccessors.length;
+    }
+
+    /**
+     * object must be an instance of the class of these methods, otherObject may be anything.
+     */
+    boolean equals(Object object, Object otherObject) throws IllegalAccessException {
+        if(object == otherObject) {
+            return true;
+        }
+        if(otherObject == null || otherObject.getClass() != objectClass) {
+            return false;
+        }
+        if(valueBased) {
+            return Objects.deepEquals(object, otherObject);
+        }
+        for(int i = 0; i < fieldAccessors.length; i++) {
+            if(fieldTypes[i].isPrimitive()) {
+                if(!isPrimitiveEqual(getters[i], fieldTypes[i], object, otherObject)) {
+                    return false;
+                }
+            } else if(!Objects.deepEquals(fieldAccessors[i].get(object), fieldAccessors[i].get(otherObject))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int hashCode(Object object) throws IllegalAccessException {
+        if(valueBased) {
+            return valueHashCode(object);
+        }
+        int hash = 1;
+        try {
+            for(int i = 0; i < fieldAccessors.length; i++) {
+                Class<?> fieldType = fieldTypes[i];
+                int fieldHash;
+                if(fieldType == int.class) {
+                    fieldHash = (int) getters[i].invokeExact(object);
+                } else if(fieldType == long.class) {
+                    fieldHash = Long.hashCode((long) getters[i].invokeExact(object));
+                } else if(fieldType == boolean.class) {
+                    fieldHash = Boolean.hashCode((boolean) getters[i].invokeExact(object));
+                } else if(fieldType == double.class) {
+                    fieldHash = Double.hashCode((double) getters[i].invokeExact(object));
+                } else if(fieldType == float.class) {
+                    fieldHash = Float.hashCode((float) getters[i].invokeExact(object));
+                } else if(fieldType == short.class) {
+                    fieldHash = (short) getters[i].invokeExact(object);
+                } else if(fieldType == char.class) {
+                    fieldHash = (char) getters[i].invokeExact(object);
+                } else if(fieldType == byte.class) {
+                    fieldHash = (byte) getters[i].invokeExact(object);
+                } else {
+                    fieldHash = valueHashCode(fieldAccessors[i].get(object));
+                }
+                hash = 31 * hash + fieldHash;
+            }
+        } catch (RuntimeException | Error | IllegalAccessException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalAccessException(e.getMessage());
+        }
+        return hash;
+    }
+
+    String toString(Object object) throws IllegalAccessException {
+        if(valueBased) {
+            return appendValue(new StringBuilder(), object).toString();
+        }
+        StringBuilder stringBuilder = new StringBuilder(objectClass.getSimpleName()).append('{');
+        try {
+            for(int i = 0; i < fieldAccessors.length; i++) {
+                if(i > 0) {
+                    stringBuilder.append(", ");
+                }
+                stringBuilder.append(fieldNames[i]).append('=');
+                Class<?> fieldType = fieldTypes[i];
+                if(fieldType == int.class) {
+                    stringBuilder.append((int) getters[i].invokeExact(object));
+                } else if(fieldType == long.class) {
+                    stringBuilder.append((long) getters[i].invokeExact(object));
+                } else if(fieldType == boolean.class) {
+                    stringBuilder.append((boolean) getters[i].invokeExact(object));
+                } else if(fieldType == double.class) {
+                    stringBuilder.append((double) getters[i].invokeExact(object));
+                } else if(fieldType == float.class) {
+                    stringBuilder.append((float) getters[i].invokeExact(object));
+                } else if(fieldType == short.class) {
+                    stringBuilder.append((short) getters[i].invokeExact(object));
+                } else if(fieldType == char.class) {
+                    stringBuilder.append((char) getters[i].invokeExact(object));
+                } else if(fieldType == byte.class) {
+                    stringBuilder.append((byte) getters[i].invokeExact(object));
+                } else {
+                    appendValue(stringBuilder, fieldAccessors[i].get(object));
+                }
+            }
+        } catch (RuntimeException | Error | IllegalAccessException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalAccessException(e.getMessage());
+        }
+        return stringBuilder.append('}').toString();
+    }
+
+    private static int valueHashCode(Object value) {
+        return value == null ? 0 : value.getClass().isArray() ? Arrays.deepHashCode(new Object[]{value}) : value.hashCode();
+    }
+
+    private static StringBuilder appendValue(StringBuilder stringBuilder, Object value) {
+        if(value != null && value.getClass().isArray()) {
+            String arrayString = Arrays.deepToString(new Object[]{value});
+            // strip the brackets of the wrapping array
+            return stringBuilder.append(arrayString, 1, arrayString.length() - 1);
+        }
+        return stringBuilder.append(value);
+    }
+
+    /**
+     * Compares a primitive field of two objects through its exact getter, (Object)fieldType, without boxing. Floating
+     * point fields compare like Double.equals and Float.equals, NaN equals NaN and 0.0 differs from -0.0.
+     */
+    static boolean isPrimitiveEqual(MethodHandle getter, Class<?> fieldType, Object object, Object otherObject) throws IllegalAccessException {
+        try {
+            if(fieldType == int.class) {
+                return (int) getter.invokeExact(object) == (int) getter.invokeExact(otherObject);
+            } else if(fieldType == long.class) {
+                return (long) getter.invokeExact(object) == (long) getter.invokeExact(otherObject);
+            } else if(fieldType == boolean.class) {
+                return (boolean) getter.invokeExact(object) == (boolean) getter.invokeExact(otherObject);
+            } else if(fieldType == double.class) {
+                return Double.doubleToLongBits((double) getter.invokeExact(object)) == Double.doubleToLongBits((double) getter.invokeExact(otherObject));
+            } else if(fieldType == float.class) {
+                return Float.floatToIntBits((float) getter.invokeExact(object)) == Float.floatToIntBits((float) getter.invokeExact(otherObject));
+            } else if(fieldType == short.class) {
+                return (short) getter.invokeExact(object) == (short) getter.invokeExact(otherObject);
+            } else if(fieldType == char.class) {
+                return (char) getter.invokeExact(object) == (char) getter.invokeExact(otherObject);
+            }
+            return (byte) getter.invokeExact(object) == (byte) getter.invokeExact(otherObject);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalAccessException(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package org.greatgamesonly.opensource.utils.reflectionutils;
+
+/**
+ * The ReflectionUtils operations reported to a {@link ReflectionMetricsListener}.
+ */
+public enum ReflectionOperation {
+    GET_FIELD_VALUE,
+    SET_FIELD_VALUE,
+    SET_FIELD_VALUE_VIA_SETTER,
+    CALL_METHOD,
+    MERGE,
+    MERGE_SIMILAR,
+    SHALLOW_MERGE,
+    BULK_MERGE,
+    CLEAN_OBJECT,
+    DEEP_CLONE,
+    DIFF,
+    GET_CLASSES,
+    CLASS_QUERY
+}
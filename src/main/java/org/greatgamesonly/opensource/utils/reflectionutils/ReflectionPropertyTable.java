@@ -0,0 +1,183 @@
+package org.greatgamesonly.opensource.utils.reflectionutils;
+
+import java.beans.IntrospectionException;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The bean properties of one class, introspected once: getter and setter per property with its type and what kind of
+ * type it is. Answers getGetters/getSetters with immutable sets that are computed once per filter combination, so a
+ * call in a loop is a map lookup instead of an Introspector.getBeanInfo call, a stream and a new HashSet.
+ */
+final class ReflectionPropertyTable {
+    // callers can pass any list of value types, past this many combinations the sets are computed but not kept
+    private static final int MAXIMUM_CACHED_FILTERS = 32;
+
+    private final Property[] properties;
+    private final Set<String> getterNames;
+    private final Set<Method> getterMethods;
+    private final Set<String> setterNames;
+    private final ConcurrentHashMap<Filter, Set<String>> filteredNames = new ConcurrentHashMap<>();
+    // the base value type filters are the common ones, they are kept by index so a lookup does not hash a type list
+    private final AtomicReferenceArray<Set<String>> baseValueTypeNames = new AtomicReferenceArray<>(8);
+
+    private ReflectionPropertyTable(Property[] properties) {
+        this.properties = properties;
+        Set<String> getterNames = new HashSet<>();
+        Set<Method> getterMethods = new HashSet<>();
+        Set<String> setterNames = new HashSet<>();
+        for(Property property : properties) {
+            if(property.readMethod != null) {
+                getterNames.add(property.readMethod.getName());
+                getterMethods.add(property.readMethod);
+            }
+            if(property.writeMethod != null) {
+                setterNames.add(property.writeMethod.getName());
+            }
+        }
+        this.getterNames = Set.copyOf(getterNames);
+        this.getterMethods = Set.copyOf(getterMethods);
+        this.setterNames = Set.copyOf(setterNames);
+    }
+
+    static ReflectionPropertyTable forClass(Class<?> clazz) throws IntrospectionException {
+        PropertyDescriptor[] propertyDescriptors = ReflectionFlightRecorder.getBeanInfo(clazz).getPropertyDescriptors();
+        Property[] properties = new Property[propertyDescriptors.length];
+        for(int i = 0; i < propertyDescriptors.length; i++) {
+            properties[i] = new Property(propertyDescriptors[i]);
+        }
+        return new ReflectionPropertyTable(properties);
+    }
+
+    Set<String> getGetterNames() {
+        return getterNames;
+    }
+
+    Set<Method> getGetterMethods() {
+        return getterMethods;
+    }
+
+    Set<String> getSetterNames() {
+        return setterNames;
+    }
+
+    /**
+     * {@link #getNames} for the base value types with primitives included.
+     */
+    Set<String> getBaseValueTypeNames(boolean setters, boolean includeEnums, boolean includeLists) {
+        int index = (setters ? 4 : 0) | (includeEnums ? 2 : 0) | (includeLists ? 1 : 0);
+        Set<String> names = baseValueTypeNames.get(index);
+        if(names == null) {
+            // racing threads compute the same set, whichever one is kept does not matter
+            names = filter(new Filter(setters, ReflectionUtils.BASE_VALUE_TYPES, true, includeEnums, includeLists));
+            baseValueTypeNames.set(index, names);
+        }
+        return names;
+    }
+
+    /**
+     * Getter (or setter) names of the properties whose type is one of valueTypes, or primitive, an enum or a collection
+     * when the matching include flag is set.
+     */
+    Set<String> getNames(boolean setters, List<Class<?>> valueTypes, boolean includePrimitives, boolean includeEnums, boolean includeLists) {
+        Filter filter = new Filter(setters, valueTypes != null ? valueTypes : Collections.emptyList(), includePrimitives, includeEnums, includeLists);
+        Set<String> names = filteredNames.get(filter);
+        if(names == null) {
+            names = filter(filter);
+            if(filteredNames.size() < MAXIMUM_CACHED_FILTERS) {
+                // the caller may change its list afterwards, the key keeps a copy
+                Set<String> cachedNames = filteredNames.putIfAbsent(filter.copy(), names);
+                names = cachedNames != null ? cachedNames : names;
+            }
+        }
+        return names;
+    }
+
+    private Set<String> filter(Filter filter) {
+        Set<String> names = new HashSet<>();
+        for(Property property : properties) {
+            Method method = filter.setters ? property.writeMethod : property.readMethod;
+            if(method != null && (
+                    filter.valueTypes.contains(property.type) ||
+                    (filter.includePrimitives && property.primitive) ||
+                    (filter.includeLists && property.collection) ||
+                    (filter.includeEnums && property.enumeration)
+            )) {
+                names.add(method.getName());
+            }
+        }
+        return Set.copyOf(names);
+    }
+
+    private static class Property {
+        private final Method readMethod;
+        private final Method writeMethod;
+        // null for properties that only have indexed accessors
+        private final Class<?> type;
+        private final boolean primitive;
+        private final boolean enumeration;
+        private final boolean collection;
+
+        private Property(PropertyDescriptor propertyDescriptor) {
+            this.readMethod = propertyDescriptor.getReadMethod();
+            this.writeMethod = propertyDescriptor.getWriteMethod();
+            this.type = propertyDescriptor.getPropertyType();
+            this.primitive = type != null && type.isPrimitive();
+            this.enumeration = type != null && type.isEnum();
+            this.collection = type != null && Collection.class.isAssignableFrom(type);
+        }
+    }
+
+    private static class Filter {
+        private final boolean setters;
+        private final List<Class<?>> valueTypes;
+        private final boolean includePrimitives;
+        private final boolean includeEnums;
+        private final boolean includeLists;
+
+        private Filter(boolean setters, List<Class<?>> valueTypes, boolean includePrimitives, boolean includeEnums, boolean includeLists) {
+            this.setters = setters;
+            this.valueTypes = valueTypes;
+            this.includePrimitives = includePrimitives;
+            this.includeEnums = includeEnums;
+            this.includeLists = includeLists;
+        }
+
+        private Filter copy() {
+            return new Filter(setters, Collections.unmodifiableList(new ArrayList<>(valueTypes)), includePrimitives, includeEnums, includeLists);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(this == o) {
+                return true;
+            }
+            if(!(o instanceof Filter)) {
+                return false;
+            }
+            Filter filter = (Filter) o;
+            return setters == filter.setters &&
+                    includePrimitives == filter.includePrimitives &&
+                    includeEnums == filter.includeEnums &&
+                    includeLists == filter.includeLists &&
+                    valueTypes.equals(filter.valueTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = valueTypes.hashCode();
+            hash = 31 * hash + (setters ? 1 : 0);
+            hash = 31 * hash + (includePrimitives ? 1 : 0);
+            hash = 31 * hash + (includeEnums ? 1 : 0);
+            return 31 * hash + (includeLists ? 1 : 0);
+        }
+    }
+}
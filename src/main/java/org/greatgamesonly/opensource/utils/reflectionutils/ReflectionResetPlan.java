@@ -0,0 +1,60 @@
+package org.greatgamesonly.opensource.utils.reflectionutils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What cleanObject does to one class, compiled once: for every instance field getClassFields returns a handle that
+ * writes the zero of the field type (0, 0L, 0.0d, false, '\u0000' or null) with that value already bound, so a reset is
+ * one pass of invokeExact calls that neither looks anything up nor boxes or allocates.
+ * <p>
+ * Static fields are left alone, they are not part of the state of an instance.
+ */
+final class ReflectionResetPlan {
+    private static final MethodType RESETTER_TYPE = MethodType.methodType(void.class, Object.class);
+
+    private final Class<?> planClass;
+    private final MethodHandle[] resetters;
+
+    private ReflectionResetPlan(Class<?> planClass, MethodHandle[] resetters) {
+        this.planClass = planClass;
+        this.resetters = resetters;
+    }
+
+    static ReflectionResetPlan forClass(Class<?> clazz) throws IllegalAccessException {
+        List<MethodHandle> resetters = new ArrayList<>();
+        for(Field field : ReflectionUtils.getClassFields(clazz)) {
+            if(Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            ReflectionFieldAccessor fieldAccessor = ReflectionUtils.getFieldAccessor(field);
+            resetters.add(MethodHandles.insertArguments(fieldAccessor.getExactSetter(), 1, fieldAccessor.getDefaultValue()).asType(RESETTER_TYPE));
+        }
+        return new ReflectionResetPlan(clazz, resetters.toArray(new MethodHandle[0]));
+    }
+
+    Class<?> getPlanClass() {
+        return planClass;
+    }
+
+    int size() {
+        return resetters.length;
+    }
+
+    void reset(Object instance) throws IllegalAccessException {
+        try {
+            for(MethodHandle resetter : resetters) {
+                resetter.invokeExact(instance);
+            }
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalAccessException(e.getMessage());
+        }
+    }
+}
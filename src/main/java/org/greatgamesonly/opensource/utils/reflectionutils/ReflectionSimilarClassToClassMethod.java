@@ -1,16 +1,74 @@
 package org.greatgamesonly.opensource.utils.reflectionutils;
 
+import java.beans.IntrospectionException;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 class ReflectionSimilarClassToClassMethod {
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
     Method methodObjectFromGetter;
     Method methodObjectToSetter;
+    private String propertyName;
+    private Class<?> propertyType;
+    private MethodHandle fromGetterHandle;
+    private MethodHandle toGetterHandle;
+    private MethodHandle toSetterHandle;
 
     protected ReflectionSimilarClassToClassMethod(Method methodObjectFromGetter, Method methodObjectToSetter) {
         this.methodObjectFromGetter = methodObjectFromGetter;
         this.methodObjectToSetter = methodObjectToSetter;
     }
 
+    /**
+     * Also resolves erased method handles for the getter and setter (and the getter on the destination class, if any,
+     * which merges need to read the current destination value) so copying a property is two invokeExact calls.
+     */
+    protected ReflectionSimilarClassToClassMethod(String propertyName, Method methodObjectFromGetter, Method methodObjectToGetter, Method methodObjectToSetter) throws IllegalAccessException {
+        this(methodObjectFromGetter, methodObjectToSetter);
+        this.propertyName = propertyName;
+        this.propertyType = methodObjectToSetter.getParameterTypes()[0];
+        this.fromGetterHandle = unreflect(methodObjectFromGetter).asType(GETTER_TYPE);
+        this.toGetterHandle = methodObjectToGetter != null ? unreflect(methodObjectToGetter).asType(GETTER_TYPE) : null;
+        this.toSetterHandle = unreflect(methodObjectToSetter).asType(SETTER_TYPE);
+    }
+
+    /**
+     * Matches the readable properties of fromClass to the writable properties of toClass with the same name and type.
+     * The readable side is indexed by name first so matching is a single pass over toClass (a hash join) instead of
+     * searching every fromClass property for every toClass property.
+     */
+    protected static List<ReflectionSimilarClassToClassMethod> matchClassToClassMethods(Class<?> fromClass, Class<?> toClass) throws IntrospectionException, IllegalAccessException {
+        Map<String, PropertyDescriptor> readableFromProperties = new HashMap<>();
+        for(PropertyDescriptor propertyDescriptor : ReflectionFlightRecorder.getBeanInfo(fromClass).getPropertyDescriptors()) {
+            if(propertyDescriptor.getReadMethod() != null && !"class".equals(propertyDescriptor.getName())) {
+                readableFromProperties.put(propertyDescriptor.getName(), propertyDescriptor);
+            }
+        }
+        List<ReflectionSimilarClassToClassMethod> result = new ArrayList<>();
+        for(PropertyDescriptor toPropertyDescriptor : ReflectionFlightRecorder.getBeanInfo(toClass).getPropertyDescriptors()) {
+            Method toSetter = toPropertyDescriptor.getWriteMethod();
+            PropertyDescriptor fromPropertyDescriptor = toSetter != null ? readableFromProperties.get(toPropertyDescriptor.getName()) : null;
+            if(fromPropertyDescriptor != null && fromPropertyDescriptor.getReadMethod().getReturnType().equals(toSetter.getParameterTypes()[0])) {
+                result.add(new ReflectionSimilarClassToClassMethod(
+                        toPropertyDescriptor.getName(),
+                        fromPropertyDescriptor.getReadMethod(),
+                        toPropertyDescriptor.getReadMethod(),
+                        toSetter
+                ));
+            }
+        }
+        return result;
+    }
+
     protected Method getMethodObjectFromGetter() {
         return methodObjectFromGetter;
     }
@@ -26,4 +84,33 @@ class ReflectionSimilarClassToClassMethod {
     protected void setMethodObjectToSetter(Method methodObjectToSetter) {
         this.methodObjectToSetter = methodObjectToSetter;
     }
+
+    protected String getPropertyName() {
+        return propertyName;
+    }
+
+    protected Class<?> getPropertyType() {
+        return propertyType;
+    }
+
+    protected MethodHandle getFromGetterHandle() {
+        return fromGetterHandle;
+    }
+
+    protected MethodHandle getToGetterHandle() {
+        return toGetterHandle;
+    }
+
+    protected MethodHandle getToSetterHandle() {
+        return toSetterHandle;
+    }
+
+    protected static MethodHandle unreflect(Method method) throws IllegalAccessException {
+        try {
+            return MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup()).unreflect(method);
+        } catch (IllegalAccessException | SecurityException e) {
+            // public accessors of classes in modules not opened to us are still reachable through a public lookup
+            return MethodHandles.publicLookup().unreflect(method);
+        }
+    }
 }
@@ -5,7 +5,6 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import java.beans.IntrospectionException;
-import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
 import java.io.*;
 import java.lang.annotation.Annotation;
@@ -18,10 +17,12 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.sql.Timestamp;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.jar.JarEntry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.jar.JarFile;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public final class ReflectionUtils {
 
@@ -53,29 +54,52 @@ public final class ReflectionUtils {
             float.class
     );
 
-    private static final ConcurrentHashMap<String, List<ReflectionSimilarClassToClassMethod>> similarClassToClassMethodGroupingByClassToClassNames = new ConcurrentHashMap<>();
-    private static final ConcurrentHashMap<String, Method> methodsCached = new ConcurrentHashMap<>();
-    private static final ConcurrentHashMap<String, Field> fieldsCached = new ConcurrentHashMap<>();
-    private static final String CALL_METHOD_QUICK_CACHE_KEY_LOOKUP_UNFORMATTED = "cc%s_%s__%s";
-    private static final String SET_FIELD_QUICK_CACHE_KEY_LOOKUP_UNFORMATTED = "ff%s_%s__";
-    private static final String SET_METHOD_QUICK_CACHE_KEY_LOOKUP_UNFORMATTED = "mm%s_%s__";
-
-
-    private static final Timer cacheCleanerLowProfileTimer;
-    static {
-        Timer timer = new Timer();
-        timer.schedule(
-                new TimerTask() {
-                    @Override
-                    public void run() {
-                        methodsCached.clear();
-                        fieldsCached.clear();
-                        similarClassToClassMethodGroupingByClassToClassNames.clear();
-                    }
-                },
-                300000L, 300000L
-        );
-        cacheCleanerLowProfileTimer = timer;
+    // per context class loader, resolving the running jar walks the stack trace and tries to open several jars
+    private static final Map<ClassLoader, Optional<File>> runningJars = new WeakHashMap<>();
+
+    /**
+     * @return hit, miss and eviction counters of the cache holding resolved fields and methods
+     */
+    public static ReflectionCacheStatistics getCacheStatistics() {
+        return ReflectionMetadataCache.getStatistics();
+    }
+
+    /**
+     * Sets the maximum number of resolved fields and methods kept in the cache, the default is 10000 and can also be
+     * set with the system property reflectionutils.cache.maximumSize
+     */
+    public static void setCacheMaximumSize(long maximumSize) {
+        ReflectionMetadataCache.setMaximumSize(maximumSize);
+    }
+
+    /**
+     * Drops everything cached for the given class, the next lookup resolves its fields and methods again
+     */
+    public static void invalidateCache(Class<?> clazz) {
+        ReflectionMetadataCache.invalidate(clazz);
+    }
+
+    /**
+     * Drops everything cached for classes defined by the given class loader (for example after a webapp redeploy),
+     * cached entries of classes from other class loaders are kept
+     */
+    public static void invalidateCache(ClassLoader classLoader) {
+        ReflectionMetadataCache.invalidate(classLoader);
+    }
+
+    /**
+     * Registers the listener that gets told about every operation, fallback and cache lookup, see
+     * {@link ReflectionMetricsRecorder} for one that keeps counters and latency histograms. null switches reporting off.
+     */
+    public static void setMetricsListener(ReflectionMetricsListener metricsListener) {
+        ReflectionMetrics.setListener(metricsListener);
+    }
+
+    /**
+     * @return the registered metrics listener, null if there is none
+     */
+    public static ReflectionMetricsListener getMetricsListener() {
+        return ReflectionMetrics.getListener();
     }
 
     public static boolean fieldExists(Class<?> clazz, String field) {
@@ -96,48 +120,76 @@ public final class ReflectionUtils {
     }
 
     public static <T> T getFieldValue(String field, Object instance) throws NoSuchFieldException, IllegalAccessException {
-        T result = null;
-        Field fieldReflection = null;
-        boolean hadToSetMethodToAccessible = false;
-        boolean hadToSetFieldToAccessible = false;
-        boolean isStaticField;
+        long startTime = ReflectionMetrics.startOperation();
+        boolean failed = true;
         try {
-            fieldReflection = instance.getClass().getDeclaredField(field);
-            isStaticField = Modifier.isStatic(fieldReflection.getModifiers());
-        } catch(NoSuchFieldException e) {
-            try {
-                Method fieldGetterMethod = instance.getClass().getMethod("get" + capitalize(field));
-                try {
-                    if (!fieldGetterMethod.canAccess(instance)) {
-                        hadToSetMethodToAccessible = true;
-                        fieldGetterMethod.setAccessible(true);
-                        result = (T) fieldGetterMethod.invoke(instance);
-                    } else {
-                        result = (T) fieldGetterMethod.invoke(instance);
-                    }
-                    return result;
-                } finally {
-                    if(hadToSetMethodToAccessible) {
-                        fieldGetterMethod.setAccessible(false);
-                    }
-                }
-            } catch(NoSuchMethodException | InvocationTargetException innerException) {
-                throw e;
-            }
+            T result = getFieldValueInternal(field, instance);
+            failed = false;
+            return result;
+        } finally {
+            ReflectionMetrics.recordOperation(ReflectionOperation.GET_FIELD_VALUE, instance, startTime, failed);
+        }
+    }
+
+    private static <T> T getFieldValueInternal(String field, Object instance) throws NoSuchFieldException, IllegalAccessException {
+        ReflectionFieldAccessor fieldAccessor = findFieldAccessor(instance.getClass(), field);
+        if(fieldAccessor != null) {
+            return (T) fieldAccessor.get(instance);
+        }
+        Method fieldGetterMethod = findGetterMethod(instance.getClass(), field);
+        if(fieldGetterMethod == null) {
+            throw new NoSuchFieldException(field);
         }
+        ReflectionMetrics.recordFallback(ReflectionFallback.GETTER_FOR_FIELD_READ, instance.getClass());
+        boolean hadToSetMethodToAccessible = false;
         try {
-            boolean canAccess = isStaticField ? fieldReflection.canAccess(null) : fieldReflection.canAccess(instance);
-            if(!canAccess) {
-                fieldReflection.setAccessible(true);
-                hadToSetFieldToAccessible = true;
+            if (!fieldGetterMethod.canAccess(instance)) {
+                hadToSetMethodToAccessible = true;
+                fieldGetterMethod.setAccessible(true);
             }
-            result = isStaticField ? (T) fieldReflection.get(null) : (T) fieldReflection.get(instance);
+            return (T) fieldGetterMethod.invoke(instance);
+        } catch (InvocationTargetException e) {
+            throw (NoSuchFieldException) new NoSuchFieldException(field).initCause(e);
         } finally {
-            if(hadToSetFieldToAccessible) {
-                fieldReflection.setAccessible(false);
+            if(hadToSetMethodToAccessible) {
+                fieldGetterMethod.setAccessible(false);
             }
         }
-        return result;
+    }
+
+    // typed variants of getFieldValue and setFieldValue for primitive fields, these never box the value. getters accept
+    // fields that widen to the requested type (an int field can be read as long), setters fields the value widens to
+
+    public static int getIntFieldValue(String field, Object instance) throws NoSuchFieldException, IllegalAccessException {
+        return getFieldAccessor(instance.getClass(), field).getInt(instance);
+    }
+
+    public static long getLongFieldValue(String field, Object instance) throws NoSuchFieldException, IllegalAccessException {
+        return getFieldAccessor(instance.getClass(), field).getLong(instance);
+    }
+
+    public static double getDoubleFieldValue(String field, Object instance) throws NoSuchFieldException, IllegalAccessException {
+        return getFieldAccessor(instance.getClass(), field).getDouble(instance);
+    }
+
+    public static boolean getBooleanFieldValue(String field, Object instance) throws NoSuchFieldException, IllegalAccessException {
+        return getFieldAccessor(instance.getClass(), field).getBoolean(instance);
+    }
+
+    public static void setIntFieldValue(Object object, String fieldName, int fieldValue) throws NoSuchFieldException, IllegalAccessException {
+        getFieldAccessor(object.getClass(), fieldName).setInt(object, fieldValue);
+    }
+
+    public static void setLongFieldValue(Object object, String fieldName, long fieldValue) throws NoSuchFieldException, IllegalAccessException {
+        getFieldAccessor(object.getClass(), fieldName).setLong(object, fieldValue);
+    }
+
+    public static void setDoubleFieldValue(Object object, String fieldName, double fieldValue) throws NoSuchFieldException, IllegalAccessException {
+        getFieldAccessor(object.getClass(), fieldName).setDouble(object, fieldValue);
+    }
+
+    public static void setBooleanFieldValue(Object object, String fieldName, boolean fieldValue) throws NoSuchFieldException, IllegalAccessException {
+        getFieldAccessor(object.getClass(), fieldName).setBoolean(object, fieldValue);
     }
 
     public static void setFieldToNull(Object object, String fieldName) throws IllegalAccessException, NoSuchFieldException {
@@ -151,15 +203,19 @@ public final class ReflectionUtils {
     }
 
     public static void setFieldValueViaSetter(Object object, String fieldName, Object fieldValue) throws IllegalAccessException, NoSuchMethodException {
-        String methodCacheKey = String.format(SET_METHOD_QUICK_CACHE_KEY_LOOKUP_UNFORMATTED, object.getClass(), fieldName);
-        Method method = methodsCached.get(methodCacheKey);
+        long startTime = ReflectionMetrics.startOperation();
+        boolean failed = true;
         try {
-            if (method == null) {
-                Class<?> fieldType = fieldValue != null ? fieldValue.getClass() : getFieldType(object, fieldName);
-                method = object.getClass().getMethod("set" + capitalize(fieldName), fieldType);
-                methodsCached.put(methodCacheKey, method);
-            }
-        } catch (NoSuchMethodException e) {
+            setFieldValueViaSetterInternal(object, fieldName, fieldValue);
+            failed = false;
+        } finally {
+            ReflectionMetrics.recordOperation(ReflectionOperation.SET_FIELD_VALUE_VIA_SETTER, object, startTime, failed);
+        }
+    }
+
+    private static void setFieldValueViaSetterInternal(Object object, String fieldName, Object fieldValue) throws IllegalAccessException, NoSuchMethodException {
+        Method method = findSetterMethod(object.getClass(), fieldName, fieldValue);
+        if(method == null) {
             throw new NoSuchMethodException("Setter method not found for field: " + fieldName);
         }
 
@@ -179,67 +235,279 @@ public final class ReflectionUtils {
         }
     }
 
-    private static Class<?> getFieldType(Object object, String fieldName) throws NoSuchMethodException {
-        try {
-            return object.getClass().getMethod("get" + capitalize(fieldName)).getReturnType();
-        } catch (NoSuchMethodException e) {
-            throw new NoSuchMethodException("Getter method not found for field: " + fieldName);
+    /**
+     * The public setter of fieldName taking the class of fieldValue (or the getter type when fieldValue is null), null
+     * when there is none. When clazz has no single argument setter of that name at all the miss is remembered, so only
+     * the first lookup pays for the NoSuchMethodException.
+     */
+    private static Method findSetterMethod(Class<?> clazz, String fieldName, Object fieldValue) {
+        ReflectionClassMetadata classMetadata = ReflectionClassMetadata.forClass(clazz);
+        Method method = classMetadata.getSetterMethod(fieldName);
+        if(method == null && !classMetadata.isMissingSetter(fieldName)) {
+            String setterName = "set" + capitalize(fieldName);
+            Class<?> fieldType = fieldValue != null ? fieldValue.getClass() : getFieldType(clazz, fieldName);
+            if(fieldType != null) {
+                try {
+                    method = clazz.getMethod(setterName, fieldType);
+                    classMetadata.putSetterMethod(fieldName, method);
+                    return method;
+                } catch (NoSuchMethodException ignored) {}
+            }
+            // a setter for another type can still match a later value, so only a name without any setter is remembered
+            if(Arrays.stream(clazz.getMethods()).noneMatch(candidate -> candidate.getParameterCount() == 1 && candidate.getName().equals(setterName))) {
+                classMetadata.putMissingSetter(fieldName);
+            }
         }
+        return method;
     }
 
-    public static void setFieldViaDirectAccess(Object object, Field field, Object fieldValue) throws IllegalAccessException {
-        boolean hadToSetFieldToAccessible = false;
-        try {
-            if(!field.canAccess(object)) {
-                field.setAccessible(true);
-                hadToSetFieldToAccessible = true;
-            }
-            field.set(object, fieldValue);
-        } finally {
-            if(hadToSetFieldToAccessible) {
-                field.setAccessible(false);
+    /**
+     * The public no argument getter of fieldName, null when there is none (remembered per class like a found getter).
+     */
+    private static Method findGetterMethod(Class<?> clazz, String fieldName) {
+        ReflectionClassMetadata classMetadata = ReflectionClassMetadata.forClass(clazz);
+        String getterName = "get" + capitalize(fieldName);
+        Method method = classMetadata.getMethod(getterName);
+        if(method == null && !classMetadata.isMissingMethod(getterName)) {
+            try {
+                method = clazz.getMethod(getterName);
+                classMetadata.putMethod(getterName, method);
+            } catch (NoSuchMethodException e) {
+                classMetadata.putMissingMethod(getterName);
             }
         }
+        return method;
+    }
+
+    private static Class<?> getFieldType(Class<?> clazz, String fieldName) {
+        Method getterMethod = findGetterMethod(clazz, fieldName);
+        return getterMethod != null ? getterMethod.getReturnType() : null;
     }
 
+    public static void setFieldViaDirectAccess(Object object, Field field, Object fieldValue) throws IllegalAccessException {
+        getFieldAccessor(field).set(object, fieldValue);
+    }
+
+    /**
+     * Sets the field through its setter, or directly when there is no setter. Despite the name this runs on the
+     * calling thread, use {@link #setFieldValueAsync(Object, String, Object)} to write off the calling thread.
+     */
     public static void setFieldValueAsynchronously(Object object, String fieldName, Object fieldValue) throws IllegalAccessException, NoSuchFieldException {
-        setFieldValueAsynchronouslyInternal(object,fieldName,fieldValue,0);
+        ReflectionFieldAccessor fieldAccessor = getFieldAccessor(object.getClass(), fieldName);
+        // the setter lookup gives the same answer every time, so without a setter go to the field right away
+        if(findSetterMethod(object.getClass(), fieldName, fieldValue) != null) {
+            try {
+                setFieldValueViaSetter(object,fieldName,fieldValue);
+                return;
+            } catch (NoSuchMethodException ignored) {}
+        }
+        ReflectionMetrics.recordFallback(ReflectionFallback.FIELD_FOR_ASYNCHRONOUS_WRITE, object.getClass());
+        fieldAccessor.set(object, fieldValue);
     }
 
-    private static void setFieldValueAsynchronouslyInternal(Object object, String fieldName, Object fieldValue, int totalTimesRetried) throws IllegalAccessException, NoSuchFieldException {
-        String fieldCacheKey = String.format(SET_FIELD_QUICK_CACHE_KEY_LOOKUP_UNFORMATTED,object.getClass(),fieldName);
-        Field field = fieldsCached.get(fieldCacheKey);
-        if(field == null) {
-            field = object.getClass().getDeclaredField(fieldName);
-            fieldsCached.put(fieldCacheKey, field);
+    /**
+     * {@link #setFieldValue(Object, String, Object)} on the default async executor: virtual threads when the runtime has
+     * them (Java 21+), the common ForkJoinPool otherwise. The future completes exceptionally with a CompletionException
+     * wrapping the NoSuchFieldException or IllegalAccessException when the write fails.
+     */
+    public static CompletableFuture<Void> setFieldValueAsync(Object object, String fieldName, Object fieldValue) {
+        return setFieldValueAsync(object, fieldName, fieldValue, ReflectionAsyncFieldWriter.DEFAULT_EXECUTOR);
+    }
+
+    public static CompletableFuture<Void> setFieldValueAsync(Object object, String fieldName, Object fieldValue, Executor executor) {
+        return setFieldValuesAsync(object, Collections.singletonMap(fieldName, fieldValue), executor);
+    }
+
+    /**
+     * Writes every field value (keyed by field name) into object as one task on the default async executor.
+     */
+    public static CompletableFuture<Void> setFieldValuesAsync(Object object, Map<String, ?> fieldValues) {
+        return setFieldValuesAsync(object, fieldValues, ReflectionAsyncFieldWriter.DEFAULT_EXECUTOR);
+    }
+
+    public static CompletableFuture<Void> setFieldValuesAsync(Object object, Map<String, ?> fieldValues, Executor executor) {
+        return ReflectionAsyncFieldWriter.setFieldValues(object, fieldValues, executor);
+    }
+
+    /**
+     * Writes the field values (value, keyed by field name) into every object (key) of the batch, cut into a few
+     * chunks that each run as one task on the default async executor. A failing object does not stop the batch, the
+     * future completes exceptionally after all objects were written.
+     */
+    public static CompletableFuture<Void> setFieldValuesAsync(List<? extends Map.Entry<?, ? extends Map<String, ?>>> objectFieldValues) {
+        return setFieldValuesAsync(objectFieldValues, ReflectionAsyncFieldWriter.DEFAULT_EXECUTOR);
+    }
+
+    public static CompletableFuture<Void> setFieldValuesAsync(List<? extends Map.Entry<?, ? extends Map<String, ?>>> objectFieldValues, Executor executor) {
+        return ReflectionAsyncFieldWriter.setFieldValues(objectFieldValues, executor);
+    }
+
+    /**
+     * @return the executor the async field writes run on when none is given, as a plain Executor that cannot be shut
+     * down or closed since it is shared by every caller
+     */
+    public static Executor getDefaultAsyncExecutor() {
+        return ReflectionAsyncFieldWriter.DEFAULT_EXECUTOR_VIEW;
+    }
+
+    public static void setFieldValue(Object object, String fieldName, Object fieldValue) throws IllegalAccessException, NoSuchFieldException {
+        long startTime = ReflectionMetrics.startOperation();
+        boolean failed = true;
+        try {
+            setFieldValueInternal(object, fieldName, fieldValue);
+            failed = false;
+        } finally {
+            ReflectionMetrics.recordOperation(ReflectionOperation.SET_FIELD_VALUE, object, startTime, failed);
+        }
+    }
+
+    private static void setFieldValueInternal(Object object, String fieldName, Object fieldValue) throws IllegalAccessException, NoSuchFieldException {
+        ReflectionFieldAccessor fieldAccessor = findFieldAccessor(object.getClass(), fieldName);
+        if(fieldAccessor != null) {
+            fieldAccessor.set(object, fieldValue);
+            return;
+        }
+        if(findSetterMethod(object.getClass(), fieldName, fieldValue) == null) {
+            throw new NoSuchFieldException("Setter method not found for field: " + fieldName);
         }
         try {
-            setFieldValueViaSetter(object,fieldName,fieldValue);
-        } catch (NoSuchMethodException e) {
-            if(totalTimesRetried >= 5) {
-                setFieldViaDirectAccess(object, field, fieldValue);
-            } else {
-                setFieldValueAsynchronouslyInternal(object,fieldName,fieldValue,++totalTimesRetried);
+            ReflectionMetrics.recordFallback(ReflectionFallback.SETTER_FOR_FIELD_WRITE, object.getClass());
+            setFieldValueViaSetterInternal(object,fieldName,fieldValue);
+        } catch (NoSuchMethodException ex) {
+            throw new NoSuchFieldException(ex.getMessage());
+        }
+    }
+
+    /**
+     * Resolves the given fields of clazz (declared on clazz or one of its super classes) once, so they can be set from
+     * or read into an array in one pass, see {@link ReflectionFieldPlan}.
+     */
+    public static ReflectionFieldPlan compileFieldPlan(Class<?> clazz, String... fieldNames) throws NoSuchFieldException, IllegalAccessException {
+        ReflectionFieldAccessor[] fieldAccessors = new ReflectionFieldAccessor[fieldNames.length];
+        for(int i = 0; i < fieldNames.length; i++) {
+            fieldAccessors[i] = getFieldAccessorInHierarchy(clazz, fieldNames[i]);
+        }
+        return new ReflectionFieldPlan(clazz, fieldNames.clone(), fieldAccessors);
+    }
+
+    public static <T> ReflectionBinaryCodec<T> compileBinaryCodec(Class<T> clazz) throws IllegalAccessException {
+        return compileBinaryCodec(clazz, new ArrayList<>());
+    }
+
+    /**
+     * Computes the binary layout of clazz from the declared fields of it and its super classes, static and transient
+     * fields left out, see {@link ReflectionBinaryCodec}. Throws an IllegalArgumentException when one of those fields
+     * has no flat form (collections, maps, nested objects, Number, Calendar, java.time, UUID, Object, ...), leave such
+     * fields out with a bypass annotation or make them transient.
+     */
+    public static <T> ReflectionBinaryCodec<T> compileBinaryCodec(Class<T> clazz, List<Class<? extends Annotation>> bypassWithTheseAnnotations) throws IllegalAccessException {
+        List<Class<?>> hierarchy = new ArrayList<>();
+        for(Class<?> declaringClass = clazz; declaringClass != null && declaringClass != Object.class; declaringClass = declaringClass.getSuperclass()) {
+            hierarchy.add(0, declaringClass);
+        }
+        List<ReflectionFieldAccessor> fieldAccessors = new ArrayList<>();
+        for(Class<?> declaringClass : hierarchy) {
+            // every declared field, getClassFields would silently leave out JDK types it does not know (UUID, java.time)
+            Field[] fields = declaringClass.getDeclaredFields();
+            Arrays.sort(fields, Comparator.comparing(Field::getName));
+            for(Field field : fields) {
+                if(Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers()) ||
+                        Arrays.stream(field.getAnnotations()).anyMatch(annotation -> bypassWithTheseAnnotations != null && bypassWithTheseAnnotations.contains(annotation.annotationType()))) {
+                    continue;
+                }
+                if(!ReflectionBinaryCodec.isSupportedType(field.getType())) {
+                    throw new IllegalArgumentException("field " + field.getName() + " of " + declaringClass.getName() + " has type " + field.getType().getName() + " which has no binary form");
+                }
+                fieldAccessors.add(getFieldAccessor(field));
             }
         }
+        return new ReflectionBinaryCodec<>(clazz, fieldAccessors.toArray(new ReflectionFieldAccessor[0]));
     }
 
-    public static void setFieldValue(Object object, String fieldName, Object fieldValue) throws IllegalAccessException, NoSuchFieldException {
-        String fieldCacheKey = String.format(SET_FIELD_QUICK_CACHE_KEY_LOOKUP_UNFORMATTED,object.getClass(),fieldName);
-        Field field = fieldsCached.get(fieldCacheKey);
-        if(field == null) {
+    // typed column extraction, the field accessor is resolved once for the whole collection and the primitive
+    // variants never box a value. every element must be an instance of the class declaring the field, with parallel
+    // set large collections are split into chunks over the common ForkJoinPool
+
+    public static int[] extractIntColumn(Collection<?> objects, String fieldName) throws NoSuchFieldException, IllegalAccessException {
+        return extractIntColumn(objects, fieldName, false);
+    }
+
+    public static int[] extractIntColumn(Collection<?> objects, String fieldName, boolean parallel) throws NoSuchFieldException, IllegalAccessException {
+        return ReflectionColumnExtractor.extractInts(objects, fieldName, parallel);
+    }
+
+    public static long[] extractLongColumn(Collection<?> objects, String fieldName) throws NoSuchFieldException, IllegalAccessException {
+        return extractLongColumn(objects, fieldName, false);
+    }
+
+    public static long[] extractLongColumn(Collection<?> objects, String fieldName, boolean parallel) throws NoSuchFieldException, IllegalAccessException {
+        return ReflectionColumnExtractor.extractLongs(objects, fieldName, parallel);
+    }
+
+    public static double[] extractDoubleColumn(Collection<?> objects, String fieldName) throws NoSuchFieldException, IllegalAccessException {
+        return extractDoubleColumn(objects, fieldName, false);
+    }
+
+    public static double[] extractDoubleColumn(Collection<?> objects, String fieldName, boolean parallel) throws NoSuchFieldException, IllegalAccessException {
+        return ReflectionColumnExtractor.extractDoubles(objects, fieldName, parallel);
+    }
+
+    public static <T> T[] extractColumn(Collection<?> objects, String fieldName, Class<T> columnType) throws NoSuchFieldException, IllegalAccessException {
+        return extractColumn(objects, fieldName, columnType, false);
+    }
+
+    public static <T> T[] extractColumn(Collection<?> objects, String fieldName, Class<T> columnType, boolean parallel) throws NoSuchFieldException, IllegalAccessException {
+        return ReflectionColumnExtractor.extractObjects(objects, fieldName, columnType, parallel);
+    }
+
+    /**
+     * The accessor of fieldName declared on clazz or the closest of its super classes.
+     */
+    static ReflectionFieldAccessor getFieldAccessorInHierarchy(Class<?> clazz, String fieldName) throws NoSuchFieldException, IllegalAccessException {
+        ReflectionFieldAccessor fieldAccessor;
+        Class<?> declaringClass = clazz;
+        while((fieldAccessor = findFieldAccessor(declaringClass, fieldName)) == null) {
+            declaringClass = declaringClass.getSuperclass();
+            if(declaringClass == null) {
+                throw new NoSuchFieldException(fieldName);
+            }
+        }
+        return fieldAccessor;
+    }
+
+    private static ReflectionFieldAccessor getFieldAccessor(Class<?> clazz, String fieldName) throws NoSuchFieldException, IllegalAccessException {
+        ReflectionFieldAccessor fieldAccessor = findFieldAccessor(clazz, fieldName);
+        if(fieldAccessor == null) {
+            throw new NoSuchFieldException(fieldName);
+        }
+        return fieldAccessor;
+    }
+
+    /**
+     * The accessor of a field declared on clazz, null when clazz declares no such field. Misses are remembered per
+     * class, so only the first lookup of a missing field pays for the NoSuchFieldException of getDeclaredField.
+     */
+    private static ReflectionFieldAccessor findFieldAccessor(Class<?> clazz, String fieldName) throws IllegalAccessException {
+        ReflectionClassMetadata classMetadata = ReflectionClassMetadata.forClass(clazz);
+        ReflectionFieldAccessor fieldAccessor = classMetadata.getFieldAccessor(fieldName);
+        if(fieldAccessor == null && !classMetadata.isMissingField(fieldName)) {
             try {
-                field = object.getClass().getDeclaredField(fieldName);
-                fieldsCached.put(fieldCacheKey, field);
+                fieldAccessor = ReflectionFieldAccessor.of(clazz.getDeclaredField(fieldName));
+                classMetadata.putFieldAccessor(fieldName, fieldAccessor);
             } catch (NoSuchFieldException e) {
-                try {
-                    setFieldValueViaSetter(object,fieldName,fieldValue);
-                } catch (NoSuchMethodException ex) {
-                    throw new NoSuchFieldException(ex.getMessage());
-                }
+                classMetadata.putMissingField(fieldName);
             }
         }
-        setFieldViaDirectAccess(object, field, fieldValue);
+        return fieldAccessor;
+    }
+
+    static ReflectionFieldAccessor getFieldAccessor(Field field) throws IllegalAccessException {
+        try {
+            // resolve through the declaring class so that the callers own Field instance never gets its accessible flag changed
+            return getFieldAccessor(field.getDeclaringClass(), field.getName());
+        } catch (NoSuchFieldException e) {
+            throw new IllegalAccessException(e.getMessage());
+        }
     }
 
     public static Field[] getClassFields(Class<?> clazz) {
@@ -291,78 +559,47 @@ public final class ReflectionUtils {
                 .filter(field -> type.isAssignableFrom(field.getType()))
                 .toArray(Field[]::new);
         for(Field field : fields) {
-            result.add(getFieldValue(field.getName(),object));
+            result.add(getFieldValueInternal(field.getName(),object));
         }
         return result;
     }
 
+    // the getter and setter sets below come from a per class property table, they are computed once and immutable
+
     public static Set<String> getGetters(Class<?> clazz) throws IntrospectionException {
-        return Arrays.stream(Introspector.getBeanInfo(clazz).getPropertyDescriptors())
-                .filter(propertyDescriptor -> propertyDescriptor.getReadMethod() != null)
-                .map(propertyDescriptor -> propertyDescriptor.getReadMethod().getName())
-                .collect(Collectors.toSet());
+        return getPropertyTable(clazz).getGetterNames();
     }
 
     public static Set<Method> getGetterMethods(Class<?> clazz) throws IntrospectionException {
-        return Arrays.stream(Introspector.getBeanInfo(clazz).getPropertyDescriptors())
-                .filter(propertyDescriptor -> propertyDescriptor.getReadMethod() != null)
-                .map(PropertyDescriptor::getReadMethod)
-                .collect(Collectors.toSet());
+        return getPropertyTable(clazz).getGetterMethods();
     }
 
     public static Set<String> getGettersForBaseValueTypes(Class<?> clazz, boolean includeEnums, boolean includeLists) throws IntrospectionException {
-        return getGetters(clazz, BASE_VALUE_TYPES, true, includeEnums, includeLists);
+        return getPropertyTable(clazz).getBaseValueTypeNames(false, includeEnums, includeLists);
     }
 
     public static Set<String> getGetters(Class<?> clazz, List<Class<?>> onlyForTheseValueTypes, boolean includePrimitives, boolean includeEnums, boolean includeLists) throws IntrospectionException {
-        List<Class<?>> finalOnlyForTheseValueTypes = (onlyForTheseValueTypes == null) ? new ArrayList<>() : new ArrayList<>(onlyForTheseValueTypes);
-        return Arrays.stream(Introspector.getBeanInfo(clazz).getPropertyDescriptors())
-                .filter(
-                    propertyDescriptor -> propertyDescriptor.getReadMethod() != null &&
-                    (
-                        finalOnlyForTheseValueTypes.contains(propertyDescriptor.getPropertyType()) ||
-                        (includePrimitives && propertyDescriptor.getPropertyType().isPrimitive()) ||
-                        (includeLists && Collection.class.isAssignableFrom(propertyDescriptor.getPropertyType())) ||
-                        (includeEnums && propertyDescriptor.getPropertyType().isEnum())
-                    )
-                )
-                .map(propertyDescriptor -> propertyDescriptor.getReadMethod().getName())
-                .collect(Collectors.toSet());
+        return getPropertyTable(clazz).getNames(false, onlyForTheseValueTypes, includePrimitives, includeEnums, includeLists);
     }
 
     public static Set<String> getSettersForBaseValueTypes(Class<?> clazz, boolean includeEnums, boolean includeLists) throws IntrospectionException {
-        return getSetters(clazz, BASE_VALUE_TYPES, true, includeEnums, includeLists);
+        return getPropertyTable(clazz).getBaseValueTypeNames(true, includeEnums, includeLists);
     }
 
     public static Set<String> getSetters(Class<?> clazz) throws IntrospectionException {
-        return Arrays.stream(Introspector.getBeanInfo(clazz).getPropertyDescriptors())
-                .filter(propertyDescriptor -> propertyDescriptor .getWriteMethod() != null)
-                .map(propertyDescriptor -> propertyDescriptor.getWriteMethod().getName())
-                .collect(Collectors.toSet());
+        return getPropertyTable(clazz).getSetterNames();
     }
 
     public static Set<String> getSetters(Class<?> clazz, List<Class<?>> onlyForTheseValueTypes) throws IntrospectionException {
-        List<Class<?>> finalOnlyForTheseValueTypes = (onlyForTheseValueTypes == null) ? new ArrayList<>() : onlyForTheseValueTypes;;
-        return Arrays.stream(Introspector.getBeanInfo(clazz).getPropertyDescriptors())
-                .filter(propertyDescriptor -> propertyDescriptor.getWriteMethod() != null && finalOnlyForTheseValueTypes.contains(propertyDescriptor.getPropertyType()))
-                .map(propertyDescriptor -> propertyDescriptor.getWriteMethod().getName())
-                .collect(Collectors.toSet());
+        return getPropertyTable(clazz).getNames(true, onlyForTheseValueTypes, false, false, false);
     }
 
     public static Set<String> getSetters(Class<?> clazz, List<Class<?>> onlyForTheseValueTypes, boolean includePrimitives, boolean includeEnums, boolean includeLists) throws IntrospectionException {
-        List<Class<?>> finalOnlyForTheseValueTypes = (onlyForTheseValueTypes == null) ? new ArrayList<>() : onlyForTheseValueTypes;
-        return Arrays.stream(Introspector.getBeanInfo(clazz).getPropertyDescriptors())
-                .filter(
-                    propertyDescriptor -> propertyDescriptor.getWriteMethod() != null &&
-                    (
-                        finalOnlyForTheseValueTypes.contains(propertyDescriptor.getPropertyType()) ||
-                        (includePrimitives && propertyDescriptor.getPropertyType().isPrimitive()) ||
-                        (includeLists && Collection.class.isAssignableFrom(propertyDescriptor.getPropertyType())) ||
-                        (includeEnums && propertyDescriptor.getPropertyType().isEnum())
-                    )
-                )
-                .map(propertyDescriptor -> propertyDescriptor.getWriteMethod().getName())
-                .collect(Collectors.toSet());
+        return getPropertyTable(clazz).getNames(true, onlyForTheseValueTypes, includePrimitives, includeEnums, includeLists);
+    }
+
+    private static ReflectionPropertyTable getPropertyTable(Class<?> clazz) throws IntrospectionException {
+        return ReflectionClassMetadata.forClass(clazz).getPropertyTable();
     }
 
     /**
@@ -375,17 +612,39 @@ public final class ReflectionUtils {
      */
     public static List<Class<?>> getClasses(String packageName)
             throws ClassNotFoundException, IOException {
+        return ReflectionMetrics.<List<Class<?>>, ClassNotFoundException, IOException, RuntimeException>measure(ReflectionOperation.GET_CLASSES, null, () -> getClassesInternal(packageName));
+    }
+
+    private static List<Class<?>> getClassesInternal(String packageName) throws ClassNotFoundException, IOException {
 
         ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
         assert classLoader != null;
+        Object classScanEvent = ReflectionFlightRecorder.beginClassScan();
+        // a build time index lists the classes of the root it ships in, only the roots without one are scanned, a
+        // package split over several jars or directories may be indexed in some of them only
+        Map<String, List<String>> indexedClassNames = ReflectionClassIndex.findIndexedClassNames(classLoader, packageName);
+        List<Class<?>> classes = new ArrayList<>();
+        for(List<String> classNames : indexedClassNames.values()) {
+            for(String className : classNames) {
+                Class<?> classToAdd = getClassByName(className);
+                classes.add(classToAdd == null ? Class.forName(className, false, classLoader) : classToAdd);
+            }
+        }
         String path = packageName.replace('.', '/');
         Enumeration<URL> resources = classLoader.getResources(path);
         List<File> dirs = new ArrayList<File>();
         while (resources.hasMoreElements()) {
             URL resource = resources.nextElement();
-            dirs.add(new File(resource.getFile()));
+            if(!indexedClassNames.containsKey(ReflectionClassIndex.getRoot(resource, path))) {
+                dirs.add(new File(resource.getFile()));
+            }
         }
-        List<Class<?>> classes = new ArrayList<>();
+        // an index of some unrelated root lists nothing here, the running jar fallback below still applies then
+        if(dirs.isEmpty() && !classes.isEmpty()) {
+            ReflectionFlightRecorder.commitClassScan(classScanEvent, packageName, classes.size(), true);
+            return classes;
+        }
+        ReflectionMetrics.recordFallback(ReflectionFallback.CLASSPATH_SCAN, null);
         for (File directory : dirs) {
             List<Class<?>> innerClasses = findClasses(directory, packageName);
             for (Class<?> clazz : innerClasses) {
@@ -398,31 +657,32 @@ public final class ReflectionUtils {
         if(classes.size() <= 0) {
             classes = findAllClassesUsingRunningJarFile(packageName);
         }
-
+        ReflectionFlightRecorder.commitClassScan(classScanEvent, packageName, classes.size(), false);
         return classes;
     }
 
+    /**
+     * Classes in packageName (and its sub packages) inside the jar the application runs from, all classes of the jar
+     * when packageName is null or empty. Classes are loaded but not initialized.
+     */
     public static List<Class<?>> findAllClassesUsingRunningJarFile(String packageName) {
         List<Class<?>> result = new ArrayList<>();
 
-        Set<String> classNames = new HashSet<>();
-        JarFile jarFile = getCurrentRunningJarFile(null);
-        if(jarFile != null) {
-            Enumeration<JarEntry> e = jarFile.entries();
-            while (e.hasMoreElements()) {
-                JarEntry jarEntry = e.nextElement();
-                if (jarEntry.getName().endsWith(".class")) {
-                    String className = jarEntry.getName()
-                            .replace("/", ".")
-                            .replace(".class", "");
-                        classNames.add(className);
-                }
-            }
+        List<String> classNames = new ArrayList<>();
+        File runningJar = getCurrentRunningJar();
+        if(runningJar != null) {
+            try {
+                classNames = ReflectionClassIndex.getJarClassNames(runningJar);
+            } catch (IOException ignored) {}
 
+            String classNamePrefix = packageName == null || packageName.isEmpty() ? "" : packageName + ".";
             for (String className : classNames) {
+                if(!className.startsWith(classNamePrefix)) {
+                    continue;
+                }
                 try {
                     Class<?> classToAdd = getClassByName(className);
-                    classToAdd = classToAdd == null ? Class.forName(className) : classToAdd;
+                    classToAdd = classToAdd == null ? Class.forName(className, false, getContextClassLoader()) : classToAdd;
                     result.add(classToAdd);
                 } catch (Exception | LinkageError ignored) {
                 }
@@ -431,6 +691,76 @@ public final class ReflectionUtils {
         return result;
     }
 
+    /**
+     * Lazily lists the names of the classes in packageName (and its sub packages) found in the directories and jars
+     * of the context class loader and the running jar, nothing is loaded. Close the stream when not consumed fully.
+     * @param parallel scan the classpath roots in parallel
+     */
+    public static Stream<String> streamClassNames(String packageName, boolean parallel) throws IOException {
+        return ReflectionClassScanner.streamClassNames(getContextClassLoader(), packageName, getCurrentRunningJar(), parallel);
+    }
+
+    /**
+     * Like {@link #streamClassNames(String, boolean)}, loading (but not initializing) each class once it is consumed.
+     * Classes that fail to load are left out.
+     */
+    public static Stream<Class<?>> streamClasses(String packageName, boolean parallel) throws IOException {
+        return ReflectionClassScanner.streamClasses(getContextClassLoader(), packageName, getCurrentRunningJar(), parallel);
+    }
+
+    /**
+     * Classes in packageName (and its sub packages) annotated with annotationType, decided on the class file bytes so
+     * only the matching classes are loaded (and none initialized).
+     */
+    public static List<Class<?>> findClassesAnnotatedWith(String packageName, Class<? extends Annotation> annotationType) throws IOException {
+        return ReflectionMetrics.measure(ReflectionOperation.CLASS_QUERY, null, () -> findClassesAnnotatedWithInternal(packageName, annotationType));
+    }
+
+    private static List<Class<?>> findClassesAnnotatedWithInternal(String packageName, Class<? extends Annotation> annotationType) throws IOException {
+        return ReflectionClassScanner.findClassesAnnotatedWith(getContextClassLoader(), packageName, getCurrentRunningJar(), annotationType);
+    }
+
+    /**
+     * Classes in packageName (and its sub packages) that extend or implement type, directly or indirectly, decided on
+     * the class file bytes so only the matching classes are loaded (and none initialized).
+     */
+    public static <T> List<Class<? extends T>> findSubTypesOf(String packageName, Class<T> type) throws IOException {
+        return ReflectionMetrics.measure(ReflectionOperation.CLASS_QUERY, null, () -> findSubTypesOfInternal(packageName, type));
+    }
+
+    private static <T> List<Class<? extends T>> findSubTypesOfInternal(String packageName, Class<T> type) throws IOException {
+        List<Class<? extends T>> result = new ArrayList<>();
+        for(Class<?> subType : ReflectionClassScanner.findSubTypesOf(getContextClassLoader(), packageName, getCurrentRunningJar(), type)) {
+            // a same named type from another class loader is no sub type of this one
+            if(type.isAssignableFrom(subType)) {
+                result.add(subType.asSubclass(type));
+            }
+        }
+        return result;
+    }
+
+    private static File getCurrentRunningJar() {
+        ClassLoader classLoader = getContextClassLoader();
+        synchronized (runningJars) {
+            Optional<File> runningJar = runningJars.get(classLoader);
+            if(runningJar != null) {
+                return runningJar.orElse(null);
+            }
+        }
+        File resolvedRunningJar = null;
+        JarFile jarFile = getCurrentRunningJarFile(null);
+        if(jarFile != null) {
+            resolvedRunningJar = new File(jarFile.getName());
+            try {
+                jarFile.close();
+            } catch (IOException ignored) {}
+        }
+        synchronized (runningJars) {
+            runningJars.put(classLoader, Optional.ofNullable(resolvedRunningJar));
+        }
+        return resolvedRunningJar;
+    }
+
     private static JarFile getCurrentRunningJarFile(String jarFileName) {
         JarFile jarFile = null;
 
@@ -467,7 +797,8 @@ public final class ReflectionUtils {
         String callerClassName = null;
         for (int i=1; i<stElements.length; i++) {
             StackTraceElement ste = stElements[i];
-            if (!ste.getClassName().equals(ReflectionUtils.class.getName())&& ste.getClassName().indexOf("java.lang.Thread")!=0) {
+            // frames of the metrics wrapper around the public methods belong to this class as well
+            if (!ste.getClassName().equals(ReflectionUtils.class.getName()) && !ste.getClassName().equals(ReflectionMetrics.class.getName()) && ste.getClassName().indexOf("java.lang.Thread")!=0) {
                 if (callerClassName==null) {
                     callerClassName = ste.getClassName();
                 } else if (!callerClassName.equals(ste.getClassName())) {
@@ -526,13 +857,21 @@ public final class ReflectionUtils {
                     assert !file.getName().contains(".");
                     classes.addAll(findClasses(file, packageName + "." + file.getName()));
                 } else if (file.getName().endsWith(".class")) {
-                    classes.add(Class.forName(packageName + '.' + file.getName().substring(0, file.getName().length() - 6)));
+                    classes.add(Class.forName(packageName + '.' + file.getName().substring(0, file.getName().length() - 6), false, getContextClassLoader()));
                 }
             }
         }
         return classes;
     }
 
+    /**
+     * Writes an index of every class in classpathRoot (a directory of class files or a jar) to indexFile. Written to
+     * META-INF/reflectionutils/class-index of the artifact at build time, getClasses uses it instead of scanning.
+     */
+    public static void writeClassIndex(Path classpathRoot, Path indexFile) throws IOException {
+        ReflectionClassIndex.write(classpathRoot, indexFile);
+    }
+
     public static List<Object> getAllConstantValuesInClass(Class<?> clazz) throws IOException, ClassNotFoundException, NoSuchFieldException, IllegalAccessException {
         List<Object> result = new ArrayList<>();
 
@@ -589,8 +928,20 @@ public final class ReflectionUtils {
         return callReflectionMethod(object, methodName, null, null);
     }
 
-    // I WOULD SAY WITH THE LATER VERSIONS OF JAVA, JAVA Reflection logic should run fast enough (if kept simple)
+    // measured against a direct call in MethodCallBenchmark.multiParamByName of the benchmarks module
     public static Object callReflectionMethod(Object object, String methodName, Object[] methodParams, Class<?>[] methodParamTypes) throws InvocationTargetException, NoSuchMethodException, IllegalAccessException {
+        long startTime = ReflectionMetrics.startOperation();
+        boolean failed = true;
+        try {
+            Object result = callReflectionMethodInternal(object, methodName, methodParams, methodParamTypes);
+            failed = false;
+            return result;
+        } finally {
+            ReflectionMetrics.recordOperation(ReflectionOperation.CALL_METHOD, object, startTime, failed);
+        }
+    }
+
+    private static Object callReflectionMethodInternal(Object object, String methodName, Object[] methodParams, Class<?>[] methodParamTypes) throws InvocationTargetException, NoSuchMethodException, IllegalAccessException {
         Object methodResult;
         boolean setParams = methodParams != null && methodParams.length != 0;
         Method method = setParams ? object.getClass().getMethod(methodName, methodParamTypes) : object.getClass().getMethod(methodName);
@@ -618,13 +969,20 @@ public final class ReflectionUtils {
     }
 
     public static Object callReflectionMethodQuick(Object object, String methodName, Object methodParam, Class<?> methodParamType) throws InvocationTargetException, NoSuchMethodException, IllegalAccessException {
-        boolean setParams = methodParam != null && methodParamType != null;
-        String methodCacheKey = String.format(CALL_METHOD_QUICK_CACHE_KEY_LOOKUP_UNFORMATTED,object.getClass(),methodName,methodParamType);
-        Method method = methodsCached.get(methodCacheKey);
-        if(method == null) {
-            method = setParams ? object.getClass().getMethod(methodName, methodParamType) : object.getClass().getMethod(methodName);
-            methodsCached.put(methodCacheKey,method);
+        long startTime = ReflectionMetrics.startOperation();
+        boolean failed = true;
+        try {
+            Object result = callReflectionMethodQuickInternal(object, methodName, methodParam, methodParamType);
+            failed = false;
+            return result;
+        } finally {
+            ReflectionMetrics.recordOperation(ReflectionOperation.CALL_METHOD, object, startTime, failed);
         }
+    }
+
+    private static Object callReflectionMethodQuickInternal(Object object, String methodName, Object methodParam, Class<?> methodParamType) throws InvocationTargetException, NoSuchMethodException, IllegalAccessException {
+        boolean setParams = methodParam != null && methodParamType != null;
+        Method method = getMethodQuick(object.getClass(), methodName, setParams ? methodParamType : null);
         return (setParams) ? method.invoke(object, methodParam) : method.invoke(object);
     }
 
@@ -635,33 +993,62 @@ public final class ReflectionUtils {
     public static Object callReflectionMethodQuickIgnoreException(Object object, String methodName, Object methodParam, Class<?> methodParamType) {
         Object result = null;
         boolean setParams = methodParam != null && methodParamType != null;
-        String methodCacheKey;
-        Method method;
         try {
-            methodCacheKey = String.format(CALL_METHOD_QUICK_CACHE_KEY_LOOKUP_UNFORMATTED,object.getClass(),methodName,methodParamType);
-            method = methodsCached.get(methodCacheKey);
-            if (method == null) {
-                method = setParams ? object.getClass().getMethod(methodName, methodParamType) : object.getClass().getMethod(methodName);
-                methodsCached.put(methodCacheKey, method);
-            }
+            Method method = getMethodQuick(object.getClass(), methodName, setParams ? methodParamType : null);
             result = (setParams) ? method.invoke(object, methodParam) : method.invoke(object);
         } catch (InvocationTargetException | NoSuchMethodException | IllegalAccessException ignored) {}
         return result;
     }
 
     public static Object callReflectionMethodQuick(Object object, String methodName, Object[] methodParam, Class<?>[] methodParamType) throws InvocationTargetException, NoSuchMethodException, IllegalAccessException {
-        boolean setParams = methodParam != null && methodParam.length > 0;
+        long startTime = ReflectionMetrics.startOperation();
+        boolean failed = true;
+        try {
+            Object result = callReflectionMethodQuickInternal(object, methodName, methodParam, methodParamType);
+            failed = false;
+            return result;
+        } finally {
+            ReflectionMetrics.recordOperation(ReflectionOperation.CALL_METHOD, object, startTime, failed);
+        }
+    }
 
-        String methodCacheKey = setParams ?
-                object.getClass()+"_"+methodName+"_"+methodParamType[0]+"_"+methodParamType.length :
-                object.getClass()+"_"+methodName;
+    private static Object callReflectionMethodQuickInternal(Object object, String methodName, Object[] methodParam, Class<?>[] methodParamType) throws InvocationTargetException, NoSuchMethodException, IllegalAccessException {
+        boolean setParams = methodParam != null && methodParam.length > 0;
+        Method method;
+        if(setParams) {
+            ReflectionClassMetadata classMetadata = ReflectionClassMetadata.forClass(object.getClass());
+            method = classMetadata.getMethod(methodName, methodParamType);
+            if(method == null) {
+                method = object.getClass().getMethod(methodName, methodParamType);
+                classMetadata.putMethod(methodName, methodParamType, method);
+            }
+        } else {
+            method = getMethodQuick(object.getClass(), methodName, null);
+        }
+        return (setParams) ? method.invoke(object, methodParam) : method.invoke(object);
+    }
 
-        Method method = methodsCached.get(methodCacheKey);
+    private static Method getMethodQuick(Class<?> clazz, String methodName, Class<?> methodParamType) throws NoSuchMethodException {
+        ReflectionClassMetadata classMetadata = ReflectionClassMetadata.forClass(clazz);
+        Method method = (methodParamType != null) ? classMetadata.getMethod(methodName, methodParamType) : classMetadata.getMethod(methodName);
         if(method == null) {
-            method = setParams ? object.getClass().getMethod(methodName, methodParamType) : object.getClass().getMethod(methodName);
-            methodsCached.put(methodCacheKey,method);
+            if(methodParamType != null) {
+                method = clazz.getMethod(methodName, methodParamType);
+                classMetadata.putMethod(methodName, methodParamType, method);
+            } else {
+                if(classMetadata.isMissingMethod(methodName)) {
+                    throw new NoSuchMethodException(clazz.getName() + "." + methodName + "()");
+                }
+                try {
+                    method = clazz.getMethod(methodName);
+                } catch (NoSuchMethodException e) {
+                    classMetadata.putMissingMethod(methodName);
+                    throw e;
+                }
+                classMetadata.putMethod(methodName, method);
+            }
         }
-        return (setParams) ? method.invoke(object, methodParam) : method.invoke(object);
+        return method;
     }
 
     public static Object callReflectionMethod(Object object, Method method) throws InvocationTargetException, IllegalAccessException {
@@ -669,6 +1056,18 @@ public final class ReflectionUtils {
     }
 
     public static Object callReflectionMethod(Object object, Method method, Object... methodParams) throws InvocationTargetException, IllegalAccessException {
+        long startTime = ReflectionMetrics.startOperation();
+        boolean failed = true;
+        try {
+            Object result = callReflectionMethodInternal(object, method, methodParams);
+            failed = false;
+            return result;
+        } finally {
+            ReflectionMetrics.recordOperation(ReflectionOperation.CALL_METHOD, object, startTime, failed);
+        }
+    }
+
+    private static Object callReflectionMethodInternal(Object object, Method method, Object... methodParams) throws InvocationTargetException, IllegalAccessException {
         Object methodResult;
         boolean setParams = method.getParameterTypes().length > 0 && methodParams != null;
         boolean hadToSetMethodToAccessible = false;
@@ -748,23 +1147,100 @@ public final class ReflectionUtils {
     }
 
     public static <T> T cleanObject(T objectToClean) throws NoSuchFieldException, IllegalAccessException {
+        long startTime = ReflectionMetrics.startOperation();
+        boolean failed = true;
+        try {
+            T result = cleanObjectInternal(objectToClean);
+            failed = false;
+            return result;
+        } finally {
+            ReflectionMetrics.recordOperation(ReflectionOperation.CLEAN_OBJECT, objectToClean, startTime, failed);
+        }
+    }
+
+    /**
+     * cleanObject for every element of objectsToClean, for object pools that recycle many instances at once. The
+     * reset plan is looked up once per run of elements of the same class, null elements are skipped.
+     * @return the given array
+     */
+    public static <T> T[] cleanObjects(T[] objectsToClean) throws NoSuchFieldException, IllegalAccessException {
+        return ReflectionMetrics.measure(ReflectionOperation.CLEAN_OBJECT, null, () -> cleanObjectsInternal(objectsToClean));
+    }
+
+    private static <T> T cleanObjectInternal(T objectToClean) throws NoSuchFieldException, IllegalAccessException {
         if(objectToClean != null) {
-            List<Field> fields = List.of(getClassFields(objectToClean.getClass()));
-            for(Field field : fields) {
-                if(field.getType().isPrimitive()) {
-                    if (isNumericField(field)) {
-                        setFieldValue(objectToClean, field.getName(), 0);
-                    } else if (field.getType().equals(boolean.class)) {
-                        setFieldValue(objectToClean, field.getName(), false);
-                    } else if (field.getType().equals(char.class)) {
-                        setFieldValue(objectToClean, field.getName(), '\u0000');
-                    }
-                } else {
-                    setFieldToNull(objectToClean, field.getName());
+            // zero of the fields own type (0L, 0.0d, false, '\u0000', ...) or null, static fields are left alone
+            ReflectionClassMetadata.forClass(objectToClean.getClass()).getResetPlan().reset(objectToClean);
+        }
+        return objectToClean;
+    }
+
+    private static <T> T[] cleanObjectsInternal(T[] objectsToClean) throws IllegalAccessException {
+        if(objectsToClean != null) {
+            ReflectionResetPlan resetPlan = null;
+            for(T objectToClean : objectsToClean) {
+                if(objectToClean == null) {
+                    continue;
+                }
+                if(resetPlan == null || resetPlan.getPlanClass() != objectToClean.getClass()) {
+                    resetPlan = ReflectionClassMetadata.forClass(objectToClean.getClass()).getResetPlan();
                 }
+                resetPlan.reset(objectToClean);
             }
         }
-        return objectToClean;
+        return objectsToClean;
+    }
+
+    public static <T> T deepClone(T object) throws IllegalAccessException {
+        return deepClone(object, ReflectionCloneMode.DEEP, ReflectionCloneMode.DEEP);
+    }
+
+    /**
+     * Clones object and everything it references through instance fields, every object once so shared references and
+     * cycles are kept. Classes are cloned through a field copy plan compiled once per class and need a no argument
+     * constructor, immutable values, enums, records and JDK classes other than collections, maps, arrays and dates are
+     * shared with the original.
+     * @param collectionMode how collections and maps are cloned
+     * @param arrayMode how arrays are cloned
+     */
+    public static <T> T deepClone(T object, ReflectionCloneMode collectionMode, ReflectionCloneMode arrayMode) throws IllegalAccessException {
+        return ReflectionMetrics.measure(ReflectionOperation.DEEP_CLONE, object, () -> ReflectionDeepCloner.deepClone(object, collectionMode, arrayMode));
+    }
+
+    public static ReflectionDiff diffObjects(Object objectFrom, Object objectTo) throws IllegalAccessException {
+        return diffObjects(objectFrom, objectTo, false);
+    }
+
+    /**
+     * Compares the instance fields of two objects of the same class through a plan compiled once per class, nested
+     * objects of the same class field by field, see {@link ReflectionDiff}. With applyChanges set every changed value
+     * is also written into objectTo (nested ones into the nested object of objectTo), as is, so a merge that would not
+     * change anything can be skipped and one that would only touches the changed fields. JDK classes, enums, arrays,
+     * records and classes without instance fields are values rather than field sets and are rejected with an
+     * IllegalArgumentException, compare those with Objects.deepEquals.
+     */
+    public static ReflectionDiff diffObjects(Object objectFrom, Object objectTo, boolean applyChanges) throws IllegalAccessException {
+        return ReflectionMetrics.measure(ReflectionOperation.DIFF, objectTo, () -> ReflectionDiffPlan.diff(objectFrom, objectTo, applyChanges));
+    }
+
+    // equals, hashCode and toString from the instance fields of an object, for classes that do not implement them (or
+    // not the way they are needed), compiled once per class. transient fields are left out, objects of different
+    // classes are never equal and nested values use their own equals/hashCode/toString. jdk classes, enums, arrays and
+    // classes without instance fields are compared as values (Objects.deepEquals and friends) instead
+
+    public static boolean reflectionEquals(Object object, Object otherObject) throws IllegalAccessException {
+        if(object == otherObject) {
+            return true;
+        }
+        return object != null && ReflectionClassMetadata.forClass(object.getClass()).getObjectMethods().equals(object, otherObject);
+    }
+
+    public static int reflectionHashCode(Object object) throws IllegalAccessException {
+        return object != null ? ReflectionClassMetadata.forClass(object.getClass()).getObjectMethods().hashCode(object) : 0;
+    }
+
+    public static String reflectionToString(Object object) throws IllegalAccessException {
+        return object != null ? ReflectionClassMetadata.forClass(object.getClass()).getObjectMethods().toString(object) : "null";
     }
 
     public static boolean isNumericField(Field field) {
@@ -800,9 +1276,12 @@ public final class ReflectionUtils {
     }
 
     public static <T> T mergeNonBaseObjectIntoSimilarNonBaseObject(Object objectFrom, T objectTo, boolean copyOverEmptyValues) throws Exception {
+        return ReflectionMetrics.measure(ReflectionOperation.MERGE_SIMILAR, objectTo, () -> mergeNonBaseObjectIntoSimilarNonBaseObjectInternal(objectFrom, objectTo, copyOverEmptyValues));
+    }
+
+    private static <T> T mergeNonBaseObjectIntoSimilarNonBaseObjectInternal(Object objectFrom, T objectTo, boolean copyOverEmptyValues) throws Exception {
         if(objectTo.getClass().isAssignableFrom(objectFrom.getClass())) {
-            RecursiveBeanUtils recursiveBeanUtils = new RecursiveBeanUtils();
-            recursiveBeanUtils.copyProperties(objectTo, objectFrom, copyOverEmptyValues);
+            ReflectionClassMetadata.forClass(objectTo.getClass()).getBeanCopier().merge(objectFrom, objectTo, copyOverEmptyValues);
         } else {
             throw new Exception("objectTo cannot be assigned to objectFrom");
         }
@@ -814,18 +1293,60 @@ public final class ReflectionUtils {
     }
 
     public static <T> T mergeNonBaseObjectIntoNonBaseObject(Object objectFrom, T objectTo, boolean copyOverEmptyValues) throws Exception {
+        return ReflectionMetrics.measure(ReflectionOperation.MERGE, objectTo, () -> mergeNonBaseObjectIntoNonBaseObjectInternal(objectFrom, objectTo, copyOverEmptyValues));
+    }
+
+    private static <T> T mergeNonBaseObjectIntoNonBaseObjectInternal(Object objectFrom, T objectTo, boolean copyOverEmptyValues) throws Exception {
         RecursiveBeanUtils recursiveBeanUtils = new RecursiveBeanUtils();
         recursiveBeanUtils.copyProperties(objectTo, objectFrom, copyOverEmptyValues);
         return objectTo;
     }
 
+    /**
+     * Merges every objectFrom (key) into its objectTo (value) like {@link #mergeNonBaseObjectIntoNonBaseObject(Object, Object, boolean)},
+     * spread over the common ForkJoinPool. A failing pair does not abort the batch, it is reported in the result instead.
+     */
+    public static ReflectionBulkMergeResult mergeNonBaseObjectsIntoNonBaseObjects(List<? extends Map.Entry<?, ?>> objectPairs, boolean copyOverEmptyValues) {
+        return mergeNonBaseObjectsIntoNonBaseObjects(objectPairs, copyOverEmptyValues, ForkJoinPool.commonPool());
+    }
+
+    public static ReflectionBulkMergeResult mergeNonBaseObjectsIntoNonBaseObjects(List<? extends Map.Entry<?, ?>> objectPairs, boolean copyOverEmptyValues, Executor executor) {
+        return ReflectionMetrics.measure(ReflectionOperation.BULK_MERGE, null, () -> mergeNonBaseObjectsIntoNonBaseObjectsInternal(objectPairs, copyOverEmptyValues, executor));
+    }
+
+    private static ReflectionBulkMergeResult mergeNonBaseObjectsIntoNonBaseObjectsInternal(List<? extends Map.Entry<?, ?>> objectPairs, boolean copyOverEmptyValues, Executor executor) {
+        return ReflectionBulkMerger.merge(objectPairs, copyOverEmptyValues, executor);
+    }
+
+    public static ReflectionBulkMergeResult mergeNonBaseObjectsIntoNonBaseObjects(Stream<? extends Map.Entry<?, ?>> objectPairs, boolean copyOverEmptyValues) {
+        return mergeNonBaseObjectsIntoNonBaseObjects(objectPairs.collect(Collectors.toList()), copyOverEmptyValues);
+    }
+
+    public static ReflectionBulkMergeResult mergeNonBaseObjectsIntoNonBaseObjects(Stream<? extends Map.Entry<?, ?>> objectPairs, boolean copyOverEmptyValues, Executor executor) {
+        return mergeNonBaseObjectsIntoNonBaseObjects(objectPairs.collect(Collectors.toList()), copyOverEmptyValues, executor);
+    }
+
     protected static class RecursiveBeanUtils extends BeanUtilsBean {
-        // to keep from any chance infinite recursion lets limit each object to 1 instance at a time in the stack
-        public List<Object> lookingAt = new ArrayList<>();
-        private CustomPropertyUtilsBean propertyUtilsBean = new CustomPropertyUtilsBean();
+        // to keep from any chance infinite recursion each destination object is only merged into once per merge,
+        // nested objects wait on an explicit stack instead of recursing so deep object graphs cannot overflow the stack
+        private final Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final Deque<Object[]> pendingMerges = new ArrayDeque<>();
+        private boolean merging;
+        private final CustomPropertyUtilsBean propertyUtilsBean;
 
         private boolean copyOverEmptyValues;
 
+        public RecursiveBeanUtils() {
+            this(new CustomPropertyUtilsBean());
+        }
+
+        /**
+         * @param propertyUtilsBean can be shared between instances (and threads), it only caches property descriptors
+         */
+        public RecursiveBeanUtils(CustomPropertyUtilsBean propertyUtilsBean) {
+            this.propertyUtilsBean = propertyUtilsBean;
+        }
+
         /**
          * Override to ensure that we dont end up in infinite recursion
          * @param dest
@@ -839,16 +1360,28 @@ public final class ReflectionUtils {
         }
 
         public void copyProperties(Object dest, Object orig, boolean copyOverEmptyValues) throws IllegalAccessException, InvocationTargetException {
+            if(merging) {
+                // nested object found while merging, the running merge picks it up
+                pendingMerges.push(new Object[]{dest, orig});
+                return;
+            }
+            Object mergeEvent = ReflectionFlightRecorder.beginMerge();
             try {
+                merging = true;
                 this.copyOverEmptyValues = copyOverEmptyValues;
-                // if we have an object in our list, that means we hit some sort of recursion, stop here.
-                if(lookingAt.stream().anyMatch(o->o == dest)) {
-                    return; // recursion detected
+                pendingMerges.push(new Object[]{dest, orig});
+                while(!pendingMerges.isEmpty()) {
+                    Object[] pendingMerge = pendingMerges.pop();
+                    // if we merged into this object before, that means we hit some sort of recursion, skip it.
+                    if(visited.add(pendingMerge[0])) {
+                        super.copyProperties(pendingMerge[0], pendingMerge[1]);
+                    }
                 }
-                lookingAt.add(dest);
-                super.copyProperties(dest, orig);
+                ReflectionFlightRecorder.commitMerge(mergeEvent, orig != null ? orig.getClass() : null, dest != null ? dest.getClass() : null, visited.size(), "bean utils");
             } finally {
-                lookingAt.remove(dest);
+                merging = false;
+                pendingMerges.clear();
+                visited.clear();
             }
         }
 
@@ -879,7 +1412,7 @@ public final class ReflectionUtils {
                     }
                 } else if(isEnum) {
                     try {
-                        setFieldValue(dest, name, value);
+                        setFieldValueInternal(dest, name, value);
                     } catch (java.lang.NoSuchFieldException e) {
                         throw new InvocationTargetException(e);
                     }
@@ -888,15 +1421,16 @@ public final class ReflectionUtils {
                         Object prop = super.getPropertyUtils().getProperty(dest, name);
                         // get current value, if its null then clone the value and set that to the value
                         if (prop == null) {
-                            super.setProperty(dest, name, super.cloneBean(value));
+                            // same shallow copy as cloneBean, through the compiled copier of the value class
+                            super.setProperty(dest, name, ReflectionClassMetadata.forClass(value.getClass()).getBeanCopier().shallowClone(value));
                         } else {
-                            // get the destination value and then recursively call
-                            copyProperties(prop, value);
+                            // get the destination value and queue it up to be merged into
+                            copyProperties(prop, value, this.copyOverEmptyValues);
                         }
                     } catch (NoSuchMethodException e) {
                         return;
-                    } catch (InstantiationException e) {
-                        throw new RuntimeException("Nested property could not be cloned.", e);
+                    } catch (IntrospectionException e) {
+                        throw new InvocationTargetException(e);
                     }
                 } else {
                     super.copyProperty(dest, name, value);
@@ -1035,103 +1569,54 @@ public final class ReflectionUtils {
         }
     }
 
-    /*public static <T> T mergeNonBaseObjectIntoNonBaseObject(Object objectFrom, T objectTo) throws Exception {
-        List<ReflectionSimilarClassToClassMethod> reflectionSimilarClassToClassMethods = getAllSimilarClassToClassMethodToMethodWrappers(objectFrom, objectTo);
-        for(ReflectionSimilarClassToClassMethod reflectionSimilarClassToClassMethod : reflectionSimilarClassToClassMethods) {
-            Object getterValue = callReflectionMethod(objectFrom,reflectionSimilarClassToClassMethod.getMethodObjectFromGetter());
-            if(getterValue == null) {
-                continue;
-            }
-
-            Class<?> setterParamValueType = Collection.class.isAssignableFrom(getterValue.getClass()) ?
-                    findValueTypeForNonEmptyList((List<?>) getterValue) :
-                    getterValue.getClass();
-
-            setterParamValueType = setterParamValueType.isArray() ? findValueTypeForNonEmptyArray(new Object[]{getterValue}) : setterParamValueType;
-            if(setterParamValueType == null) {
-                continue;
-            }
-
-            if(
-                !setterParamValueType.isPrimitive() &&
-                !setterParamValueType.isEnum() &&
-                !BASE_VALUE_TYPES.contains(setterParamValueType) &&
-                !checkIfClassIsFromMainJavaPackages(setterParamValueType)
-            ) {
-                getterValue = mergeNonBaseObjectIntoNonBaseObject(getterValue, setterParamValueType.getDeclaredConstructor().newInstance());
-            }
-            callReflectionMethod(objectTo, reflectionSimilarClassToClassMethod.getMethodObjectToSetter(), getterValue);
-        }
-        return objectTo;
+    public static <T> T shallowMergeNonBaseObjectIntoNonBaseObject(Object objectFrom, T objectTo) throws Exception {
+        return ReflectionMetrics.measure(ReflectionOperation.SHALLOW_MERGE, objectTo, () -> shallowMergeNonBaseObjectIntoNonBaseObjectInternal(objectFrom, objectTo));
     }
 
-    public static <T> T shallowMergeNonBaseObjectIntoNonBaseObject(Object objectFrom, T objectTo) throws Exception {
+    private static <T> T shallowMergeNonBaseObjectIntoNonBaseObjectInternal(Object objectFrom, T objectTo) throws Exception {
         List<ReflectionSimilarClassToClassMethod> reflectionSimilarClassToClassMethods = getAllSimilarClassToClassMethodToMethodWrappers(objectFrom, objectTo);
         for(ReflectionSimilarClassToClassMethod reflectionSimilarClassToClassMethod : reflectionSimilarClassToClassMethods) {
-            Object getterValue = callReflectionMethod(objectFrom,reflectionSimilarClassToClassMethod.getMethodObjectFromGetter());
+            Object getterValue = callReflectionMethodInternal(objectFrom,reflectionSimilarClassToClassMethod.getMethodObjectFromGetter());
             if(getterValue == null) {
                 continue;
             }
-            callReflectionMethod(objectTo, reflectionSimilarClassToClassMethod.getMethodObjectToSetter(), getterValue);
+            callReflectionMethodInternal(objectTo, reflectionSimilarClassToClassMethod.getMethodObjectToSetter(), getterValue);
         }
         return objectTo;
     }
 
     public static <T> T shallowMergeNonBaseObjectIntoNonBaseObjectQuick(Object objectFrom, T objectTo) throws Exception {
+        return ReflectionMetrics.measure(ReflectionOperation.SHALLOW_MERGE, objectTo, () -> shallowMergeNonBaseObjectIntoNonBaseObjectQuickInternal(objectFrom, objectTo));
+    }
+
+    private static <T> T shallowMergeNonBaseObjectIntoNonBaseObjectQuickInternal(Object objectFrom, T objectTo) throws Exception {
         List<ReflectionSimilarClassToClassMethod> reflectionSimilarClassToClassMethods = getAllSimilarClassToClassMethodToMethodWrappers(objectFrom, objectTo);
-        for(ReflectionSimilarClassToClassMethod reflectionSimilarClassToClassMethod : reflectionSimilarClassToClassMethods) {
-            if(!reflectionSimilarClassToClassMethod.getMethodObjectToSetter().canAccess(objectTo) || !reflectionSimilarClassToClassMethod.getMethodObjectFromGetter().canAccess(objectFrom)) {
-                continue;
-            }
-            Object getterValue = callReflectionMethodQuick(objectFrom,reflectionSimilarClassToClassMethod.getMethodObjectFromGetter());
-            if(getterValue == null) {
-                continue;
+        try {
+            // the plan's method handles were resolved with access granted, so this is only a run over the plan
+            for(ReflectionSimilarClassToClassMethod reflectionSimilarClassToClassMethod : reflectionSimilarClassToClassMethods) {
+                Object getterValue = (Object) reflectionSimilarClassToClassMethod.getFromGetterHandle().invokeExact(objectFrom);
+                if(getterValue != null) {
+                    reflectionSimilarClassToClassMethod.getToSetterHandle().invokeExact(objectTo, getterValue);
+                }
             }
-            callReflectionMethod(objectTo, reflectionSimilarClassToClassMethod.getMethodObjectToSetter(), getterValue);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
         }
         return objectTo;
     }
 
-    public static <T> List<ReflectionSimilarClassToClassMethod> getAllSimilarClassToClassMethodToMethodWrappers(Object objectFrom, T objectTo) throws Exception {
-        String key = objectFrom.getClass().getName()+"_TO_"+objectTo.getClass().getName();
-        List<ReflectionSimilarClassToClassMethod> reflectionSimilarClassToClassMethods = similarClassToClassMethodGroupingByClassToClassNames.get(key);
-        if(reflectionSimilarClassToClassMethods == null) {
-            if(
-                (objectFrom.getClass().isPrimitive() || objectTo.getClass().isPrimitive()) ||
-                BASE_VALUE_TYPES.contains(objectFrom.getClass()) ||
-                BASE_VALUE_TYPES.contains(objectTo.getClass())
-            ) {
-                throw new Exception("objectFrom and/or objectTo invalid");
-            }
-            List<PropertyDescriptor> allObjectFromPropertyDescriptors = Arrays.stream(Introspector.getBeanInfo(objectFrom.getClass()).getPropertyDescriptors())
-                .filter(propertyDescriptor -> propertyDescriptor.getWriteMethod() != null && propertyDescriptor.getReadMethod() != null)
-                .collect(Collectors.toList());
-
-            List<PropertyDescriptor> allObjectToPropertyDescriptors = Arrays.stream(Introspector.getBeanInfo(objectTo.getClass()).getPropertyDescriptors())
-                .filter(propertyDescriptor -> propertyDescriptor.getWriteMethod() != null && propertyDescriptor.getReadMethod() != null)
-                .collect(Collectors.toList());
-
-            reflectionSimilarClassToClassMethods = allObjectFromPropertyDescriptors.stream()
-                .map(objectFromPropertyDescriptor -> {
-                    Method matchedMethodInObjectToSetter = allObjectToPropertyDescriptors.stream()
-                        .filter(objectToDescriptor ->
-                            objectToDescriptor.getWriteMethod().getName().equals(objectFromPropertyDescriptor.getWriteMethod().getName()) &&
-                            Arrays.equals(objectFromPropertyDescriptor.getWriteMethod().getParameterTypes(),objectToDescriptor.getWriteMethod().getParameterTypes())
-                        )
-                        .map(PropertyDescriptor::getWriteMethod)
-                        .findFirst().orElse(null);
-                    if (matchedMethodInObjectToSetter != null) {
-                        return new ReflectionSimilarClassToClassMethod(objectFromPropertyDescriptor.getReadMethod(),matchedMethodInObjectToSetter);
-                    } else {
-                        return null;
-                    }
-                })
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
-            similarClassToClassMethodGroupingByClassToClassNames.put(key,reflectionSimilarClassToClassMethods);
+    static <T> List<ReflectionSimilarClassToClassMethod> getAllSimilarClassToClassMethodToMethodWrappers(Object objectFrom, T objectTo) throws Exception {
+        if(
+            (objectFrom.getClass().isPrimitive() || objectTo.getClass().isPrimitive()) ||
+            BASE_VALUE_TYPES.contains(objectFrom.getClass()) ||
+            BASE_VALUE_TYPES.contains(objectTo.getClass())
+        ) {
+            throw new Exception("objectFrom and/or objectTo invalid");
         }
-        return reflectionSimilarClassToClassMethods;
-    }*/
+        return ReflectionClassMetadata.forClass(objectFrom.getClass()).getClassToClassMethods(objectTo.getClass());
+    }
 
     public static Class<?> findValueTypeForNonEmptyList(List<?> list) {
         if(list != null && !list.isEmpty() && !list.stream().allMatch(Objects::nonNull)) {
@@ -2,16 +2,55 @@ package org.greatgamesonly.shared.opensource.utils.reflectionutils;
 
 
 import com.sun.jdi.connect.Transport;
+import org.greatgamesonly.opensource.utils.reflectionutils.ReflectionBinaryCodec;
+import org.greatgamesonly.opensource.utils.reflectionutils.ReflectionBulkMergeResult;
+import org.greatgamesonly.opensource.utils.reflectionutils.ReflectionCacheStatistics;
+import org.greatgamesonly.opensource.utils.reflectionutils.ReflectionCloneMode;
+import org.greatgamesonly.opensource.utils.reflectionutils.ReflectionDiff;
+import org.greatgamesonly.opensource.utils.reflectionutils.ReflectionFallback;
+import org.greatgamesonly.opensource.utils.reflectionutils.ReflectionFieldPlan;
+import org.greatgamesonly.opensource.utils.reflectionutils.ReflectionMetricsRecorder;
+import org.greatgamesonly.opensource.utils.reflectionutils.ReflectionOperation;
 import org.greatgamesonly.opensource.utils.reflectionutils.ReflectionUtils;
 import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.beans.Introspector;
 import java.io.IOException;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class MainTest {
 
@@ -181,6 +220,1026 @@ public class MainTest {
         Assert.assertTrue("There should be no Integer field values", integerFieldValues.isEmpty());
     }
 
+    @Test()
+    public void testSetFieldViaDirectAccessLeavesFieldAccessibilityUntouched() throws NoSuchFieldException, IllegalAccessException {
+        System.out.println("TESTS - set a private field via direct access twice and make sure the given Field instance is never made accessible");
+
+        Field nameField = TestModelClass.class.getDeclaredField("name");
+        TestModelClass test1 = new TestModelClass();
+
+        ReflectionUtils.setFieldViaDirectAccess(test1, nameField, "direct1");
+        Assert.assertEquals("setFieldViaDirectAccess - field must be set to correct value - first try", "direct1", test1.getName());
+
+        ReflectionUtils.setFieldViaDirectAccess(test1, nameField, "direct2");
+        Assert.assertEquals("setFieldViaDirectAccess - field must be set to correct value - second try", "direct2", ReflectionUtils.getFieldValue("name", test1));
+        Assert.assertFalse("setFieldViaDirectAccess - given field must not be left accessible", nameField.canAccess(test1));
+    }
+
+    @Test()
+    public void testCallReflectionMethodQuickResolvesOverloadsSeparately() throws Exception {
+        System.out.println("TESTS - call two overloads with the same first parameter type and parameter count via callReflectionMethodQuick, twice to test caching");
+
+        TestModelClass test1 = new TestModelClass();
+        test1.setName("ab");
+
+        for(int i = 0; i < 2; i++) {
+            Assert.assertEquals("callReflectionMethodQuick - String overload must be called", "<ab>",
+                    ReflectionUtils.callReflectionMethodQuick(test1, "describe", new Object[]{"<", ">"}, new Class<?>[]{String.class, String.class}));
+            Assert.assertEquals("callReflectionMethodQuick - Integer overload must be called", "-abab",
+                    ReflectionUtils.callReflectionMethodQuick(test1, "describe", new Object[]{"-", 2}, new Class<?>[]{String.class, Integer.class}));
+            Assert.assertEquals("callReflectionMethodQuick - single parameter method must be called", null,
+                    ReflectionUtils.callReflectionMethodQuick(test1, "setDescription", "desc", String.class));
+            Assert.assertEquals("callReflectionMethodQuick - no parameter method must be called", "desc",
+                    ReflectionUtils.callReflectionMethodQuick(test1, "getDescription"));
+        }
+    }
+
+    @Test()
+    public void testCacheStaysWithinMaximumSizeAndReportsStatistics() throws Exception {
+        System.out.println("TESTS - fill the reflection cache past a small maximum size and check that it evicts and keeps count");
+
+        ReflectionCacheStatistics before = ReflectionUtils.getCacheStatistics();
+        try {
+            ReflectionUtils.setCacheMaximumSize(5);
+            Object[] instances = new Object[]{"a", 1, 2L, 3.0d, 4.0f, (short) 5, (byte) 6, 'c', true, new ArrayList<>(), new HashMap<>(), new TestModelClass(), new TestSubObjectClass()};
+            for(Object instance : instances) {
+                ReflectionUtils.callReflectionMethodQuick(instance, "toString");
+                ReflectionUtils.callReflectionMethodQuick(instance, "hashCode");
+            }
+            ReflectionUtils.callReflectionMethodQuick(instances[0], "toString");
+
+            ReflectionCacheStatistics after = ReflectionUtils.getCacheStatistics();
+            Assert.assertTrue("cache statistics - entries must have been evicted", after.getEvictionCount() > before.getEvictionCount());
+            Assert.assertTrue("cache statistics - entry count must stay within maximum size", after.getEntryCount() <= 5);
+            Assert.assertTrue("cache statistics - misses must have been counted", after.getMissCount() > before.getMissCount());
+        } finally {
+            ReflectionUtils.setCacheMaximumSize(10000);
+        }
+
+        TestModelClass test1 = new TestModelClass();
+        ReflectionUtils.setFieldValue(test1, "name", "cached");
+        long hitsBefore = ReflectionUtils.getCacheStatistics().getHitCount();
+        ReflectionUtils.setFieldValue(test1, "name", "cachedAgain");
+        Assert.assertTrue("cache statistics - a repeated lookup must be counted as a hit", ReflectionUtils.getCacheStatistics().getHitCount() > hitsBefore);
+    }
+
+    @Test()
+    public void testCacheKeepsClassesFromDifferentClassLoadersApartAndInvalidatesPerClassLoader() throws Exception {
+        System.out.println("TESTS - cache the same class loaded by two class loaders, then invalidate only the second class loader");
+
+        URL testClassesLocation = TestModelClass.class.getProtectionDomain().getCodeSource().getLocation();
+        try(URLClassLoader redeployedClassLoader = new URLClassLoader(new URL[]{testClassesLocation}, null)) {
+            Class<?> redeployedTestModelClass = redeployedClassLoader.loadClass(TestModelClass.class.getName());
+            Assert.assertNotSame("redeployed class must be a different class with the same name", TestModelClass.class, redeployedTestModelClass);
+
+            TestModelClass test1 = new TestModelClass();
+            Object redeployedTest1 = redeployedTestModelClass.getDeclaredConstructor().newInstance();
+            ReflectionUtils.setFieldValue(test1, "name", "original");
+            ReflectionUtils.setFieldValue(redeployedTest1, "name", "redeployed");
+            ReflectionUtils.setFieldValue(redeployedTest1, "description", "redeployed");
+
+            Assert.assertEquals("original class field must be set", "original", test1.getName());
+            Assert.assertEquals("redeployed class field must be set", "redeployed", ReflectionUtils.getFieldValue("name", redeployedTest1));
+
+            long entriesBefore = ReflectionUtils.getCacheStatistics().getEntryCount();
+            ReflectionUtils.invalidateCache(redeployedClassLoader);
+            Assert.assertTrue("invalidating the class loader must drop its cached entries", ReflectionUtils.getCacheStatistics().getEntryCount() < entriesBefore);
+
+            long missesBefore = ReflectionUtils.getCacheStatistics().getMissCount();
+            ReflectionUtils.setFieldValue(test1, "name", "original2");
+            Assert.assertEquals("entries of the original class must survive", missesBefore, ReflectionUtils.getCacheStatistics().getMissCount());
+
+            ReflectionUtils.invalidateCache(TestModelClass.class);
+            ReflectionUtils.setFieldValue(test1, "name", "original3");
+            Assert.assertTrue("invalidating a class must drop its cached entries", ReflectionUtils.getCacheStatistics().getMissCount() > missesBefore);
+        }
+    }
+
+    @Test()
+    public void testCachedMergeMethodsDoNotKeepTheDestinationClassLoaderAlive() throws Exception {
+        System.out.println("TESTS - merge into an object of a throwaway class loader and check the cached class to class methods let that class loader go");
+
+        WeakReference<ClassLoader> discardedClassLoader = mergeIntoDiscardedClassLoader();
+        for(int i = 0; i < 50 && discardedClassLoader.get() != null; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        Assert.assertNull("class to class methods - must not keep the destination class loader alive", discardedClassLoader.get());
+    }
+
+    private static WeakReference<ClassLoader> mergeIntoDiscardedClassLoader() throws Exception {
+        URL testClassesLocation = TestModelClass.class.getProtectionDomain().getCodeSource().getLocation();
+        try(URLClassLoader discardedClassLoader = new URLClassLoader(new URL[]{testClassesLocation}, null)) {
+            Object destination = discardedClassLoader.loadClass(TestModelClass.class.getName()).getDeclaredConstructor().newInstance();
+            TestModelClass source = new TestModelClass();
+            source.setName("merged");
+            ReflectionUtils.shallowMergeNonBaseObjectIntoNonBaseObject(source, destination);
+            Assert.assertEquals("class to class methods - the merge must have happened", "merged", ReflectionUtils.getFieldValue("name", destination));
+            // the bean info cache of the JDK holds on to its classes itself, containers flush it when undeploying
+            Introspector.flushFromCaches(destination.getClass());
+            return new WeakReference<>(discardedClassLoader);
+        }
+    }
+
+    @Test()
+    public void testMergeSimilarObjectsKeepsMergeRules() throws Exception {
+        System.out.println("TESTS - merge similar objects twice via mergeNonBaseObjectIntoSimilarNonBaseObject, checking nulls, empty values, maps, enums and nested objects");
+
+        for(int i = 0; i < 2; i++) {
+            TestSubObjectClass existingSub = new TestSubObjectClass();
+            existingSub.setSubName("existingSub");
+            TestModelClass mergeInto = new TestModelClass();
+            mergeInto.setName("keepName");
+            mergeInto.setDescription("oldDescription");
+            mergeInto.setSub(existingSub);
+            mergeInto.setTags(new ArrayList<>(List.of("keepTag")));
+            mergeInto.setAttributes(new HashMap<>(Map.of("a", "1")));
+
+            TestSubObjectClass incomingSub = new TestSubObjectClass();
+            incomingSub.setSubName("incomingSub");
+            TestModelClass incoming = new TestModelClass();
+            incoming.setName(null);
+            incoming.setDescription("newDescription");
+            incoming.setSub(incomingSub);
+            incoming.setTags(new ArrayList<>());
+            incoming.setAttributes(new HashMap<>(Map.of("b", "2")));
+            incoming.setStatus(TestStatusEnum.ACTIVE);
+
+            ReflectionUtils.mergeNonBaseObjectIntoSimilarNonBaseObject(incoming, mergeInto, false);
+
+            Assert.assertEquals("merge - null values must not be copied over", "keepName", mergeInto.getName());
+            Assert.assertEquals("merge - non null values must be copied over", "newDescription", mergeInto.getDescription());
+            Assert.assertEquals("merge - empty lists must not be copied over when copyOverEmptyValues is false", List.of("keepTag"), mergeInto.getTags());
+            Assert.assertEquals("merge - maps must be merged into the existing map", Map.of("a", "1", "b", "2"), mergeInto.getAttributes());
+            Assert.assertEquals("merge - enums must be copied over", TestStatusEnum.ACTIVE, mergeInto.getStatus());
+            Assert.assertSame("merge - existing nested object must be merged into, not replaced", existingSub, mergeInto.getSub());
+            Assert.assertEquals("merge - nested object values must be merged", "incomingSub", mergeInto.getSub().getSubName());
+
+            TestModelClass emptyMergeInto = new TestModelClass();
+            ReflectionUtils.mergeNonBaseObjectIntoSimilarNonBaseObject(incoming, emptyMergeInto);
+            Assert.assertNotSame("merge - missing nested object must be a clone", incomingSub, emptyMergeInto.getSub());
+            Assert.assertEquals("merge - cloned nested object must carry the values", "incomingSub", emptyMergeInto.getSub().getSubName());
+            Assert.assertEquals("merge - empty lists must be copied over when copyOverEmptyValues is true", List.of(), emptyMergeInto.getTags());
+        }
+    }
+
+    @Test()
+    public void testMergeDeepAndCyclicObjectGraphs() throws Exception {
+        System.out.println("TESTS - merge long nested chains and cyclic object graphs without running out of stack");
+
+        int depth = 20000;
+        TestLinkedNodeClass incoming = buildLinkedNodes(depth, "incoming");
+        TestLinkedNodeClass mergeInto = buildLinkedNodes(depth, null);
+        ReflectionUtils.mergeNonBaseObjectIntoSimilarNonBaseObject(incoming, mergeInto);
+        TestLinkedNodeClass last = mergeInto;
+        while(last.getNext() != null) {
+            last = last.getNext();
+        }
+        Assert.assertEquals("merge - every node of a deep chain must be merged into", "incoming" + (depth - 1), last.getValue());
+
+        TestLinkedNodeClass otherMergeInto = buildLinkedNodes(depth, null);
+        ReflectionUtils.mergeNonBaseObjectIntoNonBaseObject(incoming, otherMergeInto);
+        last = otherMergeInto;
+        while(last.getNext() != null) {
+            last = last.getNext();
+        }
+        Assert.assertEquals("merge - every node of a deep chain must be merged into via beanutils", "incoming" + (depth - 1), last.getValue());
+
+        TestLinkedNodeClass cyclicIncoming = buildLinkedNodes(3, "cyclic");
+        cyclicIncoming.getNext().getNext().setNext(cyclicIncoming);
+        TestLinkedNodeClass cyclicMergeInto = buildLinkedNodes(3, null);
+        cyclicMergeInto.getNext().getNext().setNext(cyclicMergeInto);
+        ReflectionUtils.mergeNonBaseObjectIntoSimilarNonBaseObject(cyclicIncoming, cyclicMergeInto);
+        ReflectionUtils.mergeNonBaseObjectIntoNonBaseObject(cyclicIncoming, cyclicMergeInto);
+        Assert.assertEquals("merge - cyclic graphs must be merged", "cyclic2", cyclicMergeInto.getNext().getNext().getValue());
+        Assert.assertSame("merge - cyclic graphs must keep their shape", cyclicMergeInto, cyclicMergeInto.getNext().getNext().getNext());
+    }
+
+    private static TestLinkedNodeClass buildLinkedNodes(int length, String valuePrefix) {
+        TestLinkedNodeClass first = null;
+        for(int i = length - 1; i >= 0; i--) {
+            TestLinkedNodeClass node = new TestLinkedNodeClass();
+            node.setValue(valuePrefix != null ? valuePrefix + i : null);
+            node.setNext(first);
+            first = node;
+        }
+        return first;
+    }
+
+    @Test()
+    public void testBulkMergeReportsFailuresWithoutAbortingTheBatch() throws Exception {
+        System.out.println("TESTS - bulk merge a batch of object pairs in parallel, with one broken pair in the middle");
+
+        int batchSize = 2000;
+        int brokenIndex = 1234;
+        List<Map.Entry<Object, Object>> objectPairs = new ArrayList<>();
+        List<TestModelClass> mergeIntoObjects = new ArrayList<>();
+        for(int i = 0; i < batchSize; i++) {
+            TestSubObjectClass incomingSub = new TestSubObjectClass();
+            incomingSub.setSubName("sub" + i);
+            TestModelClass incoming = new TestModelClass();
+            incoming.setDescription("description" + i);
+            incoming.setSub(incomingSub);
+            incoming.setAttributes(new HashMap<>(Map.of("b", "2")));
+            TestModelClass mergeInto = new TestModelClass();
+            mergeInto.setName("keepName" + i);
+            mergeInto.setSub(new TestSubObjectClass());
+            mergeInto.setAttributes(new HashMap<>(Map.of("a", "1")));
+            mergeIntoObjects.add(mergeInto);
+            objectPairs.add(new AbstractMap.SimpleEntry<>(incoming, i == brokenIndex ? null : mergeInto));
+        }
+
+        ReflectionBulkMergeResult result = ReflectionUtils.mergeNonBaseObjectsIntoNonBaseObjects(objectPairs, false);
+
+        Assert.assertEquals("bulk merge - every pair must be counted", batchSize, result.getItemCount());
+        Assert.assertEquals("bulk merge - only the broken pair must fail", 1, result.getFailures().size());
+        Assert.assertEquals("bulk merge - the failure must point at the broken pair", brokenIndex, result.getFailures().get(0).getIndex());
+        Assert.assertEquals("bulk merge - the other pairs must be merged", batchSize - 1, result.getMergedCount());
+        for(int i = 0; i < batchSize; i++) {
+            TestModelClass mergeInto = mergeIntoObjects.get(i);
+            if(i == brokenIndex) {
+                Assert.assertNull("bulk merge - the broken pair must be left alone", mergeInto.getDescription());
+                continue;
+            }
+            Assert.assertEquals("bulk merge - null values must not be copied over", "keepName" + i, mergeInto.getName());
+            Assert.assertEquals("bulk merge - values must be copied over", "description" + i, mergeInto.getDescription());
+            Assert.assertEquals("bulk merge - nested objects must be merged", "sub" + i, mergeInto.getSub().getSubName());
+            Assert.assertEquals("bulk merge - maps must be merged", Map.of("a", "1", "b", "2"), mergeInto.getAttributes());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            ReflectionBulkMergeResult streamResult = ReflectionUtils.mergeNonBaseObjectsIntoNonBaseObjects(objectPairs.stream().limit(10), false, executor);
+            Assert.assertEquals("bulk merge - stream of pairs must be merged on the given executor", 10, streamResult.getMergedCount());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test()
+    public void testFieldPlanSetsAndReadsFieldsInPlanOrder() throws Exception {
+        System.out.println("TESTS - compile a field plan once and use it to set and read several fields, run twice to ensure caching does not cause issues");
+
+        for(int i = 0; i < 2; i++) {
+            ReflectionFieldPlan fieldPlan = ReflectionUtils.compileFieldPlan(TestModelClass.class, "status", "name", "description");
+            TestModelClass testModelClass = new TestModelClass();
+            fieldPlan.apply(testModelClass, TestStatusEnum.INACTIVE, "planName", "planDescription");
+
+            Assert.assertEquals("field plan - values must be set in plan order", "planName", testModelClass.getName());
+            Assert.assertEquals("field plan - values must be set in plan order", "planDescription", testModelClass.getDescription());
+            Assert.assertEquals("field plan - values must be set in plan order", TestStatusEnum.INACTIVE, testModelClass.getStatus());
+
+            Object[] values = new Object[3];
+            Assert.assertSame("field plan - read must fill the given array", values, fieldPlan.read(testModelClass, values));
+            Assert.assertArrayEquals("field plan - values must be read in plan order", new Object[]{TestStatusEnum.INACTIVE, "planName", "planDescription"}, values);
+        }
+
+        try {
+            ReflectionUtils.compileFieldPlan(TestModelClass.class, "name", "noSuchField");
+            Assert.fail("field plan - unknown fields must be rejected when compiling");
+        } catch (NoSuchFieldException expected) {}
+        try {
+            ReflectionUtils.compileFieldPlan(TestModelClass.class, "name").apply(new TestModelClass());
+            Assert.fail("field plan - too few values must be rejected");
+        } catch (IllegalArgumentException expected) {}
+    }
+
+    @Test()
+    public void testPrimitiveFieldValuesAndCleanObject() throws Exception {
+        System.out.println("TESTS - get and set primitive fields through the typed methods and clean an object with long/double fields, run twice to ensure caching does not cause issues");
+
+        for(int i = 0; i < 2; i++) {
+            TestTelemetryClass telemetry = new TestTelemetryClass();
+            ReflectionUtils.setIntFieldValue(telemetry, "count", 7);
+            ReflectionUtils.setLongFieldValue(telemetry, "totalBytes", 1L << 40);
+            ReflectionUtils.setDoubleFieldValue(telemetry, "averageLatency", 12.5d);
+            ReflectionUtils.setBooleanFieldValue(telemetry, "healthy", true);
+            ReflectionUtils.setIntFieldValue(telemetry, "averageLatency", 3);
+
+            Assert.assertEquals("primitive fields - int must be set", 7, ReflectionUtils.getIntFieldValue("count", telemetry));
+            Assert.assertEquals("primitive fields - long must be set", 1L << 40, ReflectionUtils.getLongFieldValue("totalBytes", telemetry));
+            Assert.assertEquals("primitive fields - int must widen into a double field", 3.0d, ReflectionUtils.getDoubleFieldValue("averageLatency", telemetry), 0.0d);
+            Assert.assertTrue("primitive fields - boolean must be set", ReflectionUtils.getBooleanFieldValue("healthy", telemetry));
+            Assert.assertEquals("primitive fields - int field must widen to long", 7L, ReflectionUtils.getLongFieldValue("count", telemetry));
+            try {
+                ReflectionUtils.getIntFieldValue("totalBytes", telemetry);
+                Assert.fail("primitive fields - narrowing a long field to int must be rejected");
+            } catch (IllegalArgumentException expected) {}
+            try {
+                ReflectionUtils.getIntFieldValue("source", telemetry);
+                Assert.fail("primitive fields - non primitive fields must be rejected");
+            } catch (IllegalArgumentException expected) {}
+
+            telemetry.setRetries((short) 3);
+            telemetry.setGrade('A');
+            telemetry.setSource("sensor");
+            ReflectionUtils.cleanObject(telemetry);
+            Assert.assertEquals("clean object - int fields must be zeroed", 0, telemetry.getCount());
+            Assert.assertEquals("clean object - long fields must be zeroed", 0L, telemetry.getTotalBytes());
+            Assert.assertEquals("clean object - double fields must be zeroed", 0.0d, telemetry.getAverageLatency(), 0.0d);
+            Assert.assertFalse("clean object - boolean fields must be false", telemetry.isHealthy());
+            Assert.assertEquals("clean object - short fields must be zeroed", 0, telemetry.getRetries());
+            Assert.assertEquals("clean object - char fields must be zeroed", '\u0000', telemetry.getGrade());
+            Assert.assertNull("clean object - object fields must be null", telemetry.getSource());
+        }
+    }
+
+    @Test()
+    public void testGetClassesUsesBuildTimeClassIndex() throws Exception {
+        System.out.println("TESTS - write a class index of the test classes and let getClasses read the package from it instead of scanning");
+
+        Path testClassesDirectory = Paths.get(TestModelClass.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        Path indexedArtifact = Files.createTempDirectory("reflectionutils-class-index-test");
+        Path indexFile = indexedArtifact.resolve("META-INF/reflectionutils/class-index");
+        ReflectionUtils.writeClassIndex(testClassesDirectory, indexFile);
+        List<String> indexedClassNames = Files.readAllLines(indexFile);
+        Assert.assertTrue("class index - must list the test classes", indexedClassNames.contains(TestModelClass.class.getName()));
+        Assert.assertTrue("class index - must list the test classes", indexedClassNames.contains(TestSubObjectClass.class.getName()));
+
+        // trim the index down to two classes, getClasses must trust it rather than scan the package directory next to it
+        Files.write(indexFile, List.of(TestModelClass.class.getName(), TestSubObjectClass.class.getName(), "some.other.pkg.OtherClass"));
+        String packagePath = TestModelClass.class.getPackageName().replace('.', '/');
+        Files.createDirectories(indexedArtifact.resolve(packagePath));
+        for(Class<?> indexedArtifactClass : List.of(TestModelClass.class, TestSubObjectClass.class, TestSubObjectPairClass.class)) {
+            String classFile = packagePath + "/" + indexedArtifactClass.getSimpleName() + ".class";
+            Files.copy(testClassesDirectory.resolve(classFile), indexedArtifact.resolve(classFile));
+        }
+        // the same package split into a second root without an index, it must still be scanned
+        Path unindexedArtifact = Files.createTempDirectory("reflectionutils-class-index-test");
+        String unindexedClassFile = packagePath + "/" + TestDatedClass.class.getSimpleName() + ".class";
+        Files.createDirectories(unindexedArtifact.resolve(packagePath));
+        Files.copy(testClassesDirectory.resolve(unindexedClassFile), unindexedArtifact.resolve(unindexedClassFile));
+
+        ClassLoader originalClassLoader = Thread.currentThread().getContextClassLoader();
+        URL[] artifactUrls = new URL[]{indexedArtifact.toUri().toURL(), unindexedArtifact.toUri().toURL()};
+        // the platform class loader as parent keeps the test classes directory itself out of the lookup
+        try(URLClassLoader splitPackageClassLoader = new URLClassLoader(artifactUrls, ClassLoader.getPlatformClassLoader())) {
+            Thread.currentThread().setContextClassLoader(splitPackageClassLoader);
+            List<String> classNames = ReflectionUtils.getClasses(TestModelClass.class.getPackageName()).stream().map(Class::getName).collect(Collectors.toList());
+            Assert.assertEquals("class index - getClasses must return the indexed classes of the package plus those of the unindexed root",
+                    List.of(TestModelClass.class.getName(), TestSubObjectClass.class.getName(), TestDatedClass.class.getName()), classNames);
+        } finally {
+            Thread.currentThread().setContextClassLoader(originalClassLoader);
+        }
+    }
+
+    @Test()
+    public void testStreamClassesFiltersByPackageAndDoesNotInitialize() throws Exception {
+        System.out.println("TESTS - stream the classes of the test package sequentially and in parallel, without running static initializers");
+
+        String packageName = TestModelClass.class.getPackageName();
+        for(boolean parallel : new boolean[]{false, true}) {
+            List<String> classNames;
+            try(Stream<String> classNameStream = ReflectionUtils.streamClassNames(packageName, parallel)) {
+                classNames = classNameStream.collect(Collectors.toList());
+            }
+            Assert.assertTrue("stream classes - must find the classes of the package", classNames.containsAll(List.of(TestModelClass.class.getName(), MainTest.class.getName())));
+            Assert.assertTrue("stream classes - must only list classes of the package", classNames.stream().allMatch(className -> className.startsWith(packageName + ".")));
+
+            List<Class<?>> classes;
+            try(Stream<Class<?>> classStream = ReflectionUtils.streamClasses(packageName, parallel)) {
+                classes = classStream.collect(Collectors.toList());
+            }
+            Assert.assertTrue("stream classes - must load the classes of the package", classes.contains(TestModelClass.class));
+        }
+
+        // other tests may have initialized the class already, so stream it from a fresh class loader
+        System.clearProperty(TestStaticInitializerClass.INITIALIZED_PROPERTY);
+        URL testClassesLocation = TestModelClass.class.getProtectionDomain().getCodeSource().getLocation();
+        ClassLoader originalClassLoader = Thread.currentThread().getContextClassLoader();
+        try(URLClassLoader freshClassLoader = new URLClassLoader(new URL[]{testClassesLocation}, null)) {
+            Thread.currentThread().setContextClassLoader(freshClassLoader);
+            List<Class<?>> classes;
+            try(Stream<Class<?>> classStream = ReflectionUtils.streamClasses(packageName, true)) {
+                classes = classStream.collect(Collectors.toList());
+            }
+            Assert.assertTrue("stream classes - must load the classes through the context class loader", classes.stream().anyMatch(clazz -> clazz.getName().equals(TestStaticInitializerClass.class.getName()) && clazz.getClassLoader() == freshClassLoader));
+        } finally {
+            Thread.currentThread().setContextClassLoader(originalClassLoader);
+        }
+        Assert.assertNull("stream classes - loading classes must not run their static initializers", System.getProperty(TestStaticInitializerClass.INITIALIZED_PROPERTY));
+        try(Stream<String> classNameStream = ReflectionUtils.streamClassNames(packageName, false)) {
+            Assert.assertTrue("stream classes - a stream must be consumable partially", classNameStream.findFirst().isPresent());
+        }
+    }
+
+    @Test()
+    public void testFindAnnotatedClassesAndSubTypesOnlyLoadsMatches() throws Exception {
+        System.out.println("TESTS - find annotated classes and sub types in the test package from the class files, loading only the matches");
+
+        String packageName = TestModelClass.class.getPackageName();
+        Assert.assertEquals("class query - must find directly and inherited annotated classes",
+                Set.of(TestPluginBaseClass.class, TestPluginClass.class),
+                Set.copyOf(ReflectionUtils.findClassesAnnotatedWith(packageName, TestMarkerAnnotation.class)));
+        Assert.assertEquals("class query - must find direct and indirect sub types",
+                Set.of(TestPluginBaseClass.class, TestPluginClass.class),
+                Set.copyOf(ReflectionUtils.findSubTypesOf(packageName, TestMarkerInterface.class)));
+        Assert.assertEquals("class query - must find sub classes",
+                List.of(TestPluginClass.class),
+                ReflectionUtils.findSubTypesOf(packageName, TestPluginBaseClass.class));
+        Assert.assertTrue("class query - must find classes annotated with jdk annotations", ReflectionUtils.findClassesAnnotatedWith(packageName, Deprecated.class).contains(TestPluginBaseClass.class));
+
+        List<String> loadedClassNames = Collections.synchronizedList(new ArrayList<>());
+        URL testClassesLocation = TestModelClass.class.getProtectionDomain().getCodeSource().getLocation();
+        ClassLoader originalClassLoader = Thread.currentThread().getContextClassLoader();
+        try(URLClassLoader recordingClassLoader = new URLClassLoader(new URL[]{testClassesLocation}, null) {
+            @Override
+            protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+                loadedClassNames.add(name);
+                return super.loadClass(name, resolve);
+            }
+        }) {
+            Thread.currentThread().setContextClassLoader(recordingClassLoader);
+            Class<?> markerInterface = recordingClassLoader.loadClass(TestMarkerInterface.class.getName());
+            loadedClassNames.clear();
+            Assert.assertEquals("class query - must find the sub types through the context class loader", 2, ReflectionUtils.findSubTypesOf(packageName, markerInterface).size());
+        } finally {
+            Thread.currentThread().setContextClassLoader(originalClassLoader);
+        }
+        Assert.assertFalse("class query - classes that do not match must not be loaded", loadedClassNames.contains(TestModelClass.class.getName()));
+        Assert.assertFalse("class query - classes that do not match must not be loaded", loadedClassNames.contains(MainTest.class.getName()));
+    }
+
+    @Test()
+    public void testMetricsRecorderReportsOperationsFallbacksAndCacheLookups() throws Exception {
+        System.out.println("TESTS - register a metrics recorder and check it sees operations, failures, fallbacks and cache lookups");
+
+        ReflectionMetricsRecorder recorder = new ReflectionMetricsRecorder();
+        ReflectionUtils.setMetricsListener(recorder);
+        try {
+            Assert.assertSame("metrics - registered listener must be returned", recorder, ReflectionUtils.getMetricsListener());
+            TestModelClass testModelClass = new TestModelClass();
+            testModelClass.setName("metrics");
+            for(int i = 0; i < 3; i++) {
+                ReflectionUtils.getFieldValue("name", testModelClass);
+            }
+            Assert.assertEquals("metrics - getter fallback must still work", TestModelClass.class, ReflectionUtils.getFieldValue("class", testModelClass));
+            try {
+                ReflectionUtils.getFieldValue("noSuchField", testModelClass);
+                Assert.fail("metrics - unknown fields must still fail");
+            } catch (NoSuchFieldException expected) {}
+            ReflectionUtils.mergeNonBaseObjectIntoSimilarNonBaseObject(testModelClass, new TestModelClass());
+            ReflectionUtils.shallowMergeNonBaseObjectIntoNonBaseObject(testModelClass, new TestModelClass());
+        } finally {
+            ReflectionUtils.setMetricsListener(null);
+        }
+        ReflectionUtils.getFieldValue("name", new TestModelClass());
+
+        Assert.assertNull("metrics - null must switch reporting off", ReflectionUtils.getMetricsListener());
+        Assert.assertEquals("metrics - every getFieldValue call must be counted, and nothing after unregistering", 5, recorder.getOperationCount(ReflectionOperation.GET_FIELD_VALUE));
+        Assert.assertEquals("metrics - failed calls must be counted", 1, recorder.getFailureCount(ReflectionOperation.GET_FIELD_VALUE));
+        Assert.assertEquals("metrics - merges must be counted", 1, recorder.getOperationCount(ReflectionOperation.MERGE_SIMILAR));
+        Assert.assertEquals("metrics - shallow merges must be counted", 1, recorder.getOperationCount(ReflectionOperation.SHALLOW_MERGE));
+        Assert.assertEquals("metrics - the getter and setter calls inside a merge must not be counted as calls of their own", 0, recorder.getOperationCount(ReflectionOperation.CALL_METHOD));
+        Assert.assertEquals("metrics - the getter fallback must be counted", 1, recorder.getFallbackCount(ReflectionFallback.GETTER_FOR_FIELD_READ));
+        Assert.assertTrue("metrics - cache hits must be counted", recorder.getCacheHitCount() >= 2);
+        Assert.assertTrue("metrics - cache lookups must give a hit rate", recorder.getCacheHitRate() > 0.0d);
+        Assert.assertEquals("metrics - operations must be counted per class", Long.valueOf(7), recorder.getOperationCountsByClassName().get(TestModelClass.class.getName()));
+        Assert.assertEquals("metrics - the latency histogram must hold every call", 5, Arrays.stream(recorder.getLatencyHistogram(ReflectionOperation.GET_FIELD_VALUE)).sum());
+        Assert.assertTrue("metrics - percentiles must come from the histogram", recorder.getLatencyPercentileNanos(ReflectionOperation.GET_FIELD_VALUE, 99.0d) > 0L);
+        Assert.assertTrue("metrics - durations must add up", recorder.getTotalDurationNanos(ReflectionOperation.GET_FIELD_VALUE) > 0L);
+
+        recorder.reset();
+        Assert.assertEquals("metrics - reset must clear the counters", 0, recorder.getOperationCount(ReflectionOperation.GET_FIELD_VALUE));
+    }
+
+    @Test()
+    public void testFlightRecorderEventsForScansMergesCacheRebuildsAndIntrospection() throws Exception {
+        System.out.println("TESTS - record reflection work with the flight recorder and check the custom events carry classes, counts and durations");
+
+        Path recordingFile = Files.createTempFile("reflectionutils", ".jfr");
+        try (Recording recording = new Recording()) {
+            for(String eventName : Arrays.asList("ClassScan", "Merge", "CacheRebuild", "BeanIntrospection")) {
+                recording.enable("org.greatgamesonly.reflectionutils." + eventName).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+            ReflectionUtils.invalidateCache(TestLinkedNodeClass.class);
+            ReflectionUtils.mergeNonBaseObjectIntoSimilarNonBaseObject(buildLinkedNodes(3, "jfr"), buildLinkedNodes(3, null));
+            ReflectionUtils.mergeNonBaseObjectIntoNonBaseObject(buildLinkedNodes(4, "jfr"), buildLinkedNodes(4, null));
+            ReflectionUtils.getClasses(TestModelClass.class.getPackageName());
+            ReflectionUtils.getGetters(TestTelemetryClass.class);
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile);
+        Files.deleteIfExists(recordingFile);
+        Map<String, List<RecordedEvent>> eventsByName = events.stream()
+                .collect(Collectors.groupingBy(event -> event.getEventType().getName().replace("org.greatgamesonly.reflectionutils.", "")));
+
+        List<RecordedEvent> mergeEvents = eventsByName.getOrDefault("Merge", Collections.emptyList());
+        Assert.assertTrue("jfr - compiled merges must be recorded with their graph size", mergeEvents.stream().anyMatch(event ->
+                "bean copier".equals(event.getString("strategy")) && event.getInt("objectCount") == 3 &&
+                TestLinkedNodeClass.class.getName().equals(event.getClass("targetClass").getName())));
+        Assert.assertTrue("jfr - beanutils merges must be recorded with their graph size", mergeEvents.stream().anyMatch(event ->
+                "bean utils".equals(event.getString("strategy")) && event.getInt("objectCount") == 4));
+        Assert.assertTrue("jfr - building the bean copier after an invalidation must be recorded", eventsByName.getOrDefault("CacheRebuild", Collections.emptyList()).stream().anyMatch(event ->
+                "bean copier".equals(event.getString("cacheTable")) && TestLinkedNodeClass.class.getName().equals(event.getClass("cachedClass").getName())));
+        Assert.assertTrue("jfr - getClasses must be recorded with the package and class count", eventsByName.getOrDefault("ClassScan", Collections.emptyList()).stream().anyMatch(event ->
+                TestModelClass.class.getPackageName().equals(event.getString("packageName")) && event.getInt("classCount") > 0));
+        Assert.assertTrue("jfr - bean introspection must be recorded", eventsByName.getOrDefault("BeanIntrospection", Collections.emptyList()).stream().anyMatch(event ->
+                TestTelemetryClass.class.getName().equals(event.getClass("beanClass").getName()) && event.getInt("propertyCount") > 0));
+        Assert.assertTrue("jfr - events must carry a duration", events.stream().noneMatch(event -> event.getDuration().isNegative()));
+    }
+
+    @Test()
+    public void testMissingFieldsAndSettersAreRememberedPerClass() throws Exception {
+        System.out.println("TESTS - inherited and missing properties must only be looked up once, after that every lookup is a cache hit");
+
+        TestModelSubClass testModelSubClass = new TestModelSubClass();
+        ReflectionMetricsRecorder recorder = new ReflectionMetricsRecorder();
+        ReflectionUtils.setMetricsListener(recorder);
+        try {
+            for(int i = 0; i < 3; i++) {
+                if(i == 1) {
+                    // first round resolved (or failed to resolve) everything, from here on nothing may miss the cache
+                    recorder.reset();
+                }
+                ReflectionUtils.setFieldValue(testModelSubClass, "name", "inherited" + i);
+                Assert.assertEquals("negative cache - inherited fields must be read through the getter", "inherited" + i, ReflectionUtils.getFieldValue("name", testModelSubClass));
+                ReflectionUtils.setFieldValue(testModelSubClass, "nickname", "declared" + i);
+                try {
+                    ReflectionUtils.setFieldValue(testModelSubClass, "noSuchField", "value");
+                    Assert.fail("negative cache - missing fields must still fail on every call");
+                } catch (NoSuchFieldException expected) {}
+                try {
+                    ReflectionUtils.getFieldValue("noSuchField", testModelSubClass);
+                    Assert.fail("negative cache - missing fields must still fail on every read");
+                } catch (NoSuchFieldException expected) {}
+                try {
+                    ReflectionUtils.callReflectionMethodQuick(testModelSubClass, "noSuchMethod");
+                    Assert.fail("negative cache - missing methods must still fail on every call");
+                } catch (NoSuchMethodException expected) {}
+            }
+        } finally {
+            ReflectionUtils.setMetricsListener(null);
+        }
+        Assert.assertEquals("negative cache - declared fields must still be set", "declared2", testModelSubClass.getNickname());
+        Assert.assertEquals("negative cache - remembered misses must not be looked up again", 0, recorder.getCacheMissCount());
+        Assert.assertTrue("negative cache - remembered misses must count as hits", recorder.getCacheHitCount() > 0);
+        Assert.assertEquals("negative cache - the setter fallback must still be used for inherited fields", 2, recorder.getFallbackCount(ReflectionFallback.SETTER_FOR_FIELD_WRITE));
+        Assert.assertEquals("negative cache - the getter fallback must still be used for inherited fields", 2, recorder.getFallbackCount(ReflectionFallback.GETTER_FOR_FIELD_READ));
+    }
+
+    @Test()
+    public void testAsyncFieldWritesBatchAndReportFailures() throws Exception {
+        System.out.println("TESTS - write fields asynchronously, one object, a batch on a given executor and a batch with a failing object");
+
+        TestTelemetryClass single = new TestTelemetryClass();
+        ReflectionUtils.setFieldValueAsync(single, "source", "async").get(10, TimeUnit.SECONDS);
+        Assert.assertEquals("async - single field must be written", "async", single.getSource());
+        Assert.assertNotNull("async - there must always be a default executor", ReflectionUtils.getDefaultAsyncExecutor());
+        Assert.assertFalse("async - the shared default executor must not be handed out as something that can be shut down", ReflectionUtils.getDefaultAsyncExecutor() instanceof ExecutorService);
+
+        List<Map.Entry<TestTelemetryClass, Map<String, Object>>> batch = new ArrayList<>();
+        for(int i = 0; i < 500; i++) {
+            Map<String, Object> fieldValues = new HashMap<>();
+            fieldValues.put("count", i);
+            fieldValues.put("source", "batch" + i);
+            batch.add(new AbstractMap.SimpleEntry<>(new TestTelemetryClass(), fieldValues));
+        }
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            ReflectionUtils.setFieldValuesAsync(batch, executorService).get(10, TimeUnit.SECONDS);
+        } finally {
+            executorService.shutdown();
+        }
+        for(int i = 0; i < batch.size(); i++) {
+            Assert.assertEquals("async - every object of the batch must be written", i, batch.get(i).getKey().getCount());
+            Assert.assertEquals("async - every field of an object must be written", "batch" + i, batch.get(i).getKey().getSource());
+        }
+
+        batch.get(3).getValue().put("noSuchField", "value");
+        batch.get(400).getValue().put("source", "rewritten");
+        try {
+            ReflectionUtils.setFieldValuesAsync(batch).get(10, TimeUnit.SECONDS);
+            Assert.fail("async - a failing write must fail the future");
+        } catch (ExecutionException e) {
+            Assert.assertTrue("async - the failure must carry the cause", e.getCause() instanceof NoSuchFieldException);
+        }
+        Assert.assertEquals("async - a failing object must not stop the rest of the batch", "rewritten", batch.get(400).getKey().getSource());
+    }
+
+    @Test()
+    public void testGettersAndSettersComeFromCachedPropertyTable() throws Exception {
+        System.out.println("TESTS - getters and setters must be answered from a cached property table, with the same immutable set per filter");
+
+        Set<String> setters = ReflectionUtils.getSettersForBaseValueTypes(TestModelClass.class, true, true);
+        Assert.assertEquals("property table - base value type setters must be filtered by type", Set.of("setName", "setDescription", "setTags", "setStatus"), setters);
+        Assert.assertSame("property table - the same filter must return the same set", setters, ReflectionUtils.getSettersForBaseValueTypes(TestModelClass.class, true, true));
+        Assert.assertEquals("property table - enums and lists must only be included on request", Set.of("setName", "setDescription"), ReflectionUtils.getSettersForBaseValueTypes(TestModelClass.class, false, false));
+        Assert.assertEquals("property table - getters must be filtered like setters", Set.of("getName", "getDescription", "getStatus"), ReflectionUtils.getGettersForBaseValueTypes(TestModelClass.class, true, false));
+
+        List<Class<?>> valueTypes = new ArrayList<>(List.of(String.class));
+        Set<String> stringSetters = ReflectionUtils.getSetters(TestModelClass.class, valueTypes);
+        Assert.assertEquals("property table - custom value types must be matched", Set.of("setName", "setDescription"), stringSetters);
+        valueTypes.add(TestSubObjectClass.class);
+        Assert.assertEquals("property table - a changed value type list must not hit the earlier filter", Set.of("setName", "setDescription", "setSub"), ReflectionUtils.getSetters(TestModelClass.class, valueTypes));
+        Assert.assertSame("property table - an equal value type list must hit the cached filter", stringSetters, ReflectionUtils.getSetters(TestModelClass.class, List.of(String.class)));
+
+        Assert.assertSame("property table - getter names must be computed once", ReflectionUtils.getGetters(TestModelClass.class), ReflectionUtils.getGetters(TestModelClass.class));
+        Assert.assertTrue("property table - getter methods must be kept", ReflectionUtils.getGetterMethods(TestModelClass.class).contains(TestModelClass.class.getMethod("getName")));
+        try {
+            ReflectionUtils.getSetters(TestModelClass.class).add("setSomething");
+            Assert.fail("property table - the cached sets must be immutable");
+        } catch (UnsupportedOperationException expected) {}
+    }
+
+    @Test()
+    public void testExtractColumnsIntoPrimitiveAndTypedArrays() throws Exception {
+        System.out.println("TESTS - extract one field of a large list into int, long, double and typed arrays, sequential and split over cores");
+
+        List<TestTelemetryClass> telemetry = new ArrayList<>();
+        for(int i = 0; i < 100000; i++) {
+            TestTelemetryClass testTelemetryClass = new TestTelemetryClass();
+            testTelemetryClass.setCount(i);
+            testTelemetryClass.setTotalBytes(i * 1000L);
+            testTelemetryClass.setAverageLatency(i / 2.0d);
+            testTelemetryClass.setSource("source" + i);
+            telemetry.add(testTelemetryClass);
+        }
+        for(boolean parallel : new boolean[]{false, true}) {
+            int[] counts = ReflectionUtils.extractIntColumn(telemetry, "count", parallel);
+            long[] totalBytes = ReflectionUtils.extractLongColumn(telemetry, "totalBytes", parallel);
+            double[] averageLatencies = ReflectionUtils.extractDoubleColumn(telemetry, "averageLatency", parallel);
+            String[] sources = ReflectionUtils.extractColumn(telemetry, "source", String.class, parallel);
+            Assert.assertEquals("columns - every element must be extracted", telemetry.size(), counts.length);
+            for(int i = 0; i < telemetry.size(); i += 997) {
+                Assert.assertEquals("columns - int column must keep element order", i, counts[i]);
+                Assert.assertEquals("columns - long column must keep element order", i * 1000L, totalBytes[i]);
+                Assert.assertEquals("columns - double column must keep element order", i / 2.0d, averageLatencies[i], 0.0d);
+                Assert.assertEquals("columns - typed column must keep element order", "source" + i, sources[i]);
+            }
+        }
+        Assert.assertArrayEquals("columns - int fields must widen into a long column", new long[]{0L, 1L, 2L}, ReflectionUtils.extractLongColumn(new LinkedList<>(telemetry.subList(0, 3)), "count"));
+        Assert.assertEquals("columns - empty collections must give empty columns", 0, ReflectionUtils.extractIntColumn(Collections.emptyList(), "count").length);
+
+        List<TestTelemetryClass> withNull = new ArrayList<>(telemetry);
+        withNull.set(50000, null);
+        try {
+            ReflectionUtils.extractIntColumn(withNull, "count", true);
+            Assert.fail("columns - null elements must be rejected");
+        } catch (IllegalArgumentException expected) {}
+        try {
+            ReflectionUtils.extractIntColumn(telemetry, "totalBytes");
+            Assert.fail("columns - long fields must not be narrowed into an int column");
+        } catch (IllegalArgumentException expected) {}
+        try {
+            ReflectionUtils.extractColumn(telemetry, "source", Integer.class);
+            Assert.fail("columns - incompatible column types must be rejected");
+        } catch (IllegalArgumentException expected) {}
+    }
+
+    @Test()
+    public void testBinaryCodecRoundTripThroughByteBuffers() throws Exception {
+        System.out.println("TESTS - write beans into direct and heap byte buffers with a compiled binary layout and read them back");
+
+        ReflectionBinaryCodec<TestTelemetryClass> codec = ReflectionUtils.compileBinaryCodec(TestTelemetryClass.class);
+        Assert.assertEquals("binary codec - fields must be laid out by name", Arrays.asList("averageLatency", "count", "grade", "healthy", "retries", "source", "totalBytes"), Arrays.asList(codec.getFieldNames()));
+        Assert.assertEquals("binary codec - fixed section must hold every field at its own width", 29, codec.getFixedSize());
+        Assert.assertFalse("binary codec - a string field must make records variable sized", codec.isFixedSize());
+
+        List<TestTelemetryClass> telemetry = new ArrayList<>();
+        for(int i = 0; i < 100; i++) {
+            TestTelemetryClass testTelemetryClass = new TestTelemetryClass();
+            testTelemetryClass.setCount(i);
+            testTelemetryClass.setTotalBytes(i * 1000000000L);
+            testTelemetryClass.setAverageLatency(i / 3.0d);
+            testTelemetryClass.setHealthy(i % 2 == 0);
+            testTelemetryClass.setRetries((short) -i);
+            testTelemetryClass.setGrade((char) ('A' + i % 26));
+            testTelemetryClass.setSource(i % 10 == 0 ? null : "s\u00e9rver-\u20ac-\ud83d\ude00-" + i);
+            telemetry.add(testTelemetryClass);
+        }
+        for(ByteBuffer buffer : new ByteBuffer[]{ByteBuffer.allocateDirect(16384), ByteBuffer.allocate(16384).order(ByteOrder.LITTLE_ENDIAN)}) {
+            for(TestTelemetryClass testTelemetryClass : telemetry) {
+                Assert.assertEquals("binary codec - write must report the record size", codec.sizeOf(testTelemetryClass), codec.write(testTelemetryClass, buffer));
+            }
+            buffer.flip();
+            for(TestTelemetryClass expected : telemetry) {
+                TestTelemetryClass actual = codec.read(buffer);
+                Assert.assertEquals("binary codec - int fields must round trip", expected.getCount(), actual.getCount());
+                Assert.assertEquals("binary codec - long fields must round trip", expected.getTotalBytes(), actual.getTotalBytes());
+                Assert.assertEquals("binary codec - double fields must round trip", expected.getAverageLatency(), actual.getAverageLatency(), 0.0d);
+                Assert.assertEquals("binary codec - boolean fields must round trip", expected.isHealthy(), actual.isHealthy());
+                Assert.assertEquals("binary codec - short fields must round trip", expected.getRetries(), actual.getRetries());
+                Assert.assertEquals("binary codec - char fields must round trip", expected.getGrade(), actual.getGrade());
+                Assert.assertEquals("binary codec - strings and nulls must round trip", expected.getSource(), actual.getSource());
+            }
+            Assert.assertFalse("binary codec - reading must consume exactly what was written", buffer.hasRemaining());
+        }
+
+        ByteBuffer small = ByteBuffer.allocate(codec.getFixedSize());
+        try {
+            codec.write(telemetry.get(1), small);
+            Assert.fail("binary codec - records that do not fit must be rejected");
+        } catch (BufferOverflowException expected) {}
+        Assert.assertEquals("binary codec - a failed write must not move the position", 0, small.position());
+        try {
+            ReflectionUtils.compileBinaryCodec(TestModelClass.class);
+            Assert.fail("binary codec - collections and nested objects must be rejected");
+        } catch (IllegalArgumentException expected) {}
+        try {
+            ReflectionUtils.compileBinaryCodec(TestDatedClass.class);
+            Assert.fail("binary codec - JDK types without a binary form (UUID, java.time) must be rejected instead of left out");
+        } catch (IllegalArgumentException expected) {}
+    }
+
+    @Test()
+    public void testCleanObjectsResetsPooledInstancesWithCompiledPlan() throws Exception {
+        System.out.println("TESTS - reset an array of pooled objects of mixed classes in one call, static fields must keep their value");
+
+        Object[] pool = new Object[5];
+        for(int i = 0; i < 3; i++) {
+            TestTelemetryClass telemetry = new TestTelemetryClass();
+            telemetry.setCount(i + 1);
+            telemetry.setTotalBytes(1024L);
+            telemetry.setHealthy(true);
+            telemetry.setGrade('B');
+            telemetry.setSource("pooled" + i);
+            pool[i] = telemetry;
+        }
+        TestModelClass model = new TestModelClass();
+        model.setName("pooledModel");
+        model.setTags(new ArrayList<>(List.of("tag")));
+        model.setStatus(TestStatusEnum.ACTIVE);
+        pool[4] = model;
+
+        Assert.assertSame("clean objects - the given array must be returned", pool, ReflectionUtils.cleanObjects(pool));
+        for(int i = 0; i < 3; i++) {
+            TestTelemetryClass telemetry = (TestTelemetryClass) pool[i];
+            Assert.assertEquals("clean objects - int fields must be zeroed", 0, telemetry.getCount());
+            Assert.assertEquals("clean objects - long fields must be zeroed", 0L, telemetry.getTotalBytes());
+            Assert.assertFalse("clean objects - boolean fields must be false", telemetry.isHealthy());
+            Assert.assertEquals("clean objects - char fields must be zeroed", '\u0000', telemetry.getGrade());
+            Assert.assertNull("clean objects - object fields must be null", telemetry.getSource());
+        }
+        Assert.assertNull("clean objects - null slots must be skipped", pool[3]);
+        Assert.assertNull("clean objects - fields of other classes in the same array must be reset", model.getName());
+        Assert.assertNull("clean objects - collection fields must be null", model.getTags());
+        Assert.assertNull("clean objects - enum fields must be null", model.getStatus());
+        Assert.assertEquals("clean objects - static fields must be left alone", "test_constant_value", TestModelClass.CONSTANT_TEST);
+
+        model.setName("reusedModel");
+        ReflectionUtils.cleanObject(model);
+        Assert.assertNull("clean object - a class with a static final field must be resettable", model.getName());
+    }
+
+    @Test()
+    public void testDeepCloneCopiesObjectGraphsWithCyclesAndContainers() throws Exception {
+        System.out.println("TESTS - deep clone an object graph with super class fields, collections, maps, a shared object and a cycle, in all collection modes");
+
+        TestSubObjectClass sub = new TestSubObjectClass();
+        sub.setSubName("sharedSub");
+        TestModelSubClass model = new TestModelSubClass();
+        model.setName("original");
+        model.setNickname("nick");
+        model.setStatus(TestStatusEnum.ACTIVE);
+        model.setSub(sub);
+        model.setTags(new ArrayList<>(List.of("a", "b")));
+        model.setAttributes(new HashMap<>(Map.of("key", "value")));
+
+        TestModelSubClass clone = ReflectionUtils.deepClone(model);
+        Assert.assertNotSame("deep clone - the root must be a new object", model, clone);
+        Assert.assertEquals("deep clone - super class fields must be copied", "original", clone.getName());
+        Assert.assertEquals("deep clone - own fields must be copied", "nick", clone.getNickname());
+        Assert.assertSame("deep clone - enums must be shared", TestStatusEnum.ACTIVE, clone.getStatus());
+        Assert.assertNotSame("deep clone - nested objects must be cloned", sub, clone.getSub());
+        Assert.assertEquals("deep clone - nested object fields must be copied", "sharedSub", clone.getSub().getSubName());
+        Assert.assertNotSame("deep clone - lists must be cloned", model.getTags(), clone.getTags());
+        Assert.assertEquals("deep clone - list elements must be copied in order", List.of("a", "b"), clone.getTags());
+        Assert.assertNotSame("deep clone - maps must be cloned", model.getAttributes(), clone.getAttributes());
+        Assert.assertEquals("deep clone - map entries must be copied", Map.of("key", "value"), clone.getAttributes());
+        clone.getSub().setSubName("changed");
+        clone.getTags().add("c");
+        Assert.assertEquals("deep clone - changing the clone must not change the original", "sharedSub", sub.getSubName());
+        Assert.assertEquals("deep clone - changing a cloned list must not change the original", 2, model.getTags().size());
+
+        TestModelSubClass shared = ReflectionUtils.deepClone(model, ReflectionCloneMode.SHARE, ReflectionCloneMode.SHARE);
+        Assert.assertSame("deep clone - shared collections must be the same instance", model.getTags(), shared.getTags());
+        TestModelSubClass shallow = ReflectionUtils.deepClone(model, ReflectionCloneMode.SHALLOW, ReflectionCloneMode.SHALLOW);
+        Assert.assertNotSame("deep clone - shallow collections must be new instances", model.getAttributes(), shallow.getAttributes());
+        Assert.assertEquals("deep clone - shallow collections must hold the same elements", model.getAttributes(), shallow.getAttributes());
+
+        TestLinkedNodeClass first = new TestLinkedNodeClass();
+        TestLinkedNodeClass second = new TestLinkedNodeClass();
+        first.setValue("first");
+        first.setNext(second);
+        second.setValue("second");
+        second.setNext(first);
+        Object[] graph = new Object[]{first, second, List.of(first, second)};
+        Object[] graphClone = ReflectionUtils.deepClone(graph);
+        TestLinkedNodeClass firstClone = (TestLinkedNodeClass) graphClone[0];
+        Assert.assertNotSame("deep clone - arrays must be cloned", graph, graphClone);
+        Assert.assertNotSame("deep clone - cycle members must be cloned", first, firstClone);
+        Assert.assertSame("deep clone - cycles must be kept in the clone", firstClone, firstClone.getNext().getNext());
+        Assert.assertSame("deep clone - an object referenced twice must be cloned once", graphClone[1], firstClone.getNext());
+        Assert.assertSame("deep clone - collection elements must be the same clones as the other references", firstClone, ((List<?>) graphClone[2]).get(0));
+
+        TestTaggedGroupClass group = new TestTaggedGroupClass();
+        TestTaggedGroupClass member = new TestTaggedGroupClass();
+        group.setTags(new ArrayList<>(List.of("x", "y")));
+        member.setTags(group.getTags());
+        group.setMembers(new HashSet<>(Set.of(member)));
+        TestTaggedGroupClass groupClone = ReflectionUtils.deepClone(group);
+        TestTaggedGroupClass memberClone = groupClone.getMembers().iterator().next();
+        Assert.assertSame("deep clone - a list shared by two objects must be cloned once", groupClone.getTags(), memberClone.getTags());
+        Assert.assertTrue("deep clone - hash sets must hash elements that reach a list only after that list is filled", groupClone.getMembers().contains(memberClone));
+
+        TestLinkedNodeClass head = new TestLinkedNodeClass();
+        TestLinkedNodeClass node = head;
+        for(int i = 0; i < 100000; i++) {
+            node.setNext(new TestLinkedNodeClass());
+            node = node.getNext();
+        }
+        node.setValue("tail");
+        TestLinkedNodeClass nodeClone = ReflectionUtils.deepClone(head);
+        while(nodeClone.getNext() != null) {
+            nodeClone = nodeClone.getNext();
+        }
+        Assert.assertEquals("deep clone - deep graphs must not overflow the stack", "tail", nodeClone.getValue());
+    }
+
+    @Test()
+    public void testDiffObjectsFindsAndAppliesChangedFields() throws Exception {
+        System.out.println("TESTS - diff two objects into changed fields and paths, nested objects and cycles included, then apply only the changes");
+
+        TestTelemetryClass telemetry = new TestTelemetryClass();
+        telemetry.setCount(7);
+        telemetry.setAverageLatency(Double.NaN);
+        telemetry.setSource("sensor");
+        TestTelemetryClass sameTelemetry = new TestTelemetryClass();
+        sameTelemetry.setCount(7);
+        sameTelemetry.setAverageLatency(Double.NaN);
+        sameTelemetry.setSource(new String("sensor"));
+        Assert.assertFalse("diff - an object must not differ from itself", ReflectionUtils.diffObjects(telemetry, telemetry).hasChanges());
+        Assert.assertFalse("diff - equal primitives and equal strings must not be changes", ReflectionUtils.diffObjects(telemetry, sameTelemetry).hasChanges());
+        sameTelemetry.setTotalBytes(1L);
+        ReflectionDiff telemetryDiff = ReflectionUtils.diffObjects(telemetry, sameTelemetry);
+        Assert.assertEquals("diff - a changed primitive must be the only changed path", List.of("totalBytes"), telemetryDiff.getChangedPaths());
+        Assert.assertEquals("diff - a changed primitive must be the only changed field", 1, telemetryDiff.getChangedFields().cardinality());
+        Assert.assertTrue("diff - changed fields must be found by name", telemetryDiff.isChanged("totalBytes"));
+
+        TestSubObjectClass subFrom = new TestSubObjectClass();
+        subFrom.setSubName("newSub");
+        TestModelSubClass from = new TestModelSubClass();
+        from.setName("newName");
+        from.setNickname("nick");
+        from.setSub(subFrom);
+        from.setTags(new ArrayList<>(List.of("a")));
+        from.setStatus(TestStatusEnum.INACTIVE);
+        TestSubObjectClass subTo = new TestSubObjectClass();
+        subTo.setSubName("oldSub");
+        TestModelSubClass to = new TestModelSubClass();
+        to.setName("oldName");
+        to.setNickname("nick");
+        to.setSub(subTo);
+        to.setTags(new ArrayList<>(List.of("a")));
+        to.setStatus(TestStatusEnum.ACTIVE);
+
+        ReflectionDiff diff = ReflectionUtils.diffObjects(from, to);
+        Assert.assertEquals("diff - changed values must be listed as paths", Set.of("name", "status", "sub.subName"), Set.copyOf(diff.getChangedPaths()));
+        Assert.assertTrue("diff - a change in a nested object must mark the field holding it", diff.isChanged("sub"));
+        Assert.assertFalse("diff - equal collections must not be changes", diff.isChanged("tags"));
+        Assert.assertFalse("diff - equal fields of the sub class must not be changes", diff.isChanged("nickname"));
+        Assert.assertEquals("diff - without applying, objectTo must be left alone", "oldName", to.getName());
+
+        ReflectionUtils.diffObjects(from, to, true);
+        Assert.assertEquals("diff - applying must copy changed fields", "newName", to.getName());
+        Assert.assertEquals("diff - applying must copy changed enums", TestStatusEnum.INACTIVE, to.getStatus());
+        Assert.assertSame("diff - applying must keep nested objects of objectTo", subTo, to.getSub());
+        Assert.assertEquals("diff - applying must copy changes into nested objects", "newSub", subTo.getSubName());
+        Assert.assertFalse("diff - after applying the objects must not differ", ReflectionUtils.diffObjects(from, to).hasChanges());
+
+        TestLinkedNodeClass firstFrom = new TestLinkedNodeClass();
+        TestLinkedNodeClass secondFrom = new TestLinkedNodeClass();
+        firstFrom.setNext(secondFrom);
+        secondFrom.setNext(firstFrom);
+        secondFrom.setValue("changed");
+        TestLinkedNodeClass firstTo = new TestLinkedNodeClass();
+        TestLinkedNodeClass secondTo = new TestLinkedNodeClass();
+        firstTo.setNext(secondTo);
+        secondTo.setNext(firstTo);
+        Assert.assertEquals("diff - cycles must end and nested paths must be found", List.of("next.value"), ReflectionUtils.diffObjects(firstFrom, firstTo).getChangedPaths());
+
+        TestSubObjectClass sharedSubFrom = new TestSubObjectClass();
+        sharedSubFrom.setSubName("new");
+        TestSubObjectPairClass pairFrom = new TestSubObjectPairClass();
+        pairFrom.setFirst(sharedSubFrom);
+        pairFrom.setSecond(sharedSubFrom);
+        TestSubObjectClass firstSubTo = new TestSubObjectClass();
+        firstSubTo.setSubName("new");
+        TestSubObjectClass secondSubTo = new TestSubObjectClass();
+        secondSubTo.setSubName("old");
+        TestSubObjectPairClass pairTo = new TestSubObjectPairClass();
+        pairTo.setFirst(firstSubTo);
+        pairTo.setSecond(secondSubTo);
+        ReflectionDiff pairDiff = ReflectionUtils.diffObjects(pairFrom, pairTo, true);
+        Assert.assertEquals("diff - a shared source object must be compared with every destination object it meets", List.of("second.subName"), pairDiff.getChangedPaths());
+        Assert.assertTrue("diff - the field holding the changed destination object must be marked", pairDiff.isChanged("second"));
+        Assert.assertEquals("diff - applying must reach every destination object of a shared source object", "new", secondSubTo.getSubName());
+
+        TestSubObjectClass bothSubTo = new TestSubObjectClass();
+        bothSubTo.setSubName("old");
+        TestSubObjectPairClass bothTo = new TestSubObjectPairClass();
+        bothTo.setFirst(bothSubTo);
+        bothTo.setSecond(bothSubTo);
+        ReflectionDiff bothDiff = ReflectionUtils.diffObjects(pairFrom, bothTo);
+        Assert.assertEquals("diff - a pair met through two fields must be compared once", List.of("first.subName"), bothDiff.getChangedPaths());
+        Assert.assertTrue("diff - every field holding a changed pair must be marked", bothDiff.isChanged("first") && bothDiff.isChanged("second"));
+
+        try {
+            ReflectionUtils.diffObjects(from, new TestModelClass());
+            Assert.fail("diff - objects of different classes must be rejected");
+        } catch (IllegalArgumentException expected) {}
+        try {
+            ReflectionUtils.diffObjects("a", "b");
+            Assert.fail("diff - jdk classes must be rejected, they have no fields to compare field by field");
+        } catch (IllegalArgumentException expected) {}
+    }
+
+    @Test()
+    public void testReflectionEqualsHashCodeAndToString() throws Exception {
+        System.out.println("TESTS - compare, hash and print beans without their own equals/hashCode/toString through compiled per class field handles");
+
+        TestTelemetryClass telemetry = new TestTelemetryClass();
+        telemetry.setCount(3);
+        telemetry.setTotalBytes(2048L);
+        telemetry.setAverageLatency(1.5d);
+        telemetry.setHealthy(true);
+        telemetry.setGrade('A');
+        telemetry.setSource("sensor");
+        TestTelemetryClass sameTelemetry = new TestTelemetryClass();
+        ReflectionUtils.mergeNonBaseObjectIntoNonBaseObject(telemetry, sameTelemetry);
+
+        Assert.assertNotEquals("object methods - the test class must not implement equals itself", telemetry, sameTelemetry);
+        Assert.assertTrue("object methods - objects with equal fields must be equal", ReflectionUtils.reflectionEquals(telemetry, sameTelemetry));
+        Assert.assertEquals("object methods - equal objects must have the same hash code", ReflectionUtils.reflectionHashCode(telemetry), ReflectionUtils.reflectionHashCode(sameTelemetry));
+        Assert.assertTrue("object methods - null must equal null", ReflectionUtils.reflectionEquals(null, null));
+        Assert.assertFalse("object methods - an object must not equal null", ReflectionUtils.reflectionEquals(telemetry, null));
+        Assert.assertEquals("object methods - fields must be printed in declaration order",
+                "TestTelemetryClass{count=3, totalBytes=2048, averageLatency=1.5, healthy=true, retries=0, grade=A, source=sensor}",
+                ReflectionUtils.reflectionToString(telemetry));
+        sameTelemetry.setGrade('B');
+        Assert.assertFalse("object methods - a differing primitive must make objects unequal", ReflectionUtils.reflectionEquals(telemetry, sameTelemetry));
+
+        TestModelSubClass model = new TestModelSubClass();
+        model.setName("name");
+        model.setNickname("nick");
+        model.setTags(List.of("a", "b"));
+        TestModelSubClass sameModel = new TestModelSubClass();
+        sameModel.setName("name");
+        sameModel.setNickname("nick");
+        sameModel.setTags(new ArrayList<>(List.of("a", "b")));
+        Assert.assertTrue("object methods - super class fields and collections must be compared by value", ReflectionUtils.reflectionEquals(model, sameModel));
+        Assert.assertTrue("object methods - super class fields must be printed first", ReflectionUtils.reflectionToString(model).startsWith("TestModelSubClass{name=name,"));
+        Assert.assertTrue("object methods - static fields must not be printed", !ReflectionUtils.reflectionToString(model).contains("CONSTANT_TEST"));
+        TestModelClass superModel = new TestModelClass();
+        superModel.setName("name");
+        superModel.setTags(List.of("a", "b"));
+        Assert.assertFalse("object methods - objects of different classes must not be equal", ReflectionUtils.reflectionEquals(superModel, model));
+
+        // jdk classes, enums and arrays have no fields of their own to compare, they must be compared as values
+        Assert.assertFalse("object methods - different strings must not be equal", ReflectionUtils.reflectionEquals("a", "b"));
+        Assert.assertTrue("object methods - equal strings must be equal", ReflectionUtils.reflectionEquals("a", new String("a")));
+        Assert.assertEquals("object methods - strings must hash like String.hashCode", "a".hashCode(), ReflectionUtils.reflectionHashCode("a"));
+        Assert.assertNotEquals("object methods - different strings must hash apart", ReflectionUtils.reflectionHashCode("a"), ReflectionUtils.reflectionHashCode("b"));
+        Assert.assertEquals("object methods - strings must print as themselves", "a", ReflectionUtils.reflectionToString("a"));
+        Assert.assertFalse("object methods - different enum constants must not be equal", ReflectionUtils.reflectionEquals(DayOfWeek.MONDAY, DayOfWeek.FRIDAY));
+        Assert.assertEquals("object methods - enums must print their name", "MONDAY", ReflectionUtils.reflectionToString(DayOfWeek.MONDAY));
+        Assert.assertFalse("object methods - arrays with different elements must not be equal", ReflectionUtils.reflectionEquals(new int[]{1}, new int[]{2}));
+        Assert.assertTrue("object methods - arrays with equal elements must be equal", ReflectionUtils.reflectionEquals(new int[]{1}, new int[]{1}));
+        Assert.assertEquals("object methods - equal arrays must hash alike", ReflectionUtils.reflectionHashCode(new int[]{1}), ReflectionUtils.reflectionHashCode(new int[]{1}));
+        Assert.assertEquals("object methods - arrays must print their elements", "[1, 2]", ReflectionUtils.reflectionToString(new int[]{1, 2}));
+    }
+
+    @Test()
+    public void testShallowMergeBetweenDifferentClasses() throws Exception {
+        System.out.println("TESTS - shallow merge a dto into an entity of a different class twice, the second time is to test that the cached mapping plan does not cause issues");
+
+        for(int i = 0; i < 2; i++) {
+            TestSubObjectClass sub = new TestSubObjectClass();
+            TestModelDtoClass dto = new TestModelDtoClass();
+            dto.setName("dtoName" + i);
+            dto.setDescription(null);
+            dto.setSub(sub);
+            dto.setStatus("ACTIVE");
+
+            TestModelClass entity = new TestModelClass();
+            entity.setDescription("keepDescription");
+            ReflectionUtils.shallowMergeNonBaseObjectIntoNonBaseObjectQuick(dto, entity);
+
+            Assert.assertEquals("shallowMergeQuick - matching property must be copied", "dtoName" + i, entity.getName());
+            Assert.assertEquals("shallowMergeQuick - null values must not be copied", "keepDescription", entity.getDescription());
+            Assert.assertSame("shallowMergeQuick - nested objects must be copied by reference", sub, entity.getSub());
+            Assert.assertNull("shallowMergeQuick - properties with a different type must not be copied", entity.getStatus());
+
+            TestModelDtoClass dtoFromEntity = ReflectionUtils.shallowMergeNonBaseObjectIntoNonBaseObject(entity, new TestModelDtoClass());
+            Assert.assertEquals("shallowMerge - matching property must be copied back", "dtoName" + i, dtoFromEntity.getName());
+            Assert.assertEquals("shallowMerge - matching property must be copied back", "keepDescription", dtoFromEntity.getDescription());
+        }
+    }
+
     @AfterClass
     public static void PostTestClassRun() {
         System.out.println("TESTS - CLEAN UP DATA");
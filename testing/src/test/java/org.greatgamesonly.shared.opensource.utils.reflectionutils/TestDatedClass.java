@@ -0,0 +1,28 @@
+package org.greatgamesonly.shared.opensource.utils.reflectionutils;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+public class TestDatedClass {
+    private int count;
+    private UUID id;
+    private LocalDate day;
+    public int getCount() {
+        return count;
+    }
+    public void setCount(int count) {
+        this.count = count;
+    }
+    public UUID getId() {
+        return id;
+    }
+    public void setId(UUID id) {
+        this.id = id;
+    }
+    public LocalDate getDay() {
+        return day;
+    }
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+}
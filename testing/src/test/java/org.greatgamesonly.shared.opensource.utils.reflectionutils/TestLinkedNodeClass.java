@@ -0,0 +1,18 @@
+package org.greatgamesonly.shared.opensource.utils.reflectionutils;
+
+public class TestLinkedNodeClass {
+    private String value;
+    private TestLinkedNodeClass next;
+    public String getValue() {
+        return value;
+    }
+    public void setValue(String value) {
+        this.value = value;
+    }
+    public TestLinkedNodeClass getNext() {
+        return next;
+    }
+    public void setNext(TestLinkedNodeClass next) {
+        this.next = next;
+    }
+}
@@ -0,0 +1,17 @@
+package org.greatgamesonly.shared.opensource.utils.reflectionutils;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface TestMarkerAnnotation {
+    String value() default "";
+    String[] tags() default {};
+    TestStatusEnum status() default TestStatusEnum.ACTIVE;
+    long weight() default 0L;
+}
@@ -0,0 +1,5 @@
+package org.greatgamesonly.shared.opensource.utils.reflectionutils;
+
+public interface TestMarkerInterface {
+    String describe();
+}
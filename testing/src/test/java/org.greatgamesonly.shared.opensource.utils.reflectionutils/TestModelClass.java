@@ -1,10 +1,16 @@
 package org.greatgamesonly.shared.opensource.utils.reflectionutils;
 
+import java.util.List;
+import java.util.Map;
+
 public class TestModelClass {
     public static final String CONSTANT_TEST = "test_constant_value";
     private String name;
     private String description;
     private TestSubObjectClass sub;
+    private List<String> tags;
+    private Map<String, String> attributes;
+    private TestStatusEnum status;
 
     public String getName() {
         return name;
@@ -16,4 +22,12 @@ public class TestModelClass {
     public void setDescription(String description) { this.description = description; }
     public TestSubObjectClass getSub() { return this.sub; }
     public void setSub(TestSubObjectClass sub) { this.sub = sub; }
+    public List<String> getTags() { return tags; }
+    public void setTags(List<String> tags) { this.tags = tags; }
+    public Map<String, String> getAttributes() { return attributes; }
+    public void setAttributes(Map<String, String> attributes) { this.attributes = attributes; }
+    public TestStatusEnum getStatus() { return status; }
+    public void setStatus(TestStatusEnum status) { this.status = status; }
+    public String describe(String prefix, String suffix) { return prefix + name + suffix; }
+    public String describe(String prefix, Integer times) { return prefix + String.valueOf(name).repeat(times); }
 }
\ No newline at end of file
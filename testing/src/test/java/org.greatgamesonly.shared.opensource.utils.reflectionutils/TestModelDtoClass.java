@@ -0,0 +1,17 @@
+package org.greatgamesonly.shared.opensource.utils.reflectionutils;
+
+public class TestModelDtoClass {
+    private String name;
+    private String description;
+    private TestSubObjectClass sub;
+    private String status;
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    public TestSubObjectClass getSub() { return sub; }
+    public void setSub(TestSubObjectClass sub) { this.sub = sub; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+}
@@ -0,0 +1,11 @@
+package org.greatgamesonly.shared.opensource.utils.reflectionutils;
+
+public class TestModelSubClass extends TestModelClass {
+    private String nickname;
+    public String getNickname() {
+        return nickname;
+    }
+    public void setNickname(String nickname) {
+        this.nickname = nickname;
+    }
+}
@@ -0,0 +1,13 @@
+package org.greatgamesonly.shared.opensource.utils.reflectionutils;
+
+@Deprecated
+@TestMarkerAnnotation(value = "base", tags = {"a", "b"}, status = TestStatusEnum.INACTIVE, weight = 12L)
+public abstract class TestPluginBaseClass implements TestMarkerInterface {
+    private static final double RATIO = 1.5d;
+    private static final long LIMIT = 1L << 40;
+
+    @Override
+    public String describe() {
+        return "plugin " + RATIO + " " + LIMIT;
+    }
+}
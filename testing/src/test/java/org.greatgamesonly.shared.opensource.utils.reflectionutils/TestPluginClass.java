@@ -0,0 +1,8 @@
+package org.greatgamesonly.shared.opensource.utils.reflectionutils;
+
+public class TestPluginClass extends TestPluginBaseClass {
+    @Override
+    public String describe() {
+        return "concrete " + super.describe();
+    }
+}
@@ -0,0 +1,9 @@
+package org.greatgamesonly.shared.opensource.utils.reflectionutils;
+
+public class TestStaticInitializerClass {
+    public static final String INITIALIZED_PROPERTY = "reflectionutils.test.staticInitializerRan";
+
+    static {
+        System.setProperty(INITIALIZED_PROPERTY, "true");
+    }
+}
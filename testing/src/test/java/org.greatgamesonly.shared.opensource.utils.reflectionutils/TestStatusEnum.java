@@ -0,0 +1,6 @@
+package org.greatgamesonly.shared.opensource.utils.reflectionutils;
+
+public enum TestStatusEnum {
+    ACTIVE,
+    INACTIVE
+}
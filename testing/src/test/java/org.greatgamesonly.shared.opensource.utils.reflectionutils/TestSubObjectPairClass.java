@@ -0,0 +1,18 @@
+package org.greatgamesonly.shared.opensource.utils.reflectionutils;
+
+public class TestSubObjectPairClass {
+    private TestSubObjectClass first;
+    private TestSubObjectClass second;
+    public TestSubObjectClass getFirst() {
+        return first;
+    }
+    public void setFirst(TestSubObjectClass first) {
+        this.first = first;
+    }
+    public TestSubObjectClass getSecond() {
+        return second;
+    }
+    public void setSecond(TestSubObjectClass second) {
+        this.second = second;
+    }
+}
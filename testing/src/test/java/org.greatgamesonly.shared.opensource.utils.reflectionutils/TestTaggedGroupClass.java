@@ -0,0 +1,30 @@
+package org.greatgamesonly.shared.opensource.utils.reflectionutils;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+public class TestTaggedGroupClass {
+    private Set<TestTaggedGroupClass> members;
+    private List<String> tags;
+    public Set<TestTaggedGroupClass> getMembers() {
+        return members;
+    }
+    public void setMembers(Set<TestTaggedGroupClass> members) {
+        this.members = members;
+    }
+    public List<String> getTags() {
+        return tags;
+    }
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof TestTaggedGroupClass && Objects.equals(tags, ((TestTaggedGroupClass) o).tags);
+    }
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(tags);
+    }
+}
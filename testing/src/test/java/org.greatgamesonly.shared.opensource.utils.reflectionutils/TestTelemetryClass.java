@@ -0,0 +1,53 @@
+package org.greatgamesonly.shared.opensource.utils.reflectionutils;
+
+public class TestTelemetryClass {
+    private int count;
+    private long totalBytes;
+    private double averageLatency;
+    private boolean healthy;
+    private short retries;
+    private char grade;
+    private String source;
+    public int getCount() {
+        return count;
+    }
+    public void setCount(int count) {
+        this.count = count;
+    }
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+    public void setTotalBytes(long totalBytes) {
+        this.totalBytes = totalBytes;
+    }
+    public double getAverageLatency() {
+        return averageLatency;
+    }
+    public void setAverageLatency(double averageLatency) {
+        this.averageLatency = averageLatency;
+    }
+    public boolean isHealthy() {
+        return healthy;
+    }
+    public void setHealthy(boolean healthy) {
+        this.healthy = healthy;
+    }
+    public short getRetries() {
+        return retries;
+    }
+    public void setRetries(short retries) {
+        this.retries = retries;
+    }
+    public char getGrade() {
+        return grade;
+    }
+    public void setGrade(char grade) {
+        this.grade = grade;
+    }
+    public String getSource() {
+        return source;
+    }
+    public void setSource(String source) {
+        this.source = source;
+    }
+}